@@ -0,0 +1,151 @@
+package myapp.aop.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import myapp.security.SecurityUtils;
+import myapp.service.IdempotencyService;
+import myapp.service.dto.IdempotentResponseDTO;
+import myapp.web.rest.errors.BadRequestAlertException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Aspect running the {@link Idempotent} endpoints at most once per {@value #IDEMPOTENCY_KEY_HEADER}.
+ * <p>
+ * Keys are scoped to the current user, the HTTP method and the request path. The request body is hashed, so reusing a
+ * key for a different body is rejected rather than answered with an unrelated response. Responses with a
+ * {@code 5xx} status, and exceptions, are not stored: the next request carrying the key runs again.
+ */
+@Aspect
+public class IdempotencyAspect {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyAspect.class);
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final TypeReference<LinkedHashMap<String, List<String>>> HEADERS_TYPE = new TypeReference<>() {};
+
+    private final IdempotencyService idempotencyService;
+
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyAspect(IdempotencyService idempotencyService, ObjectMapper objectMapper) {
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Around("@annotation(myapp.aop.idempotency.Idempotent)")
+    public Object idempotent(ProceedingJoinPoint joinPoint) throws Throwable {
+        HttpServletRequest request = currentRequest();
+        String idempotencyKey = request == null ? null : request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey == null) {
+            return joinPoint.proceed();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestAlertException("Invalid " + IDEMPOTENCY_KEY_HEADER + " header", "idempotency", "idempotencykeyinvalid");
+        }
+        String key = sha256(
+            (SecurityUtils.getCurrentUserLogin().orElse("") +
+                '\n' +
+                request.getMethod() +
+                '\n' +
+                request.getRequestURI() +
+                '\n' +
+                idempotencyKey).getBytes(StandardCharsets.UTF_8)
+        );
+        String requestHash = sha256(objectMapper.writeValueAsBytes(requestBodies(joinPoint)));
+
+        Optional<IdempotentResponseDTO> replay = idempotencyService.acquire(key, requestHash);
+        if (replay.isPresent()) {
+            LOG.debug("Replaying the response to {} {} for its {}", request.getMethod(), request.getRequestURI(), IDEMPOTENCY_KEY_HEADER);
+            return replay(replay.orElseThrow());
+        }
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable t) {
+            idempotencyService.release(key);
+            throw t;
+        }
+        if (result instanceof ResponseEntity<?> response && !response.getStatusCode().is5xxServerError()) {
+            IdempotentResponseDTO stored;
+            try {
+                stored = new IdempotentResponseDTO(
+                    requestHash,
+                    response.getStatusCode().value(),
+                    objectMapper.writeValueAsString(new LinkedHashMap<>(response.getHeaders())),
+                    response.getBody() == null ? null : objectMapper.writeValueAsString(response.getBody())
+                );
+            } catch (JsonProcessingException e) {
+                LOG.warn("Response to {} {} not stored for replay: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+                idempotencyService.release(key);
+                return result;
+            }
+            idempotencyService.complete(key, stored);
+        } else {
+            idempotencyService.release(key);
+        }
+        return result;
+    }
+
+    private ResponseEntity<Object> replay(IdempotentResponseDTO response) throws JsonProcessingException {
+        Map<String, List<String>> headers = objectMapper.readValue(response.headers(), HEADERS_TYPE);
+        return ResponseEntity.status(response.status())
+            .headers(httpHeaders -> {
+                httpHeaders.putAll(headers);
+                httpHeaders.set(IDEMPOTENT_REPLAYED_HEADER, "true");
+            })
+            .body(response.body() == null ? null : objectMapper.readTree(response.body()));
+    }
+
+    private static List<Object> requestBodies(ProceedingJoinPoint joinPoint) {
+        Annotation[][] parameterAnnotations = ((MethodSignature) joinPoint.getSignature()).getMethod().getParameterAnnotations();
+        Object[] args = joinPoint.getArgs();
+        List<Object> bodies = new ArrayList<>(1);
+        for (int i = 0; i < args.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof RequestBody) {
+                    bodies.add(args[i]);
+                }
+            }
+        }
+        return bodies;
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes ? attributes.getRequest() : null;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package myapp.aop.idempotency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a REST endpoint returning a {@link org.springframework.http.ResponseEntity} as honouring the
+ * {@value IdempotencyAspect#IDEMPOTENCY_KEY_HEADER} header: a request repeating the key of a completed one gets the
+ * same response without the endpoint running again.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Idempotent {}
@@ -0,0 +1,4 @@
+/**
+ * Idempotency-Key aspect.
+ */
+package myapp.aop.idempotency;
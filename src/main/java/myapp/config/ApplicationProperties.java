@@ -1,5 +1,9 @@
 package myapp.config;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +17,60 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Cache cache = new Cache();
+
+    private final Checkout checkout = new Checkout();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Sales sales = new Sales();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final MailCampaign mailCampaign = new MailCampaign();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final JwtCache jwtCache = new JwtCache();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Checkout getCheckout() {
+        return checkout;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public Sales getSales() {
+        return sales;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public MailCampaign getMailCampaign() {
+        return mailCampaign;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public JwtCache getJwtCache() {
+        return jwtCache;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +85,352 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Cache {
+
+        /**
+         * Whether Hibernate caches the entities and collections marked {@code @Cache} in the second-level cache. Off by
+         * default: the cache is local to each instance, so an instance keeps serving what it cached until the time to
+         * live of the region even after another instance changed it.
+         */
+        private boolean secondLevelCache = false;
+
+        /**
+         * Per-region overrides of the {@code jhipster.cache.caffeine} defaults, keyed by cache region name
+         * (for example {@code myapp.domain.Product} or {@code myapp.domain.Category.products}).
+         */
+        private final Map<String, Region> regions = new HashMap<>();
+
+        public boolean isSecondLevelCache() {
+            return secondLevelCache;
+        }
+
+        public void setSecondLevelCache(boolean secondLevelCache) {
+            this.secondLevelCache = secondLevelCache;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            private Integer timeToLiveSeconds;
+
+            private Long maxEntries;
+
+            public Integer getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Integer timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+    }
+
+    public static class Checkout {
+
+        /**
+         * Flat shipping cost charged on every order placed through the checkout.
+         */
+        private BigDecimal shippingCost = BigDecimal.ZERO;
+
+        /**
+         * Maximum number of distinct products in one checkout basket.
+         */
+        private int maxItems = 100;
+
+        public BigDecimal getShippingCost() {
+            return shippingCost;
+        }
+
+        public void setShippingCost(BigDecimal shippingCost) {
+            this.shippingCost = shippingCost;
+        }
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+    }
+
+    public static class Idempotency {
+
+        /**
+         * How long the response to a request carrying an {@code Idempotency-Key} is replayed.
+         */
+        private Duration ttl = Duration.ofHours(24);
+
+        /**
+         * Maximum number of responses kept in memory; older ones are read back from the database.
+         */
+        private long maxEntries = 10_000;
+
+        /**
+         * How long a duplicate waits for the first request, which is also how long the first request holds the key
+         * before another instance may take it over.
+         */
+        private Duration lockTimeout = Duration.ofSeconds(30);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getLockTimeout() {
+            return lockTimeout;
+        }
+
+        public void setLockTimeout(Duration lockTimeout) {
+            this.lockTimeout = lockTimeout;
+        }
+    }
+
+    public static class Sales {
+
+        /**
+         * Number of past days, before today, whose rollups the nightly reconciliation checks against the orders.
+         */
+        private int reconcileDays = 2;
+
+        public int getReconcileDays() {
+            return reconcileDays;
+        }
+
+        public void setReconcileDays(int reconcileDays) {
+            this.reconcileDays = reconcileDays;
+        }
+    }
+
+    public static class MailOutbox {
+
+        /**
+         * Maximum number of emails sent over one SMTP connection.
+         */
+        private int batchSize = 50;
+
+        /**
+         * Number of attempts after which an email is given up and left in the outbox.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before the second attempt; it doubles at each further attempt.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        /**
+         * Maximum delay between two attempts.
+         */
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        /**
+         * How long a batch being sent is held by its instance, before another instance may send it again.
+         */
+        private Duration lease = Duration.ofMinutes(5);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+    }
+
+    public static class MailCampaign {
+
+        /**
+         * Maximum number of campaign emails sent per second, across the workers of one instance.
+         */
+        private double rate = 20;
+
+        /**
+         * Number of threads building and sending campaign emails.
+         */
+        private int workers = 4;
+
+        /**
+         * Number of recipients read at once; progress is saved after each chunk.
+         */
+        private int chunkSize = 200;
+
+        /**
+         * Maximum number of emails sent over one SMTP connection.
+         */
+        private int batchSize = 50;
+
+        /**
+         * How long a campaign may go without progress before another instance takes it over; the instance running it
+         * renews it between batches, so it must be well over the time a batch takes at the rate.
+         */
+        private Duration lease = Duration.ofMinutes(5);
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public void setWorkers(int workers) {
+            this.workers = workers;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+    }
+
+    public static class PasswordHashing {
+
+        /**
+         * BCrypt work factor of new hashes; passwords hashed with a lower one are hashed again at the next login.
+         */
+        private int strength = 10;
+
+        /**
+         * Number of threads hashing and verifying passwords, by default one per processor.
+         */
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Number of password operations waiting for a thread before new ones are turned away.
+         */
+        private int queueCapacity = 32;
+
+        /**
+         * Maximum time a request waits for its password operation before it is turned away.
+         */
+        private Duration maxWait = Duration.ofSeconds(2);
+
+        public int getStrength() {
+            return strength;
+        }
+
+        public void setStrength(int strength) {
+            this.strength = strength;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+
+    public static class JwtCache {
+
+        /**
+         * Maximum number of verified tokens kept until they expire; {@code 0} verifies every token on every request.
+         */
+        private long maxEntries = 10000;
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
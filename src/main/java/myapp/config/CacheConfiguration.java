@@ -0,0 +1,102 @@
+package myapp.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.boot.info.GitProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.*;
+import tech.jhipster.config.JHipsterProperties;
+import tech.jhipster.config.cache.PrefixedKeyGenerator;
+
+/**
+ * Caffeine (JCache) backed cache manager, shared by Spring's cache abstraction and the Hibernate second-level cache;
+ * the latter is only used when {@code application.cache.second-level-cache} is on.
+ * <p>
+ * Every region is bounded by {@code jhipster.cache.caffeine.max-entries} and expires after
+ * {@code jhipster.cache.caffeine.time-to-live-seconds}; both can be overridden per region with
+ * {@code application.cache.regions.<region>}. Statistics are enabled on each region so that the
+ * {@code cache.gets}, {@code cache.puts} and {@code cache.evictions} meters are published per region.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    private GitProperties gitProperties;
+    private BuildProperties buildProperties;
+    private final JHipsterProperties.Cache.Caffeine caffeine;
+    private final ApplicationProperties.Cache applicationCache;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.caffeine = jHipsterProperties.getCache().getCaffeine();
+        this.applicationCache = applicationProperties.getCache();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheManagerCustomizer() {
+        return cm -> {
+            createCache(cm, myapp.domain.Authority.class.getName());
+            createCache(cm, myapp.domain.User.class.getName() + ".authorities");
+            createCache(cm, myapp.domain.Product.class.getName());
+            createCache(cm, myapp.domain.Category.class.getName());
+            createCache(cm, myapp.domain.Category.class.getName() + ".products");
+            createCache(cm, myapp.repository.UserRepository.USERS_BY_LOGIN_CACHE);
+            createCache(cm, myapp.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, myapp.repository.AuthorityRepository.AUTHORITIES_CACHE);
+            // jhipster-needle-caffeine-add-entry
+        };
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        } else {
+            cm.createCache(cacheName, jcacheConfiguration(cacheName));
+        }
+    }
+
+    private javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = applicationCache.getRegions().get(cacheName);
+        long maxEntries = caffeine.getMaxEntries();
+        long timeToLiveSeconds = caffeine.getTimeToLiveSeconds();
+        if (region != null && region.getMaxEntries() != null) {
+            maxEntries = region.getMaxEntries();
+        }
+        if (region != null && region.getTimeToLiveSeconds() != null) {
+            timeToLiveSeconds = region.getTimeToLiveSeconds();
+        }
+
+        CaffeineConfiguration<Object, Object> caffeineConfiguration = new CaffeineConfiguration<>();
+        caffeineConfiguration.setMaximumSize(OptionalLong.of(maxEntries));
+        caffeineConfiguration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(timeToLiveSeconds)));
+        caffeineConfiguration.setStatisticsEnabled(true);
+        return caffeineConfiguration;
+    }
+
+    @Autowired(required = false)
+    public void setGitProperties(GitProperties gitProperties) {
+        this.gitProperties = gitProperties;
+    }
+
+    @Autowired(required = false)
+    public void setBuildProperties(BuildProperties buildProperties) {
+        this.buildProperties = buildProperties;
+    }
+
+    @Bean
+    public KeyGenerator keyGenerator() {
+        return new PrefixedKeyGenerator(this.gitProperties, this.buildProperties);
+    }
+}
@@ -0,0 +1,16 @@
+package myapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import myapp.aop.idempotency.IdempotencyAspect;
+import myapp.service.IdempotencyService;
+import org.springframework.context.annotation.*;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class IdempotencyAspectConfiguration {
+
+    @Bean
+    public IdempotencyAspect idempotencyAspect(IdempotencyService idempotencyService, ObjectMapper objectMapper) {
+        return new IdempotencyAspect(idempotencyService, objectMapper);
+    }
+}
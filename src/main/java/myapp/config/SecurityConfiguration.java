@@ -3,6 +3,7 @@ package myapp.config;
 import static org.springframework.security.config.Customizer.withDefaults;
 import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
+import myapp.management.PasswordHashingMetersService;
 import myapp.security.*;
 import myapp.web.filter.SpaWebFilter;
 import org.springframework.context.annotation.Bean;
@@ -40,8 +41,18 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+        ApplicationProperties applicationProperties,
+        PasswordHashingMetersService passwordHashingMetersService
+    ) {
+        ApplicationProperties.PasswordHashing passwordHashing = applicationProperties.getPasswordHashing();
+        return new BoundedPasswordEncoder(
+            new BCryptPasswordEncoder(passwordHashing.getStrength()),
+            passwordHashing.getThreads(),
+            passwordHashing.getQueueCapacity(),
+            passwordHashing.getMaxWait(),
+            passwordHashingMetersService
+        );
     }
 
     @Bean
@@ -3,17 +3,25 @@ package myapp.config;
 import static myapp.security.SecurityUtils.JWT_ALGORITHM;
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.proc.BadJWSException;
 import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jwt.proc.BadJWTException;
+import io.micrometer.core.instrument.Timer;
+import java.text.ParseException;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import myapp.management.SecurityMetersService;
+import myapp.security.CachingJwtDecoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.BadJwtException;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 
@@ -26,28 +34,41 @@ public class SecurityJwtConfiguration {
     private String jwtKey;
 
     @Bean
-    public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
+    public JwtDecoder jwtDecoder(SecurityMetersService metersService, ApplicationProperties applicationProperties) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
+        JwtDecoder verifyingDecoder = token -> {
+            Timer.Sample sample = metersService.startTimer();
             try {
                 return jwtDecoder.decode(token);
-            } catch (Exception e) {
-                if (e.getMessage().contains("Invalid signature")) {
-                    metersService.trackTokenInvalidSignature();
-                } else if (e.getMessage().contains("Jwt expired at")) {
-                    metersService.trackTokenExpired();
-                } else if (
-                    e.getMessage().contains("Invalid JWT serialization") ||
-                    e.getMessage().contains("Malformed token") ||
-                    e.getMessage().contains("Invalid unsecured/JWS/JWE")
-                ) {
-                    metersService.trackTokenMalformed();
-                } else {
-                    LOG.error("Unknown JWT error {}", e.getMessage());
-                }
+            } catch (JwtException e) {
+                trackInvalidToken(metersService, e);
                 throw e;
+            } finally {
+                metersService.trackTokenDecode(sample);
             }
         };
+        long maxEntries = applicationProperties.getJwtCache().getMaxEntries();
+        return maxEntries > 0 ? new CachingJwtDecoder(verifyingDecoder, maxEntries, metersService) : verifyingDecoder;
+    }
+
+    /**
+     * Classify a token rejected by {@link NimbusJwtDecoder}: the signature is checked by Nimbus, which reports a bad
+     * one as a {@link BadJWSException}; the only validator is the default timestamp one, so a {@link JwtValidationException}
+     * is an expired token; anything Nimbus could not parse fails with a {@link ParseException}.
+     */
+    private static void trackInvalidToken(SecurityMetersService metersService, JwtException e) {
+        if (e instanceof JwtValidationException) {
+            metersService.trackTokenExpired();
+        } else if (e.getCause() instanceof BadJWSException) {
+            metersService.trackTokenInvalidSignature();
+        } else if (e.getCause() instanceof ParseException || e.getCause() instanceof BadJWTException) {
+            metersService.trackTokenMalformed();
+        } else if (e instanceof BadJwtException) {
+            // a plain or encrypted token, which no JWS processor accepts
+            metersService.trackTokenUnsupported();
+        } else {
+            LOG.error("Unknown JWT error {}", e.getMessage());
+        }
     }
 
     @Bean
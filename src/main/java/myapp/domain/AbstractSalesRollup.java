@@ -0,0 +1,116 @@
+package myapp.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * The sales of one time bucket, summed over the {@link Order}s placed in it that are not cancelled.
+ * <p>
+ * The id is the start of the bucket, in UTC. A new bucket is inserted rather than merged, so that two instances
+ * creating it at once conflict on the primary key instead of overwriting each other.
+ */
+@MappedSuperclass
+public abstract class AbstractSalesRollup implements Serializable, Persistable<Instant> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @NotNull
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @NotNull
+    @Column(name = "revenue", precision = 21, scale = 2, nullable = false)
+    private BigDecimal revenue;
+
+    @NotNull
+    @Column(name = "shipping_cost", precision = 21, scale = 2, nullable = false)
+    private BigDecimal shippingCost;
+
+    @Transient
+    private boolean isPersisted;
+
+    public Instant getBucketStart() {
+        return this.bucketStart;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Long getOrderCount() {
+        return this.orderCount;
+    }
+
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getRevenue() {
+        return this.revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public BigDecimal getShippingCost() {
+        return this.shippingCost;
+    }
+
+    public void setShippingCost(BigDecimal shippingCost) {
+        this.shippingCost = shippingCost;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.isPersisted = true;
+    }
+
+    @Override
+    public Instant getId() {
+        return this.bucketStart;
+    }
+
+    @Transient
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return getBucketStart() != null && getBucketStart().equals(((AbstractSalesRollup) o).getBucketStart());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" +
+            "bucketStart='" + getBucketStart() + "'" +
+            ", orderCount=" + getOrderCount() +
+            ", revenue=" + getRevenue() +
+            ", shippingCost=" + getShippingCost() +
+            "}";
+    }
+}
@@ -1,5 +1,6 @@
 package myapp.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -8,12 +9,17 @@ import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import myapp.domain.enumeration.CategoryStatus;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * A Category.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "category")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Category implements Serializable {
 
@@ -56,9 +62,24 @@ public class Category implements Serializable {
         joinColumns = @JoinColumn(name = "category_id"),
         inverseJoinColumns = @JoinColumn(name = "product_id")
     )
-    @JsonIgnoreProperties(value = { "wishList", "order", "categories" }, allowSetters = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @JsonIgnoreProperties(value = { "categories" }, allowSetters = true)
     private Set<Product> products = new HashSet<>();
 
+    /**
+     * Materialised path of the category: the ids of its ancestors from the root down, each followed by a slash, so
+     * that the descendants of a category are a prefix lookup on its path followed by its id. Maintained by
+     * {@link myapp.service.CategoryService}.
+     */
+    @JsonIgnore
+    @Size(max = 500)
+    @Column(name = "path", length = 500)
+    private String path;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -175,6 +196,32 @@ public class Category implements Serializable {
         return this;
     }
 
+    public String getPath() {
+        return this.path;
+    }
+
+    public Category path(String path) {
+        this.setPath(path);
+        return this;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Category version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -43,8 +43,12 @@ public class Customer implements Serializable {
     @Column(name = "telephone", length = 15)
     private String telephone;
 
+    @OneToOne
+    @JoinColumn(unique = true)
+    private User user;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "customer")
-    @JsonIgnoreProperties(value = { "products", "customer" }, allowSetters = true)
+    @JsonIgnoreProperties(value = { "customer" }, allowSetters = true)
     private Set<WishList> wishLists = new HashSet<>();
 
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "customer")
@@ -122,6 +126,19 @@ public class Customer implements Serializable {
         this.telephone = telephone;
     }
 
+    public User getUser() {
+        return this.user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Customer user(User user) {
+        this.setUser(user);
+        return this;
+    }
+
     public Set<WishList> getWishLists() {
         return this.wishLists;
     }
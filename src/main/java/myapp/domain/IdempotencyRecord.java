@@ -0,0 +1,191 @@
+package myapp.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * The response to a request made with an {@code Idempotency-Key}, or the claim of the request still running.
+ * <p>
+ * The id is a hash of the key scoped to the user and the endpoint, so keys chosen by different clients never collide.
+ */
+@Entity
+@Table(name = "idempotency_record")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class IdempotencyRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Size(max = 64)
+    @Column(name = "id", length = 64)
+    private String id;
+
+    @NotNull
+    @Size(max = 64)
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @NotNull
+    @Column(name = "completed", nullable = false)
+    private Boolean completed;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @JdbcTypeCode(SqlTypes.LONGVARCHAR)
+    @Column(name = "response_headers")
+    private String responseHeaders;
+
+    @JdbcTypeCode(SqlTypes.LONGVARCHAR)
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @NotNull
+    @Column(name = "locked_at", nullable = false)
+    private Instant lockedAt;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public String getId() {
+        return this.id;
+    }
+
+    public IdempotencyRecord id(String id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRequestHash() {
+        return this.requestHash;
+    }
+
+    public IdempotencyRecord requestHash(String requestHash) {
+        this.setRequestHash(requestHash);
+        return this;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public Boolean getCompleted() {
+        return this.completed;
+    }
+
+    public IdempotencyRecord completed(Boolean completed) {
+        this.setCompleted(completed);
+        return this;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public Integer getResponseStatus() {
+        return this.responseStatus;
+    }
+
+    public IdempotencyRecord responseStatus(Integer responseStatus) {
+        this.setResponseStatus(responseStatus);
+        return this;
+    }
+
+    public void setResponseStatus(Integer responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+
+    public String getResponseHeaders() {
+        return this.responseHeaders;
+    }
+
+    public IdempotencyRecord responseHeaders(String responseHeaders) {
+        this.setResponseHeaders(responseHeaders);
+        return this;
+    }
+
+    public void setResponseHeaders(String responseHeaders) {
+        this.responseHeaders = responseHeaders;
+    }
+
+    public String getResponseBody() {
+        return this.responseBody;
+    }
+
+    public IdempotencyRecord responseBody(String responseBody) {
+        this.setResponseBody(responseBody);
+        return this;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public Instant getLockedAt() {
+        return this.lockedAt;
+    }
+
+    public IdempotencyRecord lockedAt(Instant lockedAt) {
+        this.setLockedAt(lockedAt);
+        return this;
+    }
+
+    public void setLockedAt(Instant lockedAt) {
+        this.lockedAt = lockedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return this.expiresAt;
+    }
+
+    public IdempotencyRecord expiresAt(Instant expiresAt) {
+        this.setExpiresAt(expiresAt);
+        return this;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IdempotencyRecord)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((IdempotencyRecord) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "IdempotencyRecord{" +
+            "id='" + getId() + "'" +
+            ", completed='" + getCompleted() + "'" +
+            ", responseStatus=" + getResponseStatus() +
+            ", lockedAt='" + getLockedAt() + "'" +
+            ", expiresAt='" + getExpiresAt() + "'" +
+            "}";
+    }
+}
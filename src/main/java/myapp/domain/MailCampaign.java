@@ -0,0 +1,249 @@
+package myapp.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import myapp.domain.enumeration.MailCampaignStatus;
+
+/**
+ * An email sent to every activated {@link User}, rendered from a template once per language.
+ * <p>
+ * The campaign runs through the users by id; {@code lastUserId} is the last user whose chunk has been sent, so that a
+ * campaign interrupted by a restart resumes after it. The instance running a campaign keeps {@code heartbeatAt} fresh,
+ * and only writes its progress while the heartbeat is the one it wrote last.
+ */
+@Entity
+@Table(name = "mail_campaign")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class MailCampaign implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 100)
+    @Column(name = "name", length = 100, nullable = false)
+    private String name;
+
+    @NotNull
+    @Size(max = 100)
+    @Column(name = "template_name", length = 100, nullable = false)
+    private String templateName;
+
+    @NotNull
+    @Size(max = 100)
+    @Column(name = "title_key", length = 100, nullable = false)
+    private String titleKey;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private MailCampaignStatus status;
+
+    @Column(name = "last_user_id")
+    private Long lastUserId;
+
+    @NotNull
+    @Column(name = "sent_count", nullable = false)
+    private Long sentCount;
+
+    @NotNull
+    @Column(name = "failed_count", nullable = false)
+    private Long failedCount;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @JsonIgnore
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
+    @Column(name = "completed_date")
+    private Instant completedDate;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public MailCampaign id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public MailCampaign name(String name) {
+        this.setName(name);
+        return this;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getTemplateName() {
+        return this.templateName;
+    }
+
+    public MailCampaign templateName(String templateName) {
+        this.setTemplateName(templateName);
+        return this;
+    }
+
+    public void setTemplateName(String templateName) {
+        this.templateName = templateName;
+    }
+
+    public String getTitleKey() {
+        return this.titleKey;
+    }
+
+    public MailCampaign titleKey(String titleKey) {
+        this.setTitleKey(titleKey);
+        return this;
+    }
+
+    public void setTitleKey(String titleKey) {
+        this.titleKey = titleKey;
+    }
+
+    public MailCampaignStatus getStatus() {
+        return this.status;
+    }
+
+    public MailCampaign status(MailCampaignStatus status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(MailCampaignStatus status) {
+        this.status = status;
+    }
+
+    public Long getLastUserId() {
+        return this.lastUserId;
+    }
+
+    public MailCampaign lastUserId(Long lastUserId) {
+        this.setLastUserId(lastUserId);
+        return this;
+    }
+
+    public void setLastUserId(Long lastUserId) {
+        this.lastUserId = lastUserId;
+    }
+
+    public Long getSentCount() {
+        return this.sentCount;
+    }
+
+    public MailCampaign sentCount(Long sentCount) {
+        this.setSentCount(sentCount);
+        return this;
+    }
+
+    public void setSentCount(Long sentCount) {
+        this.sentCount = sentCount;
+    }
+
+    public Long getFailedCount() {
+        return this.failedCount;
+    }
+
+    public MailCampaign failedCount(Long failedCount) {
+        this.setFailedCount(failedCount);
+        return this;
+    }
+
+    public void setFailedCount(Long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public MailCampaign createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getHeartbeatAt() {
+        return this.heartbeatAt;
+    }
+
+    public MailCampaign heartbeatAt(Instant heartbeatAt) {
+        this.setHeartbeatAt(heartbeatAt);
+        return this;
+    }
+
+    public void setHeartbeatAt(Instant heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public Instant getCompletedDate() {
+        return this.completedDate;
+    }
+
+    public MailCampaign completedDate(Instant completedDate) {
+        this.setCompletedDate(completedDate);
+        return this;
+    }
+
+    public void setCompletedDate(Instant completedDate) {
+        this.completedDate = completedDate;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MailCampaign)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((MailCampaign) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MailCampaign{" +
+            "id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", templateName='" + getTemplateName() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", lastUserId=" + getLastUserId() +
+            ", sentCount=" + getSentCount() +
+            ", failedCount=" + getFailedCount() +
+            "}";
+    }
+}
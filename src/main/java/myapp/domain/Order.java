@@ -2,17 +2,21 @@ package myapp.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
+import myapp.domain.enumeration.OrderStatus;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * A Order.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "jhi_order")
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Order implements Serializable {
@@ -33,9 +37,9 @@ public class Order implements Serializable {
     private Instant shippedDate;
 
     @NotNull
-    @Size(min = 3)
+    @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
-    private String status;
+    private OrderStatus status;
 
     @NotNull
     @DecimalMin(value = "0")
@@ -50,9 +54,10 @@ public class Order implements Serializable {
     @Column(name = "tracking_number", length = 50)
     private String trackingNumber;
 
+    @Valid
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "order")
-    @JsonIgnoreProperties(value = { "wishList", "order", "categories" }, allowSetters = true)
-    private Set<Product> products = new HashSet<>();
+    @JsonIgnoreProperties(value = { "order" }, allowSetters = true)
+    private Set<OrderLine> lines = new HashSet<>();
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "customer" }, allowSetters = true)
@@ -62,6 +67,10 @@ public class Order implements Serializable {
     @JsonIgnoreProperties(value = { "wishLists", "addresses", "orders" }, allowSetters = true)
     private Customer customer;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -103,16 +112,16 @@ public class Order implements Serializable {
         this.shippedDate = shippedDate;
     }
 
-    public String getStatus() {
+    public OrderStatus getStatus() {
         return this.status;
     }
 
-    public Order status(String status) {
+    public Order status(OrderStatus status) {
         this.setStatus(status);
         return this;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(OrderStatus status) {
         this.status = status;
     }
 
@@ -155,34 +164,34 @@ public class Order implements Serializable {
         this.trackingNumber = trackingNumber;
     }
 
-    public Set<Product> getProducts() {
-        return this.products;
+    public Set<OrderLine> getLines() {
+        return this.lines;
     }
 
-    public void setProducts(Set<Product> products) {
-        if (this.products != null) {
-            this.products.forEach(i -> i.setOrder(null));
+    public void setLines(Set<OrderLine> orderLines) {
+        if (this.lines != null) {
+            this.lines.forEach(i -> i.setOrder(null));
         }
-        if (products != null) {
-            products.forEach(i -> i.setOrder(this));
+        if (orderLines != null) {
+            orderLines.forEach(i -> i.setOrder(this));
         }
-        this.products = products;
+        this.lines = orderLines;
     }
 
-    public Order products(Set<Product> products) {
-        this.setProducts(products);
+    public Order lines(Set<OrderLine> orderLines) {
+        this.setLines(orderLines);
         return this;
     }
 
-    public Order addProduct(Product product) {
-        this.products.add(product);
-        product.setOrder(this);
+    public Order addLine(OrderLine orderLine) {
+        this.lines.add(orderLine);
+        orderLine.setOrder(this);
         return this;
     }
 
-    public Order removeProduct(Product product) {
-        this.products.remove(product);
-        product.setOrder(null);
+    public Order removeLine(OrderLine orderLine) {
+        this.lines.remove(orderLine);
+        orderLine.setOrder(null);
         return this;
     }
 
@@ -212,6 +221,19 @@ public class Order implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Order version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
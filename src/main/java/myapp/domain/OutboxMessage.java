@@ -0,0 +1,279 @@
+package myapp.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A templated email to a {@link User}, written in the transaction that triggers it and sent once it commits.
+ * <p>
+ * The recipient and the keys the template links to are copied from the user when the email is queued, so the email
+ * holds the key issued with it even if the user has changed since; the template is rendered from this copy when the
+ * email is sent. The row is deleted once sent; it is kept, with its last error, when every attempt has failed.
+ */
+@Entity
+@Table(name = "outbox")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class OutboxMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @NotNull
+    @Size(max = 100)
+    @Column(name = "template_name", length = 100, nullable = false)
+    private String templateName;
+
+    @NotNull
+    @Size(max = 100)
+    @Column(name = "title_key", length = 100, nullable = false)
+    private String titleKey;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @NotNull
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Size(max = 255)
+    @Column(name = "last_error", length = 255)
+    private String lastError;
+
+    @Size(max = 50)
+    @Column(name = "login", length = 50)
+    private String login;
+
+    @Size(max = 254)
+    @Column(name = "email", length = 254)
+    private String email;
+
+    @Size(max = 10)
+    @Column(name = "lang_key", length = 10)
+    private String langKey;
+
+    @Size(max = 20)
+    @Column(name = "activation_key", length = 20)
+    private String activationKey;
+
+    @Size(max = 20)
+    @Column(name = "reset_key", length = 20)
+    private String resetKey;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public OutboxMessage id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return this.userId;
+    }
+
+    public OutboxMessage userId(Long userId) {
+        this.setUserId(userId);
+        return this;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getTemplateName() {
+        return this.templateName;
+    }
+
+    public OutboxMessage templateName(String templateName) {
+        this.setTemplateName(templateName);
+        return this;
+    }
+
+    public void setTemplateName(String templateName) {
+        this.templateName = templateName;
+    }
+
+    public String getTitleKey() {
+        return this.titleKey;
+    }
+
+    public OutboxMessage titleKey(String titleKey) {
+        this.setTitleKey(titleKey);
+        return this;
+    }
+
+    public void setTitleKey(String titleKey) {
+        this.titleKey = titleKey;
+    }
+
+    public Integer getAttempts() {
+        return this.attempts;
+    }
+
+    public OutboxMessage attempts(Integer attempts) {
+        this.setAttempts(attempts);
+        return this;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return this.nextAttemptAt;
+    }
+
+    public OutboxMessage nextAttemptAt(Instant nextAttemptAt) {
+        this.setNextAttemptAt(nextAttemptAt);
+        return this;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public OutboxMessage createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    public OutboxMessage lastError(String lastError) {
+        this.setLastError(lastError);
+        return this;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public String getLogin() {
+        return this.login;
+    }
+
+    public OutboxMessage login(String login) {
+        this.setLogin(login);
+        return this;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public String getEmail() {
+        return this.email;
+    }
+
+    public OutboxMessage email(String email) {
+        this.setEmail(email);
+        return this;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getLangKey() {
+        return this.langKey;
+    }
+
+    public OutboxMessage langKey(String langKey) {
+        this.setLangKey(langKey);
+        return this;
+    }
+
+    public void setLangKey(String langKey) {
+        this.langKey = langKey;
+    }
+
+    public String getActivationKey() {
+        return this.activationKey;
+    }
+
+    public OutboxMessage activationKey(String activationKey) {
+        this.setActivationKey(activationKey);
+        return this;
+    }
+
+    public void setActivationKey(String activationKey) {
+        this.activationKey = activationKey;
+    }
+
+    public String getResetKey() {
+        return this.resetKey;
+    }
+
+    public OutboxMessage resetKey(String resetKey) {
+        this.setResetKey(resetKey);
+        return this;
+    }
+
+    public void setResetKey(String resetKey) {
+        this.resetKey = resetKey;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OutboxMessage)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((OutboxMessage) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OutboxMessage{" +
+            "id=" + getId() +
+            ", userId=" + getUserId() +
+            ", templateName='" + getTemplateName() + "'" +
+            ", attempts=" + getAttempts() +
+            ", nextAttemptAt='" + getNextAttemptAt() + "'" +
+            "}";
+    }
+}
@@ -9,12 +9,17 @@ import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import myapp.domain.enumeration.ProductStatus;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * A Product.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "product")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Product implements Serializable {
 
@@ -73,18 +78,14 @@ public class Product implements Serializable {
     @Column(name = "date_modified")
     private Instant dateModified;
 
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JsonIgnoreProperties(value = { "products", "customer" }, allowSetters = true)
-    private WishList wishList;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JsonIgnoreProperties(value = { "products", "shippingAddress", "customer" }, allowSetters = true)
-    private Order order;
-
     @ManyToMany(fetch = FetchType.LAZY, mappedBy = "products")
     @JsonIgnoreProperties(value = { "parent", "products" }, allowSetters = true)
     private Set<Category> categories = new HashSet<>();
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -243,32 +244,6 @@ public class Product implements Serializable {
         this.dateModified = dateModified;
     }
 
-    public WishList getWishList() {
-        return this.wishList;
-    }
-
-    public void setWishList(WishList wishList) {
-        this.wishList = wishList;
-    }
-
-    public Product wishList(WishList wishList) {
-        this.setWishList(wishList);
-        return this;
-    }
-
-    public Order getOrder() {
-        return this.order;
-    }
-
-    public void setOrder(Order order) {
-        this.order = order;
-    }
-
-    public Product order(Order order) {
-        this.setOrder(order);
-        return this;
-    }
-
     public Set<Category> getCategories() {
         return this.categories;
     }
@@ -300,6 +275,19 @@ public class Product implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Product version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -0,0 +1,13 @@
+package myapp.domain;
+
+import jakarta.persistence.*;
+
+/**
+ * The sales of one day, in UTC.
+ */
+@Entity
+@Table(name = "sales_daily_rollup")
+public class SalesDailyRollup extends AbstractSalesRollup {
+
+    private static final long serialVersionUID = 1L;
+}
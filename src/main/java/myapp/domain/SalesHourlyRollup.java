@@ -0,0 +1,13 @@
+package myapp.domain;
+
+import jakarta.persistence.*;
+
+/**
+ * The sales of one hour, in UTC.
+ */
+@Entity
+@Table(name = "sales_hourly_rollup")
+public class SalesHourlyRollup extends AbstractSalesRollup {
+
+    private static final long serialVersionUID = 1L;
+}
@@ -4,8 +4,6 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  * A WishList.
@@ -31,10 +29,6 @@ public class WishList implements Serializable {
     @Column(name = "restricted")
     private Boolean restricted;
 
-    @OneToMany(fetch = FetchType.LAZY, mappedBy = "wishList")
-    @JsonIgnoreProperties(value = { "wishList", "order", "categories" }, allowSetters = true)
-    private Set<Product> products = new HashSet<>();
-
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "wishLists", "addresses", "orders" }, allowSetters = true)
     private Customer customer;
@@ -80,37 +74,6 @@ public class WishList implements Serializable {
         this.restricted = restricted;
     }
 
-    public Set<Product> getProducts() {
-        return this.products;
-    }
-
-    public void setProducts(Set<Product> products) {
-        if (this.products != null) {
-            this.products.forEach(i -> i.setWishList(null));
-        }
-        if (products != null) {
-            products.forEach(i -> i.setWishList(this));
-        }
-        this.products = products;
-    }
-
-    public WishList products(Set<Product> products) {
-        this.setProducts(products);
-        return this;
-    }
-
-    public WishList addProduct(Product product) {
-        this.products.add(product);
-        product.setWishList(this);
-        return this;
-    }
-
-    public WishList removeProduct(Product product) {
-        this.products.remove(product);
-        product.setWishList(null);
-        return this;
-    }
-
     public Customer getCustomer() {
         return this.customer;
     }
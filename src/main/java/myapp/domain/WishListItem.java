@@ -0,0 +1,121 @@
+package myapp.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A {@link Product} on a {@link WishList}. Items are only ever inserted or deleted, so adding a product to a wish list
+ * never writes the product row, and a product can be on any number of wish lists.
+ */
+@Entity
+@Table(name = "wish_list_item")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class WishListItem implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "added_at", nullable = false)
+    private Instant addedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "wish_list_id", nullable = false)
+    @JsonIgnoreProperties(value = { "customer" }, allowSetters = true)
+    private WishList wishList;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "product_id", nullable = false)
+    @JsonIgnoreProperties(value = { "categories" }, allowSetters = true)
+    private Product product;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public WishListItem id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getAddedAt() {
+        return this.addedAt;
+    }
+
+    public WishListItem addedAt(Instant addedAt) {
+        this.setAddedAt(addedAt);
+        return this;
+    }
+
+    public void setAddedAt(Instant addedAt) {
+        this.addedAt = addedAt;
+    }
+
+    public WishList getWishList() {
+        return this.wishList;
+    }
+
+    public void setWishList(WishList wishList) {
+        this.wishList = wishList;
+    }
+
+    public WishListItem wishList(WishList wishList) {
+        this.setWishList(wishList);
+        return this;
+    }
+
+    public Product getProduct() {
+        return this.product;
+    }
+
+    public void setProduct(Product product) {
+        this.product = product;
+    }
+
+    public WishListItem product(Product product) {
+        this.setProduct(product);
+        return this;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WishListItem)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((WishListItem) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "WishListItem{" +
+            "id=" + getId() +
+            ", addedAt='" + getAddedAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,10 @@
+package myapp.domain.enumeration;
+
+/**
+ * The MailCampaignStatus enumeration.
+ */
+public enum MailCampaignStatus {
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+}
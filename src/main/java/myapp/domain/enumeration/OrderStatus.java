@@ -0,0 +1,39 @@
+package myapp.domain.enumeration;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The OrderStatus enumeration.
+ * <p>
+ * An order is placed {@link #PENDING}, then paid, shipped and delivered; it can be cancelled until it is shipped.
+ * {@link #DELIVERED} and {@link #CANCELLED} are final.
+ */
+public enum OrderStatus {
+    PENDING,
+    PAID,
+    SHIPPED,
+    DELIVERED,
+    CANCELLED;
+
+    /**
+     * The statuses of the orders still to be fulfilled, which the fulfilment queue lists.
+     */
+    public static final Set<OrderStatus> OPEN = EnumSet.of(PENDING, PAID, SHIPPED);
+
+    /**
+     * @param next the status to move to.
+     * @return whether an order in this status may move to {@code next}; staying in the same status is always allowed.
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        return (
+            this == next ||
+            switch (this) {
+                case PENDING -> next == PAID || next == CANCELLED;
+                case PAID -> next == SHIPPED || next == CANCELLED;
+                case SHIPPED -> next == DELIVERED;
+                case DELIVERED, CANCELLED -> false;
+            }
+        );
+    }
+}
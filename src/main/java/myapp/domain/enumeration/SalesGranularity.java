@@ -0,0 +1,30 @@
+package myapp.domain.enumeration;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The size of the time buckets sales are rolled up into, in UTC.
+ */
+public enum SalesGranularity {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    SalesGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    /**
+     * @param instant an instant.
+     * @return the start of the bucket holding it.
+     */
+    public Instant bucketOf(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+}
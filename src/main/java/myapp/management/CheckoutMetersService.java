@@ -0,0 +1,86 @@
+package myapp.management;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CheckoutMetersService {
+
+    public static final String STAGES_METER_NAME = "checkout.stages";
+    public static final String STAGES_METER_DESCRIPTION = "Latency of each stage of the checkout transaction.";
+    public static final String STAGES_METER_STAGE_DIMENSION = "stage";
+
+    public static final String CHECKOUTS_METER_NAME = "checkout.requests";
+    public static final String CHECKOUTS_METER_DESCRIPTION = "Latency of the whole checkout, by outcome.";
+    public static final String CHECKOUTS_METER_OUTCOME_DIMENSION = "outcome";
+
+    public enum Stage {
+        LOAD("load"),
+        RESERVE("reserve"),
+        PERSIST("persist"),
+        COMMIT("commit");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Outcome {
+        SUCCESS("success"),
+        CONFLICT("conflict"),
+        NOT_FOUND("not-found"),
+        INVALID("invalid"),
+        ERROR("error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<Outcome, Timer> checkoutTimers = new EnumMap<>(Outcome.class);
+
+    public CheckoutMetersService(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(
+                stage,
+                Timer.builder(STAGES_METER_NAME)
+                    .description(STAGES_METER_DESCRIPTION)
+                    .tag(STAGES_METER_STAGE_DIMENSION, stage.tag)
+                    .publishPercentileHistogram()
+                    .register(registry)
+            );
+        }
+        for (Outcome outcome : Outcome.values()) {
+            checkoutTimers.put(
+                outcome,
+                Timer.builder(CHECKOUTS_METER_NAME)
+                    .description(CHECKOUTS_METER_DESCRIPTION)
+                    .tag(CHECKOUTS_METER_OUTCOME_DIMENSION, outcome.tag)
+                    .publishPercentileHistogram()
+                    .register(registry)
+            );
+        }
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    public void trackStage(Timer.Sample sample, Stage stage) {
+        sample.stop(stageTimers.get(stage));
+    }
+
+    public void trackCheckout(Timer.Sample sample, Outcome outcome) {
+        sample.stop(checkoutTimers.get(outcome));
+    }
+}
@@ -0,0 +1,73 @@
+package myapp.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MailCampaignMetersService {
+
+    public static final String MESSAGES_METER_NAME = "mail.campaign.messages";
+    public static final String MESSAGES_METER_DESCRIPTION = "Number of campaign emails sent or failed; its rate is the throughput.";
+    public static final String MESSAGES_METER_RESULT_DIMENSION = "result";
+
+    public static final String BATCHES_METER_NAME = "mail.campaign.batches";
+    public static final String BATCHES_METER_DESCRIPTION = "Latency of building and sending a batch of campaign emails.";
+
+    public static final String THROTTLE_METER_NAME = "mail.campaign.throttle";
+    public static final String THROTTLE_METER_DESCRIPTION = "Time spent waiting for the campaign rate limit.";
+
+    public enum Result {
+        SENT("sent"),
+        FAILED("failed");
+
+        private final String tag;
+
+        Result(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Result, Counter> messageCounters = new EnumMap<>(Result.class);
+    private final Timer batchTimer;
+    private final Timer throttleTimer;
+
+    public MailCampaignMetersService(MeterRegistry registry) {
+        this.registry = registry;
+        for (Result result : Result.values()) {
+            messageCounters.put(
+                result,
+                Counter.builder(MESSAGES_METER_NAME)
+                    .description(MESSAGES_METER_DESCRIPTION)
+                    .tag(MESSAGES_METER_RESULT_DIMENSION, result.tag)
+                    .register(registry)
+            );
+        }
+        this.batchTimer = Timer.builder(BATCHES_METER_NAME)
+            .description(BATCHES_METER_DESCRIPTION)
+            .publishPercentileHistogram()
+            .register(registry);
+        this.throttleTimer = Timer.builder(THROTTLE_METER_NAME).description(THROTTLE_METER_DESCRIPTION).register(registry);
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    public void trackBatch(Timer.Sample sample) {
+        sample.stop(batchTimer);
+    }
+
+    public void trackThrottle(long nanos) {
+        throttleTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackMessages(Result result, int count) {
+        messageCounters.get(result).increment(count);
+    }
+}
@@ -0,0 +1,87 @@
+package myapp.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MailOutboxMetersService {
+
+    public static final String DEPTH_METER_NAME = "mail.outbox.depth";
+    public static final String DEPTH_METER_DESCRIPTION =
+        "Number of emails in the outbox, as of the last dispatch; failed emails have used all their attempts.";
+    public static final String DEPTH_METER_STATE_DIMENSION = "state";
+
+    public static final String BATCHES_METER_NAME = "mail.outbox.batches";
+    public static final String BATCHES_METER_DESCRIPTION = "Latency of sending one batch of emails over one SMTP connection.";
+
+    public static final String MESSAGES_METER_NAME = "mail.outbox.messages";
+    public static final String MESSAGES_METER_DESCRIPTION = "Number of emails taken from the outbox, by result.";
+    public static final String MESSAGES_METER_RESULT_DIMENSION = "result";
+
+    public enum Result {
+        SENT("sent"),
+        RETRIED("retried"),
+        FAILED("failed"),
+        DISCARDED("discarded");
+
+        private final String tag;
+
+        Result(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Timer batchTimer;
+    private final Map<Result, Counter> messageCounters = new EnumMap<>(Result.class);
+
+    public MailOutboxMetersService(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder(DEPTH_METER_NAME, pending, AtomicLong::get)
+            .description(DEPTH_METER_DESCRIPTION)
+            .tag(DEPTH_METER_STATE_DIMENSION, "pending")
+            .register(registry);
+        Gauge.builder(DEPTH_METER_NAME, failed, AtomicLong::get)
+            .description(DEPTH_METER_DESCRIPTION)
+            .tag(DEPTH_METER_STATE_DIMENSION, "failed")
+            .register(registry);
+        this.batchTimer = Timer.builder(BATCHES_METER_NAME)
+            .description(BATCHES_METER_DESCRIPTION)
+            .publishPercentileHistogram()
+            .register(registry);
+        for (Result result : Result.values()) {
+            messageCounters.put(
+                result,
+                Counter.builder(MESSAGES_METER_NAME)
+                    .description(MESSAGES_METER_DESCRIPTION)
+                    .tag(MESSAGES_METER_RESULT_DIMENSION, result.tag)
+                    .register(registry)
+            );
+        }
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    public void trackBatch(Timer.Sample sample) {
+        sample.stop(batchTimer);
+    }
+
+    public void trackMessages(Result result, int count) {
+        messageCounters.get(result).increment(count);
+    }
+
+    public void trackDepth(long pendingCount, long failedCount) {
+        pending.set(pendingCount);
+        failed.set(failedCount);
+    }
+}
@@ -0,0 +1,82 @@
+package myapp.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PasswordHashingMetersService {
+
+    public static final String HASHING_METER_NAME = "security.password.hashing";
+    public static final String HASHING_METER_DESCRIPTION = "Latency of hashing or verifying a password on the password hashing pool.";
+    public static final String WAIT_METER_NAME = "security.password.wait";
+    public static final String WAIT_METER_DESCRIPTION = "Time spent queued for the password hashing pool.";
+    public static final String REJECTED_METER_NAME = "security.password.rejected";
+    public static final String REJECTED_METER_DESCRIPTION = "Number of password operations turned away because the pool was saturated.";
+    public static final String OPERATION_DIMENSION = "operation";
+
+    public enum Operation {
+        ENCODE("encode"),
+        MATCHES("matches");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Operation, Timer> hashingTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Timer> waitTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> rejectedCounters = new EnumMap<>(Operation.class);
+
+    public PasswordHashingMetersService(MeterRegistry registry) {
+        this.registry = registry;
+        for (Operation operation : Operation.values()) {
+            hashingTimers.put(
+                operation,
+                Timer.builder(HASHING_METER_NAME)
+                    .description(HASHING_METER_DESCRIPTION)
+                    .tag(OPERATION_DIMENSION, operation.tag)
+                    .publishPercentileHistogram()
+                    .register(registry)
+            );
+            waitTimers.put(
+                operation,
+                Timer.builder(WAIT_METER_NAME)
+                    .description(WAIT_METER_DESCRIPTION)
+                    .tag(OPERATION_DIMENSION, operation.tag)
+                    .publishPercentileHistogram()
+                    .register(registry)
+            );
+            rejectedCounters.put(
+                operation,
+                Counter.builder(REJECTED_METER_NAME)
+                    .description(REJECTED_METER_DESCRIPTION)
+                    .tag(OPERATION_DIMENSION, operation.tag)
+                    .register(registry)
+            );
+        }
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    public void trackHashing(Timer.Sample sample, Operation operation) {
+        sample.stop(hashingTimers.get(operation));
+    }
+
+    public void trackWait(long nanos, Operation operation) {
+        waitTimers.get(operation).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackRejected(Operation operation) {
+        rejectedCounters.get(operation).increment();
+    }
+}
@@ -2,6 +2,7 @@ package myapp.management;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +14,40 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String TOKEN_DECODE_METER_NAME = "security.authentication.token-decode";
+    public static final String TOKEN_DECODE_METER_DESCRIPTION = "Latency of parsing a token and checking its signature, on a cache miss.";
+
+    public static final String TOKEN_CACHE_METER_NAME = "security.authentication.token-cache";
+    public static final String TOKEN_CACHE_METER_DESCRIPTION = "Number of tokens looked up in the verified token cache, by result.";
+    public static final String TOKEN_CACHE_METER_RESULT_DIMENSION = "result";
+
+    private final MeterRegistry registry;
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
+    private final Timer tokenDecodeTimer;
+    private final Counter tokenCacheHitCounter;
+    private final Counter tokenCacheMissCounter;
 
     public SecurityMetersService(MeterRegistry registry) {
+        this.registry = registry;
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+        this.tokenDecodeTimer = Timer.builder(TOKEN_DECODE_METER_NAME)
+            .description(TOKEN_DECODE_METER_DESCRIPTION)
+            .publishPercentileHistogram()
+            .register(registry);
+        this.tokenCacheHitCounter = tokenCacheCounterForResultBuilder("hit").register(registry);
+        this.tokenCacheMissCounter = tokenCacheCounterForResultBuilder("miss").register(registry);
+    }
+
+    private Counter.Builder tokenCacheCounterForResultBuilder(String result) {
+        return Counter.builder(TOKEN_CACHE_METER_NAME)
+            .description(TOKEN_CACHE_METER_DESCRIPTION)
+            .tag(TOKEN_CACHE_METER_RESULT_DIMENSION, result);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -47,4 +72,20 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    public void trackTokenDecode(Timer.Sample sample) {
+        sample.stop(tokenDecodeTimer);
+    }
+
+    public void trackTokenCacheHit() {
+        this.tokenCacheHitCounter.increment();
+    }
+
+    public void trackTokenCacheMiss() {
+        this.tokenCacheMissCounter.increment();
+    }
 }
@@ -0,0 +1,61 @@
+package myapp.management;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.stereotype.Service;
+
+@Service
+public class StockMetersService {
+
+    public static final String RESERVATIONS_METER_NAME = "inventory.stock.reservations";
+    public static final String RESERVATIONS_METER_DESCRIPTION =
+        "Latency of the stock reservations and releases, by outcome; the conflict rate is the share of the conflict outcome.";
+    public static final String RESERVATIONS_METER_OPERATION_DIMENSION = "operation";
+    public static final String RESERVATIONS_METER_OUTCOME_DIMENSION = "outcome";
+
+    public enum Outcome {
+        SUCCESS("success"),
+        CONFLICT("conflict"),
+        NOT_FOUND("not-found");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Outcome, Timer> reserveTimers = new EnumMap<>(Outcome.class);
+    private final Map<Outcome, Timer> releaseTimers = new EnumMap<>(Outcome.class);
+
+    public StockMetersService(MeterRegistry registry) {
+        this.registry = registry;
+        for (Outcome outcome : Outcome.values()) {
+            reserveTimers.put(outcome, reservationsTimerBuilder("reserve", outcome).register(registry));
+            releaseTimers.put(outcome, reservationsTimerBuilder("release", outcome).register(registry));
+        }
+    }
+
+    private Timer.Builder reservationsTimerBuilder(String operation, Outcome outcome) {
+        return Timer.builder(RESERVATIONS_METER_NAME)
+            .description(RESERVATIONS_METER_DESCRIPTION)
+            .tag(RESERVATIONS_METER_OPERATION_DIMENSION, operation)
+            .tag(RESERVATIONS_METER_OUTCOME_DIMENSION, outcome.tag)
+            .publishPercentileHistogram();
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    public void trackReserve(Timer.Sample sample, Outcome outcome) {
+        sample.stop(reserveTimers.get(outcome));
+    }
+
+    public void trackRelease(Timer.Sample sample, Outcome outcome) {
+        sample.stop(releaseTimers.get(outcome));
+    }
+}
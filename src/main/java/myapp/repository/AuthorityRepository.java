@@ -1,12 +1,31 @@
 package myapp.repository;
 
+import java.util.List;
 import myapp.domain.Authority;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data JPA repository for the Authority entity.
+ * <p>
+ * The list of all the authorities is cached, and evicted when an authority is saved or deleted through this repository.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AuthorityRepository extends JpaRepository<Authority, String> {}
+public interface AuthorityRepository extends JpaRepository<Authority, String> {
+    String AUTHORITIES_CACHE = "authorities";
+
+    @Override
+    @Cacheable(cacheNames = AUTHORITIES_CACHE, key = "'all'")
+    List<Authority> findAll();
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITIES_CACHE, allEntries = true)
+    <S extends Authority> S save(S authority);
+
+    @Override
+    @CacheEvict(cacheNames = AUTHORITIES_CACHE, allEntries = true)
+    void deleteById(String name);
+}
@@ -1,11 +1,16 @@
 package myapp.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import myapp.domain.Category;
+import myapp.service.dto.CategoryPathDTO;
+import myapp.service.dto.CategoryProductStatsDTO;
+import myapp.service.dto.EntityVersionDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -15,16 +20,49 @@ import org.springframework.stereotype.Repository;
  * For more information refer to https://github.com/jhipster/generator-jhipster/issues/17990.
  */
 @Repository
-public interface CategoryRepository extends CategoryRepositoryWithBagRelationships, JpaRepository<Category, Long> {
+public interface CategoryRepository
+    extends CategoryRepositoryWithBagRelationships, CategoryRepositoryWithProductSummaries, JpaRepository<Category, Long> {
     default Optional<Category> findOneWithEagerRelationships(Long id) {
         return this.fetchBagRelationships(this.findById(id));
     }
 
-    default List<Category> findAllWithEagerRelationships() {
-        return this.fetchBagRelationships(this.findAll());
-    }
+    @Query(
+        "select new myapp.service.dto.EntityVersionDTO(category.id, category.version, coalesce(category.dateModified, category.dateAdded)) " +
+        "from Category category where category.id = :id"
+    )
+    Optional<EntityVersionDTO> findVersionById(@Param("id") Long id);
 
-    default Page<Category> findAllWithEagerRelationships(Pageable pageable) {
-        return this.fetchBagRelationships(this.findAll(pageable));
-    }
+    @Query(
+        value = "select new myapp.service.dto.EntityVersionDTO(category.id, category.version, coalesce(category.dateModified, category.dateAdded)) " +
+        "from Category category",
+        countQuery = "select count(category) from Category category"
+    )
+    Page<EntityVersionDTO> findAllVersions(Pageable pageable);
+
+    @Query(
+        "select new myapp.service.dto.CategoryProductStatsDTO(category.id, count(product), sum(product.version), " +
+        "max(coalesce(product.dateModified, product.dateAdded))) " +
+        "from Category category join category.products product where category.id in :ids group by category.id"
+    )
+    List<CategoryProductStatsDTO> findProductStatsByCategoryIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        "select new myapp.service.dto.CategoryPathDTO(category.id, parent.id, category.path, category.description, category.sortOrder, category.status) " +
+        "from Category category left join category.parent parent"
+    )
+    List<CategoryPathDTO> findAllPaths();
+
+    @Modifying
+    @Query("update Category category set category.path = :path where category.id = :id")
+    int updatePath(@Param("id") Long id, @Param("path") String path);
+
+    /**
+     * Move a subtree: replace the {@code oldPrefix} of the paths of the descendants of a category by {@code newPrefix}.
+     */
+    @Modifying
+    @Query(
+        "update Category category set category.path = concat(:newPrefix, substring(category.path, length(:oldPrefix) + 1)) " +
+        "where category.path like concat(:oldPrefix, '%')"
+    )
+    int updatePathPrefix(@Param("oldPrefix") String oldPrefix, @Param("newPrefix") String newPrefix);
 }
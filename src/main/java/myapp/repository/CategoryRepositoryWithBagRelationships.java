@@ -1,14 +1,8 @@
 package myapp.repository;
 
-import java.util.List;
 import java.util.Optional;
 import myapp.domain.Category;
-import org.springframework.data.domain.Page;
 
 public interface CategoryRepositoryWithBagRelationships {
     Optional<Category> fetchBagRelationships(Optional<Category> category);
-
-    List<Category> fetchBagRelationships(List<Category> categories);
-
-    Page<Category> fetchBagRelationships(Page<Category> categories);
 }
@@ -0,0 +1,19 @@
+package myapp.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import myapp.service.dto.ProductSummaryDTO;
+
+/**
+ * Summaries of the products of several {@link myapp.domain.Category}s, read in one windowed query.
+ */
+public interface CategoryRepositoryWithProductSummaries {
+    /**
+     * @param categoryIds the ids of the categories.
+     * @param limit the maximum number of products per category.
+     * @return the summaries of the best rated products of each category, best first, ties by id; categories without
+     * products are absent.
+     */
+    Map<Long, List<ProductSummaryDTO>> findTopProductSummaries(Collection<Long> categoryIds, int limit);
+}
@@ -0,0 +1,66 @@
+package myapp.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import myapp.domain.enumeration.ProductStatus;
+import myapp.service.dto.ProductSummaryDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * The products are ranked per category with {@code row_number()} and cut in the database, so only
+ * {@code limit} rows per category reach the application however many products a category has.
+ */
+public class CategoryRepositoryWithProductSummariesImpl implements CategoryRepositoryWithProductSummaries {
+
+    private static final String TOP_PRODUCT_SUMMARIES_SQL =
+        "select ranked.category_id, ranked.id, ranked.title, ranked.price, ranked.status, ranked.rating, " +
+        "ranked.quantity_in_stock, ranked.version from (" +
+        "select rel.category_id, product.id, product.title, product.price, product.status, product.rating, " +
+        "product.quantity_in_stock, product.version, " +
+        "row_number() over (partition by rel.category_id order by product.rating desc nulls last, product.id) as position " +
+        "from rel_category__product rel join product on product.id = rel.product_id " +
+        "where rel.category_id in (%s)" +
+        ") ranked where ranked.position <= ? order by ranked.category_id, ranked.position";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CategoryRepositoryWithProductSummariesImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<Long, List<ProductSummaryDTO>> findTopProductSummaries(Collection<Long> categoryIds, int limit) {
+        Map<Long, List<ProductSummaryDTO>> summaries = new HashMap<>();
+        if (categoryIds.isEmpty() || limit <= 0) {
+            return summaries;
+        }
+        List<Object> arguments = new ArrayList<>(categoryIds);
+        arguments.add(limit);
+        String sql = String.format(TOP_PRODUCT_SUMMARIES_SQL, String.join(", ", Collections.nCopies(categoryIds.size(), "?")));
+        jdbcTemplate.query(
+            sql,
+            rs -> {
+                String status = rs.getString(5);
+                summaries
+                    .computeIfAbsent(rs.getLong(1), categoryId -> new ArrayList<>())
+                    .add(
+                        new ProductSummaryDTO(
+                            rs.getLong(2),
+                            rs.getString(3),
+                            rs.getBigDecimal(4),
+                            status == null ? null : ProductStatus.valueOf(status),
+                            rs.getObject(6, Integer.class),
+                            rs.getObject(7, Integer.class),
+                            rs.getLong(8)
+                        )
+                    );
+            },
+            arguments.toArray()
+        );
+        return summaries;
+    }
+}
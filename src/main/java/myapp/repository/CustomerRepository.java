@@ -1,7 +1,13 @@
 package myapp.repository;
 
+import java.util.Optional;
 import myapp.domain.Customer;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +15,9 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {}
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+    Window<Customer> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("select customer.id from Customer customer where customer.user.login = :login")
+    Optional<Long> findIdByUserLogin(@Param("login") String login);
+}
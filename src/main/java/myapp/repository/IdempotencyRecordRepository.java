@@ -0,0 +1,54 @@
+package myapp.repository;
+
+import java.time.Instant;
+import myapp.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the IdempotencyRecord entity.
+ * <p>
+ * A running request holds its record through the {@code lockedAt} it claimed it with: it only completes or releases
+ * the record while that is unchanged, so a request whose claim was taken over as stale cannot overwrite the new one.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    @Modifying
+    @Query(
+        "update IdempotencyRecord record set record.requestHash = :requestHash, record.completed = false, " +
+        "record.responseStatus = null, record.responseHeaders = null, record.responseBody = null, " +
+        "record.lockedAt = :lockedAt, record.expiresAt = :expiresAt " +
+        "where record.id = :id and (record.expiresAt < :lockedAt or (record.completed = false and record.lockedAt < :staleBefore))"
+    )
+    int claimExpiredOrStale(
+        @Param("id") String id,
+        @Param("requestHash") String requestHash,
+        @Param("lockedAt") Instant lockedAt,
+        @Param("expiresAt") Instant expiresAt,
+        @Param("staleBefore") Instant staleBefore
+    );
+
+    @Modifying
+    @Query(
+        "update IdempotencyRecord record set record.completed = true, record.responseStatus = :responseStatus, " +
+        "record.responseHeaders = :responseHeaders, record.responseBody = :responseBody, record.expiresAt = :expiresAt " +
+        "where record.id = :id and record.completed = false and record.lockedAt = :lockedAt"
+    )
+    int complete(
+        @Param("id") String id,
+        @Param("lockedAt") Instant lockedAt,
+        @Param("responseStatus") Integer responseStatus,
+        @Param("responseHeaders") String responseHeaders,
+        @Param("responseBody") String responseBody,
+        @Param("expiresAt") Instant expiresAt
+    );
+
+    @Modifying
+    @Query("delete from IdempotencyRecord record where record.id = :id and record.completed = false and record.lockedAt = :lockedAt")
+    int release(@Param("id") String id, @Param("lockedAt") Instant lockedAt);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord record where record.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
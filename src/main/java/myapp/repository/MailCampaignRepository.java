@@ -0,0 +1,90 @@
+package myapp.repository;
+
+import java.time.Instant;
+import java.util.List;
+import myapp.domain.MailCampaign;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the MailCampaign entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface MailCampaignRepository extends JpaRepository<MailCampaign, Long> {
+    /**
+     * @param staleBefore the heartbeat before which the instance running a campaign is considered gone.
+     * @return the ids of the running campaigns no instance is running, oldest first.
+     */
+    @Query(
+        "select campaign.id from MailCampaign campaign where campaign.status = myapp.domain.enumeration.MailCampaignStatus.RUNNING " +
+        "and (campaign.heartbeatAt is null or campaign.heartbeatAt < :staleBefore) order by campaign.id"
+    )
+    List<Long> findIdsToRun(@Param("staleBefore") Instant staleBefore);
+
+    /**
+     * Claim a running campaign no instance is running.
+     *
+     * @return the number of rows updated, {@code 0} when another instance claimed it first.
+     */
+    @Modifying
+    @Query(
+        "update MailCampaign campaign set campaign.heartbeatAt = :heartbeatAt " +
+        "where campaign.id = :id and campaign.status = myapp.domain.enumeration.MailCampaignStatus.RUNNING " +
+        "and (campaign.heartbeatAt is null or campaign.heartbeatAt < :staleBefore)"
+    )
+    int claim(@Param("id") Long id, @Param("heartbeatAt") Instant heartbeatAt, @Param("staleBefore") Instant staleBefore);
+
+    /**
+     * Record the progress of a campaign, if it is still running and still held by the caller.
+     *
+     * @return the number of rows updated, {@code 0} when the campaign was cancelled or taken over.
+     */
+    @Modifying
+    @Query(
+        "update MailCampaign campaign set campaign.lastUserId = :lastUserId, campaign.sentCount = campaign.sentCount + :sent, " +
+        "campaign.failedCount = campaign.failedCount + :failed, campaign.heartbeatAt = :heartbeatAt " +
+        "where campaign.id = :id and campaign.heartbeatAt = :previousHeartbeatAt " +
+        "and campaign.status = myapp.domain.enumeration.MailCampaignStatus.RUNNING"
+    )
+    int checkpoint(
+        @Param("id") Long id,
+        @Param("previousHeartbeatAt") Instant previousHeartbeatAt,
+        @Param("heartbeatAt") Instant heartbeatAt,
+        @Param("lastUserId") Long lastUserId,
+        @Param("sent") long sent,
+        @Param("failed") long failed
+    );
+
+    /**
+     * Renew the lease of a campaign, if it is still running and still held by the caller.
+     *
+     * @return the number of rows updated, {@code 0} when the campaign was cancelled or taken over.
+     */
+    @Modifying
+    @Query(
+        "update MailCampaign campaign set campaign.heartbeatAt = :heartbeatAt " +
+        "where campaign.id = :id and campaign.heartbeatAt = :previousHeartbeatAt " +
+        "and campaign.status = myapp.domain.enumeration.MailCampaignStatus.RUNNING"
+    )
+    int renew(@Param("id") Long id, @Param("previousHeartbeatAt") Instant previousHeartbeatAt, @Param("heartbeatAt") Instant heartbeatAt);
+
+    /**
+     * Mark a campaign held by the caller as completed.
+     *
+     * @return the number of rows updated, {@code 0} when the campaign was cancelled or taken over.
+     */
+    @Modifying
+    @Query(
+        "update MailCampaign campaign set campaign.status = myapp.domain.enumeration.MailCampaignStatus.COMPLETED, " +
+        "campaign.completedDate = :completedDate, campaign.heartbeatAt = null " +
+        "where campaign.id = :id and campaign.heartbeatAt = :previousHeartbeatAt " +
+        "and campaign.status = myapp.domain.enumeration.MailCampaignStatus.RUNNING"
+    )
+    int complete(
+        @Param("id") Long id,
+        @Param("previousHeartbeatAt") Instant previousHeartbeatAt,
+        @Param("completedDate") Instant completedDate
+    );
+}
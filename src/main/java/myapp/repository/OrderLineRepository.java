@@ -0,0 +1,20 @@
+package myapp.repository;
+
+import myapp.domain.OrderLine;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the OrderLine entity.
+ */
+@Repository
+public interface OrderLineRepository extends JpaRepository<OrderLine, Long> {
+    @Modifying
+    @Query("delete from OrderLine orderLine where orderLine.order.id = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+
+    boolean existsByOrderId(Long orderId);
+
+    boolean existsByProductId(Long productId);
+}
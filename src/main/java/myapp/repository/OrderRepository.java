@@ -1,7 +1,21 @@
 package myapp.repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import myapp.domain.Order;
+import myapp.domain.enumeration.OrderStatus;
+import myapp.service.dto.CustomerOrderDTO;
+import myapp.service.dto.OrderStatusCountDTO;
+import myapp.service.dto.SalesTotalsDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +23,67 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {}
+public interface OrderRepository extends OrderRepositoryWithProjections, JpaRepository<Order, Long> {
+    @Query("select jhiOrder from Order jhiOrder left join fetch jhiOrder.lines where jhiOrder.id = :id")
+    Optional<Order> findOneWithEagerRelationships(@Param("id") Long id);
+
+    Page<Order> findAllByStatus(OrderStatus status, Pageable pageable);
+
+    Window<Order> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Order> findAllByStatus(OrderStatus status, ScrollPosition position, Sort sort, Limit limit);
+
+    @Query(
+        "select new myapp.service.dto.OrderStatusCountDTO(jhiOrder.status, count(jhiOrder)) from Order jhiOrder group by jhiOrder.status"
+    )
+    List<OrderStatusCountDTO> countByStatus();
+
+    /**
+     * @param from the first instant, inclusive.
+     * @param to the last instant, exclusive.
+     * @return the sales of the orders placed in that range that are not cancelled.
+     */
+    @Query(
+        "select new myapp.service.dto.SalesTotalsDTO(count(jhiOrder), sum(jhiOrder.totalAmount), sum(jhiOrder.shippingCost)) " +
+        "from Order jhiOrder where jhiOrder.orderDate >= :from and jhiOrder.orderDate < :to " +
+        "and jhiOrder.status <> myapp.domain.enumeration.OrderStatus.CANCELLED"
+    )
+    SalesTotalsDTO sumSales(@Param("from") Instant from, @Param("to") Instant to);
+
+    String CUSTOMER_ORDER_SELECT =
+        "select new myapp.service.dto.CustomerOrderDTO(jhiOrder.id, jhiOrder.orderDate, jhiOrder.shippedDate, jhiOrder.status, " +
+        "jhiOrder.totalAmount, jhiOrder.shippingCost, jhiOrder.trackingNumber, jhiOrder.version, " +
+        "address.id, address.address1, address.address2, address.city, address.postcode, address.country, " +
+        "(select count(line) from OrderLine line where line.order = jhiOrder), " +
+        "(select coalesce(sum(line.quantity), 0L) from OrderLine line where line.order = jhiOrder)) " +
+        "from Order jhiOrder left join jhiOrder.shippingAddress address where jhiOrder.customer.id = :customerId ";
+
+    String CUSTOMER_ORDER_ORDER_BY = "order by jhiOrder.orderDate desc, jhiOrder.id desc";
+
+    /**
+     * @param customerId the id of the customer.
+     * @param limit the maximum number of orders.
+     * @return the most recent orders of the customer, newest first.
+     */
+    @Query(CUSTOMER_ORDER_SELECT + CUSTOMER_ORDER_ORDER_BY)
+    List<CustomerOrderDTO> findCustomerOrders(@Param("customerId") Long customerId, Limit limit);
+
+    /**
+     * @param customerId the id of the customer.
+     * @param orderDate the order date of the last order of the previous window.
+     * @param id the id of the last order of the previous window.
+     * @param limit the maximum number of orders.
+     * @return the orders of the customer placed before the given one, newest first.
+     */
+    @Query(
+        CUSTOMER_ORDER_SELECT +
+        "and (jhiOrder.orderDate < :orderDate or (jhiOrder.orderDate = :orderDate and jhiOrder.id < :id)) " +
+        CUSTOMER_ORDER_ORDER_BY
+    )
+    List<CustomerOrderDTO> findCustomerOrdersBefore(
+        @Param("customerId") Long customerId,
+        @Param("orderDate") Instant orderDate,
+        @Param("id") Long id,
+        Limit limit
+    );
+}
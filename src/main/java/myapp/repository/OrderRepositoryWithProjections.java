@@ -0,0 +1,30 @@
+package myapp.repository;
+
+import myapp.domain.enumeration.OrderStatus;
+import myapp.service.dto.OrderSummaryDTO;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+/**
+ * Projections of {@link myapp.domain.Order}s, read without loading the entities.
+ */
+public interface OrderRepositoryWithProjections {
+    /**
+     * @param status the status of the orders, {@code null} for all orders.
+     * @param pageable the pagination information.
+     * @return the page of order summaries.
+     */
+    Page<OrderSummaryDTO> findAllSummaries(OrderStatus status, Pageable pageable);
+
+    /**
+     * @param status the status of the orders, {@code null} for all orders.
+     * @param position the keyset position to seek from.
+     * @param sort the sort order; the id is appended as tie-breaker.
+     * @param size the maximum number of summaries in the window.
+     * @return the window of order summaries.
+     */
+    Window<OrderSummaryDTO> findAllSummaries(OrderStatus status, KeysetScrollPosition position, Sort sort, int size);
+}
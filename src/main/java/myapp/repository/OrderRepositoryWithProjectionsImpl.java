@@ -0,0 +1,68 @@
+package myapp.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import myapp.domain.Order;
+import myapp.domain.Order_;
+import myapp.domain.enumeration.OrderStatus;
+import myapp.service.dto.OrderSummaryDTO;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+public class OrderRepositoryWithProjectionsImpl implements OrderRepositoryWithProjections {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<OrderSummaryDTO> findAllSummaries(OrderStatus status, Pageable pageable) {
+        return ProjectionQueries.findPage(
+            entityManager,
+            Order.class,
+            OrderSummaryDTO.class,
+            OrderRepositoryWithProjectionsImpl::summary,
+            hasStatus(status),
+            pageable
+        );
+    }
+
+    @Override
+    public Window<OrderSummaryDTO> findAllSummaries(OrderStatus status, KeysetScrollPosition position, Sort sort, int size) {
+        return ProjectionQueries.findWindow(
+            entityManager,
+            Order.class,
+            OrderSummaryDTO.class,
+            OrderRepositoryWithProjectionsImpl::summary,
+            hasStatus(status),
+            position,
+            sort,
+            size
+        );
+    }
+
+    private static Specification<Order> hasStatus(OrderStatus status) {
+        if (status == null) {
+            return Specification.where(null);
+        }
+        return (root, query, cb) -> cb.equal(root.get(Order_.status), status);
+    }
+
+    private static Selection<?>[] summary(Root<Order> root) {
+        return new Selection<?>[] {
+            root.get(Order_.id),
+            root.get(Order_.orderDate),
+            root.get(Order_.shippedDate),
+            root.get(Order_.status),
+            root.get(Order_.totalAmount),
+            root.get(Order_.shippingCost),
+            root.get(Order_.trackingNumber),
+            root.get(Order_.version),
+        };
+    }
+}
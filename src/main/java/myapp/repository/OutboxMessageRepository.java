@@ -0,0 +1,38 @@
+package myapp.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import myapp.domain.OutboxMessage;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the OutboxMessage entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+    /**
+     * Lock the messages due for an attempt, skipping the ones another instance has locked.
+     *
+     * @param now the current instant.
+     * @param maxAttempts the number of attempts after which a message is given up.
+     * @param limit the maximum number of messages.
+     * @return the messages, oldest due first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query(
+        "select message from OutboxMessage message where message.nextAttemptAt <= :now and message.attempts < :maxAttempts " +
+        "order by message.nextAttemptAt, message.id"
+    )
+    List<OutboxMessage> findDueForUpdate(@Param("now") Instant now, @Param("maxAttempts") int maxAttempts, Limit limit);
+
+    long countByAttemptsLessThan(int maxAttempts);
+
+    long countByAttemptsGreaterThanEqual(int maxAttempts);
+}
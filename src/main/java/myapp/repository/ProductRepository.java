@@ -1,7 +1,21 @@
 package myapp.repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 import myapp.domain.Product;
+import myapp.service.dto.EntityVersionDTO;
+import myapp.service.dto.ProductTextDTO;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +23,50 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {}
+public interface ProductRepository
+    extends
+        ProductRepositoryWithConditionalUpdate,
+        ProductRepositoryWithProjections,
+        JpaRepository<Product, Long>,
+        JpaSpecificationExecutor<Product> {
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query(
+        "select new myapp.service.dto.EntityVersionDTO(product.id, product.version, coalesce(product.dateModified, product.dateAdded)) " +
+        "from Product product where product.id = :id"
+    )
+    Optional<EntityVersionDTO> findVersionById(@Param("id") Long id);
+
+    @Query("select product.id from Product product where product.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        "select new myapp.service.dto.ProductTextDTO(product.id, product.title, product.keywords, product.description) " +
+        "from Product product where product.id > :afterId order by product.id"
+    )
+    List<ProductTextDTO> findAllTextAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    @Query("select product from Product product order by product.id")
+    Stream<Product> streamAll();
+
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    @Query(
+        "select product from Product product " +
+        "where product.dateModified >= :updatedSince or (product.dateModified is null and product.dateAdded >= :updatedSince) " +
+        "order by product.id"
+    )
+    Stream<Product> streamAllUpdatedSince(@Param("updatedSince") Instant updatedSince);
+}
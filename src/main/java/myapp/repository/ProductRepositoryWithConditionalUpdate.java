@@ -0,0 +1,41 @@
+package myapp.repository;
+
+import java.util.List;
+import java.util.Map;
+import myapp.domain.Product;
+
+/**
+ * Single-statement conditional updates of {@link Product}s: version-checked partial update, and stock changes that
+ * cannot oversell.
+ */
+public interface ProductRepositoryWithConditionalUpdate {
+    /**
+     * Write the non-null fields of {@code patch} to the product with the same id, only if it is still at
+     * {@code expectedVersion}, and bump its version. The product is not loaded.
+     *
+     * @param patch the id and the fields to write.
+     * @param expectedVersion the version the product must be at.
+     * @return {@code true} if the product was updated, {@code false} if it does not exist or is at another version.
+     */
+    boolean updateIfVersionMatches(Product patch, long expectedVersion);
+
+    /**
+     * Take units out of the stock of products, one conditional statement per product, in id order. A product only
+     * gives units if it has at least that many in stock and is not discontinued; a product whose stock reaches zero is
+     * flagged out of stock by the same statement.
+     *
+     * @param quantities the number of units to take, by product id.
+     * @return the ids of the products which did not give their units, because of their stock or because they do not
+     * exist; the other products were updated.
+     */
+    List<Long> decrementStock(Map<Long, Integer> quantities);
+
+    /**
+     * Give units back to the stock of products, one statement per product, in id order. A product flagged out of
+     * stock is back in stock.
+     *
+     * @param quantities the number of units to give back, by product id.
+     * @return the ids of the products which do not exist; the other products were updated.
+     */
+    List<Long> incrementStock(Map<Long, Integer> quantities);
+}
@@ -0,0 +1,163 @@
+package myapp.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.function.Function;
+import myapp.domain.Product;
+import myapp.domain.enumeration.ProductStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The updates are sent through JDBC, in the current transaction: a JPQL bulk update would make Hibernate lock and
+ * evict the whole {@link Product} second-level cache region, so only the updated products are evicted here, now and
+ * again after commit in case a concurrent reader cached the previous row in between.
+ * <p>
+ * Every update that bumps the version also sets {@code date_modified} to now, as it is the {@code Last-Modified} of
+ * the product for conditional requests.
+ */
+public class ProductRepositoryWithConditionalUpdateImpl implements ProductRepositoryWithConditionalUpdate {
+
+    private static final Calendar UTC = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+    private static final String DECREMENT_STOCK_SQL =
+        "update product set date_modified = ?, quantity_in_stock = quantity_in_stock - ?, " +
+        "status = case when quantity_in_stock = ? then '" + ProductStatus.OUT_OF_STOCK.name() + "' else status end, " +
+        "version = version + 1 " +
+        "where quantity_in_stock >= ? and status <> '" + ProductStatus.DISCONTINUED.name() + "' and id = ?";
+
+    private static final String INCREMENT_STOCK_SQL =
+        "update product set date_modified = ?, quantity_in_stock = coalesce(quantity_in_stock, 0) + ?, " +
+        "status = case when status = '" + ProductStatus.OUT_OF_STOCK.name() + "' " +
+        "then '" + ProductStatus.IN_STOCK.name() + "' else status end, " +
+        "version = version + 1 " +
+        "where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ProductRepositoryWithConditionalUpdateImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public boolean updateIfVersionMatches(Product patch, long expectedVersion) {
+        StringBuilder sql = new StringBuilder("update product set ");
+        List<Object> values = new ArrayList<>();
+        set(sql, values, "title", patch.getTitle());
+        set(sql, values, "keywords", patch.getKeywords());
+        set(sql, values, "description", patch.getDescription());
+        set(sql, values, "rating", patch.getRating());
+        set(sql, values, "price", patch.getPrice());
+        set(sql, values, "quantity_in_stock", patch.getQuantityInStock());
+        set(sql, values, "status", patch.getStatus() == null ? null : patch.getStatus().name());
+        set(sql, values, "weight", patch.getWeight());
+        set(sql, values, "dimensions", patch.getDimensions());
+        set(sql, values, "date_added", patch.getDateAdded());
+        set(sql, values, "date_modified", Instant.now());
+        sql.append("version = version + 1 where id = ? and version = ?");
+        values.add(patch.getId());
+        values.add(expectedVersion);
+
+        int updated = jdbcTemplate.update(sql.toString(), ps -> bind(ps, values));
+        if (updated > 0) {
+            evict(List.of(patch.getId()));
+        }
+        return updated > 0;
+    }
+
+    @Override
+    public List<Long> decrementStock(Map<Long, Integer> quantities) {
+        return updateStock(DECREMENT_STOCK_SQL, quantities, quantity -> new Object[] { quantity, quantity, quantity });
+    }
+
+    @Override
+    public List<Long> incrementStock(Map<Long, Integer> quantities) {
+        return updateStock(INCREMENT_STOCK_SQL, quantities, quantity -> new Object[] { quantity });
+    }
+
+    /**
+     * Rows are updated in id order, so that two baskets sharing products lock them in the same order and cannot
+     * deadlock.
+     */
+    private List<Long> updateStock(String sql, Map<Long, Integer> quantities, Function<Integer, Object[]> arguments) {
+        List<Long> ids = new ArrayList<>(new TreeMap<>(quantities).keySet());
+        Instant now = Instant.now();
+        List<List<Object>> batchArguments = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            List<Object> statementArguments = new ArrayList<>();
+            statementArguments.add(now);
+            statementArguments.addAll(Arrays.asList(arguments.apply(quantities.get(id))));
+            statementArguments.add(id);
+            batchArguments.add(statementArguments);
+        }
+        int[] updated = jdbcTemplate.batchUpdate(
+            sql,
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    bind(ps, batchArguments.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batchArguments.size();
+                }
+            }
+        );
+        List<Long> updatedIds = new ArrayList<>(ids.size());
+        List<Long> failedIds = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            (updated[i] > 0 ? updatedIds : failedIds).add(ids.get(i));
+        }
+        evict(updatedIds);
+        return failedIds;
+    }
+
+    private static void set(StringBuilder sql, List<Object> values, String column, Object value) {
+        if (value != null) {
+            sql.append(column).append(" = ?, ");
+            values.add(value);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, List<Object> values) throws SQLException {
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (value instanceof Instant instant) {
+                // same as hibernate.jdbc.time_zone
+                ps.setTimestamp(i + 1, Timestamp.from(instant), (Calendar) UTC.clone());
+            } else {
+                ps.setObject(i + 1, value);
+            }
+        }
+    }
+
+    private void evict(List<Long> ids) {
+        ids.forEach(id -> entityManagerFactory.getCache().evict(Product.class, id));
+        if (!ids.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        ids.forEach(id -> entityManagerFactory.getCache().evict(Product.class, id));
+                    }
+                }
+            );
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package myapp.repository;
+
+import myapp.domain.Product;
+import myapp.service.dto.EntityVersionDTO;
+import myapp.service.dto.ProductSummaryDTO;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Projections of the {@link Product}s matching a {@link Specification}, read without loading the entities.
+ */
+public interface ProductRepositoryWithProjections {
+    /**
+     * @param specification the products to read.
+     * @param pageable the pagination information.
+     * @return the page of product summaries.
+     */
+    Page<ProductSummaryDTO> findAllSummaries(Specification<Product> specification, Pageable pageable);
+
+    /**
+     * @param specification the products to read.
+     * @param position the keyset position to seek from.
+     * @param sort the sort order; the id is appended as tie-breaker.
+     * @param size the maximum number of summaries in the window.
+     * @return the window of product summaries.
+     */
+    Window<ProductSummaryDTO> findAllSummaries(Specification<Product> specification, KeysetScrollPosition position, Sort sort, int size);
+
+    /**
+     * @param specification the products to read.
+     * @param pageable the pagination information.
+     * @return the page of product versions.
+     */
+    Page<EntityVersionDTO> findAllVersions(Specification<Product> specification, Pageable pageable);
+}
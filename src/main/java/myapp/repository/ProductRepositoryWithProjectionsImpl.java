@@ -0,0 +1,82 @@
+package myapp.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import myapp.domain.Product;
+import myapp.domain.Product_;
+import myapp.service.dto.EntityVersionDTO;
+import myapp.service.dto.ProductSummaryDTO;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+public class ProductRepositoryWithProjectionsImpl implements ProductRepositoryWithProjections {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductSummaryDTO> findAllSummaries(Specification<Product> specification, Pageable pageable) {
+        return ProjectionQueries.findPage(
+            entityManager,
+            Product.class,
+            ProductSummaryDTO.class,
+            ProductRepositoryWithProjectionsImpl::summary,
+            specification,
+            pageable
+        );
+    }
+
+    @Override
+    public Window<ProductSummaryDTO> findAllSummaries(
+        Specification<Product> specification,
+        KeysetScrollPosition position,
+        Sort sort,
+        int size
+    ) {
+        return ProjectionQueries.findWindow(
+            entityManager,
+            Product.class,
+            ProductSummaryDTO.class,
+            ProductRepositoryWithProjectionsImpl::summary,
+            specification,
+            position,
+            sort,
+            size
+        );
+    }
+
+    @Override
+    public Page<EntityVersionDTO> findAllVersions(Specification<Product> specification, Pageable pageable) {
+        return ProjectionQueries.findPage(
+            entityManager,
+            Product.class,
+            EntityVersionDTO.class,
+            root ->
+                new Selection<?>[] {
+                    root.get(Product_.id),
+                    root.get(Product_.version),
+                    entityManager.getCriteriaBuilder().coalesce(root.get(Product_.dateModified), root.get(Product_.dateAdded)),
+                },
+            specification,
+            pageable
+        );
+    }
+
+    private static Selection<?>[] summary(Root<Product> root) {
+        return new Selection<?>[] {
+            root.get(Product_.id),
+            root.get(Product_.title),
+            root.get(Product_.price),
+            root.get(Product_.status),
+            root.get(Product_.rating),
+            root.get(Product_.quantityInStock),
+            root.get(Product_.version),
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package myapp.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Constructor-expression queries over a {@link Specification}, by page or by keyset window, so that list views only
+ * select the columns they show and never materialise the entities.
+ * <p>
+ * Keyset windows seek forward on the sort properties followed by {@code id}, like Spring Data does for entity windows,
+ * so the cursors of both are interchangeable.
+ */
+final class ProjectionQueries {
+
+    private static final String ID = "id";
+
+    private ProjectionQueries() {}
+
+    static <E, T> Page<T> findPage(
+        EntityManager entityManager,
+        Class<E> entityClass,
+        Class<T> projection,
+        Function<Root<E>, Selection<?>[]> selections,
+        Specification<E> specification,
+        Pageable pageable
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(projection);
+        Root<E> root = query.from(entityClass);
+        query.select(cb.construct(projection, selections.apply(root)));
+        restrict(query, specification.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset())).setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(entityManager, entityClass, specification));
+    }
+
+    static <E, T> Window<T> findWindow(
+        EntityManager entityManager,
+        Class<E> entityClass,
+        Class<T> projection,
+        Function<Root<E>, Selection<?>[]> selections,
+        Specification<E> specification,
+        KeysetScrollPosition position,
+        Sort sort,
+        int size
+    ) {
+        Sort keysetSort = sort.getOrderFor(ID) == null ? sort.and(Sort.by(ID)) : sort;
+        List<Sort.Order> orders = keysetSort.toList();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityClass);
+        List<Selection<?>> items = new ArrayList<>(orders.size() + 1);
+        items.add(cb.construct(projection, selections.apply(root)));
+        orders.forEach(order -> items.add(root.get(order.getProperty())));
+        query.multiselect(items);
+
+        List<Predicate> predicates = new ArrayList<>(2);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        if (!position.isInitial()) {
+            predicates.add(seek(cb, root, orders, position.getKeys()));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(QueryUtils.toOrders(keysetSort, root, cb));
+
+        // one more row than requested tells whether there is a next window
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        List<Tuple> windowRows = rows.subList(0, Math.min(size, rows.size()));
+        List<T> content = windowRows.stream().map(row -> row.get(0, projection)).toList();
+        return Window.from(content, index -> positionOf(windowRows.get(index), orders), rows.size() > size);
+    }
+
+    /**
+     * {@code (k1 > v1) or (k1 = v1 and k2 > v2) or ...}, with {@code <} for descending keys.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <E> Predicate seek(CriteriaBuilder cb, Root<E> root, List<Sort.Order> orders, Map<String, ?> keys) {
+        List<Predicate> alternatives = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            List<Predicate> conjunction = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                String property = orders.get(j).getProperty();
+                conjunction.add(cb.equal(root.get(property), keys.get(property)));
+            }
+            Sort.Order order = orders.get(i);
+            Expression<Comparable> path = root.get(order.getProperty());
+            Comparable value = (Comparable) keys.get(order.getProperty());
+            conjunction.add(order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value));
+            alternatives.add(cb.and(conjunction.toArray(Predicate[]::new)));
+        }
+        return cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    private static ScrollPosition positionOf(Tuple row, List<Sort.Order> orders) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (int i = 0; i < orders.size(); i++) {
+            keys.put(orders.get(i).getProperty(), row.get(i + 1));
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    private static <E> long count(EntityManager entityManager, Class<E> entityClass, Specification<E> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(entityClass);
+        restrict(query, specification.toPredicate(root, query, cb));
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void restrict(CriteriaQuery<?> query, Predicate predicate) {
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package myapp.repository;
+
+import myapp.domain.SalesDailyRollup;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the SalesDailyRollup entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface SalesDailyRollupRepository extends SalesRollupRepository<SalesDailyRollup> {}
@@ -0,0 +1,11 @@
+package myapp.repository;
+
+import myapp.domain.SalesHourlyRollup;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the SalesHourlyRollup entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface SalesHourlyRollupRepository extends SalesRollupRepository<SalesHourlyRollup> {}
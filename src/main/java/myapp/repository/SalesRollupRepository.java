@@ -0,0 +1,44 @@
+package myapp.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import myapp.domain.AbstractSalesRollup;
+import myapp.service.dto.SalesRollupDTO;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Spring Data JPA repository for the sales rollups of one granularity.
+ *
+ * @param <T> the rollup entity.
+ */
+@NoRepositoryBean
+public interface SalesRollupRepository<T extends AbstractSalesRollup> extends JpaRepository<T, Instant> {
+    /**
+     * Add to the sales of a bucket, in place.
+     *
+     * @return the number of rows updated, {@code 0} when the bucket does not exist yet.
+     */
+    @Modifying
+    @Query(
+        "update #{#entityName} rollup set rollup.orderCount = rollup.orderCount + :orderCount, " +
+        "rollup.revenue = rollup.revenue + :revenue, rollup.shippingCost = rollup.shippingCost + :shippingCost " +
+        "where rollup.bucketStart = :bucketStart"
+    )
+    int add(
+        @Param("bucketStart") Instant bucketStart,
+        @Param("orderCount") long orderCount,
+        @Param("revenue") BigDecimal revenue,
+        @Param("shippingCost") BigDecimal shippingCost
+    );
+
+    @Query(
+        "select new myapp.service.dto.SalesRollupDTO(rollup.bucketStart, rollup.orderCount, rollup.revenue, rollup.shippingCost) " +
+        "from #{#entityName} rollup where rollup.bucketStart >= :from and rollup.bucketStart < :to order by rollup.bucketStart"
+    )
+    List<SalesRollupDTO> findAllBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    List<T> findAllByBucketStartGreaterThanEqualAndBucketStartLessThan(Instant from, Instant to);
+}
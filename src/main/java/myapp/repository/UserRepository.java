@@ -4,9 +4,13 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import myapp.domain.User;
+import myapp.service.dto.CampaignRecipientDTO;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -14,17 +18,35 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    String USERS_BY_LOGIN_CACHE = "usersByLogin";
+
+    String USERS_BY_EMAIL_CACHE = "usersByEmail";
+
     Optional<User> findOneByActivationKey(String activationKey);
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
     Optional<User> findOneByResetKey(String resetKey);
     Optional<User> findOneByEmailIgnoreCase(String email);
     Optional<User> findOneByLogin(String login);
 
+    /**
+     * Cached by login, which is stored in lower case; evicted by {@link myapp.service.UserService} when the user changes.
+     */
     @EntityGraph(attributePaths = "authorities")
+    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE, unless = "#result == null")
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
+    /**
+     * Cached by lower case email; evicted by {@link myapp.service.UserService} when the user changes.
+     */
     @EntityGraph(attributePaths = "authorities")
+    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE, key = "#p0.toLowerCase(T(java.util.Locale).ENGLISH)", unless = "#result == null")
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    @Query(
+        "select new myapp.service.dto.CampaignRecipientDTO(jhiUser.id, jhiUser.email, jhiUser.langKey) from User jhiUser " +
+        "where jhiUser.id > :afterId and jhiUser.activated = true and jhiUser.email is not null order by jhiUser.id"
+    )
+    List<CampaignRecipientDTO> findCampaignRecipientsAfter(@Param("afterId") Long afterId, Limit limit);
 }
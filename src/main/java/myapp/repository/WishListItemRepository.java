@@ -0,0 +1,45 @@
+package myapp.repository;
+
+import java.util.Collection;
+import java.util.List;
+import myapp.domain.WishListItem;
+import myapp.service.dto.WishListItemDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the WishListItem entity.
+ * <p>
+ * Products are only referenced by id, which is the foreign key column of the item, so none of these queries joins the
+ * product table.
+ */
+@Repository
+public interface WishListItemRepository extends JpaRepository<WishListItem, Long> {
+    @Query(
+        value = "select new myapp.service.dto.WishListItemDTO(item.product.id, item.addedAt) from WishListItem item " +
+        "where item.wishList.id = :wishListId",
+        countQuery = "select count(item) from WishListItem item where item.wishList.id = :wishListId"
+    )
+    Page<WishListItemDTO> findAllByWishListId(@Param("wishListId") Long wishListId, Pageable pageable);
+
+    @Query("select item.product.id from WishListItem item where item.wishList.id = :wishListId and item.product.id in :productIds")
+    List<Long> findProductIdsByWishListIdAndProductIdIn(
+        @Param("wishListId") Long wishListId,
+        @Param("productIds") Collection<Long> productIds
+    );
+
+    @Modifying
+    @Query("delete from WishListItem item where item.wishList.id = :wishListId and item.product.id in :productIds")
+    int deleteByWishListIdAndProductIdIn(@Param("wishListId") Long wishListId, @Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query("delete from WishListItem item where item.wishList.id = :wishListId")
+    int deleteByWishListId(@Param("wishListId") Long wishListId);
+
+    @Modifying
+    @Query("delete from WishListItem item where item.product.id = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
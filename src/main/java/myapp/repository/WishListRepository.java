@@ -1,7 +1,9 @@
 package myapp.repository;
 
+import java.util.List;
 import myapp.domain.WishList;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +11,7 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface WishListRepository extends JpaRepository<WishList, Long> {}
+public interface WishListRepository extends JpaRepository<WishList, Long> {
+    @Query("select item.wishList from WishListItem item where item.product.id = :productId")
+    List<WishList> findAllByProductId(@Param("productId") Long productId);
+}
@@ -0,0 +1,116 @@
+package myapp.security;
+
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import myapp.management.PasswordHashingMetersService;
+import myapp.management.PasswordHashingMetersService.Operation;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * A {@link PasswordEncoder} running the hashing and verification of another on a pool of its own.
+ * <p>
+ * Password hashing is deliberately slow, so it is kept off the request threads beyond a bounded number at a time: the
+ * calling thread waits for its operation, but when every pool thread is busy and the queue is full, or when the
+ * operation does not complete within the maximum wait, it fails at once with {@link PasswordHashingBusyException}
+ * instead of holding the request thread behind the queue.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+
+    private final PasswordHashingMetersService passwordHashingMetersService;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long maxWaitNanos;
+
+    public BoundedPasswordEncoder(
+        PasswordEncoder delegate,
+        int threads,
+        int queueCapacity,
+        Duration maxWait,
+        PasswordHashingMetersService passwordHashingMetersService
+    ) {
+        this.delegate = delegate;
+        this.passwordHashingMetersService = passwordHashingMetersService;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("password-hashing-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(Operation.ENCODE, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(Operation.MATCHES, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Only reads the cost of the encoded password, so it runs on the calling thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Operation operation, Callable<T> hashing) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                passwordHashingMetersService.trackWait(System.nanoTime() - submitted, operation);
+                Timer.Sample sample = passwordHashingMetersService.startTimer();
+                try {
+                    return hashing.call();
+                } finally {
+                    passwordHashingMetersService.trackHashing(sample, operation);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            passwordHashingMetersService.trackRejected(operation);
+            throw new PasswordHashingBusyException("Password hashing is saturated, try again later");
+        }
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // a queued operation is dropped; a running one finishes, but nobody waits for it
+            future.cancel(false);
+            passwordHashingMetersService.trackRejected(operation);
+            throw new PasswordHashingBusyException("Password hashing is saturated, try again later");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,80 @@
+package myapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import myapp.management.SecurityMetersService;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * A {@link JwtDecoder} keeping the tokens another has verified, until they expire.
+ * <p>
+ * Clients send the same token with every request for as long as it is valid, so the token is only parsed and its
+ * signature checked the first time; the decoded {@link Jwt} is then kept under the SHA-256 of the token until its
+ * {@code exp}. Tokens are signed with a key fixed for the life of the application and are not revoked, so a kept
+ * token is exactly what decoding it again would give. Tokens that fail are never kept, nor are tokens without expiry.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+
+    private final SecurityMetersService metersService;
+
+    private final Cache<String, Jwt> tokens;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maxEntries, SecurityMetersService metersService) {
+        this.delegate = delegate;
+        this.metersService = metersService;
+        this.tokens = Caffeine.newBuilder().maximumSize(maxEntries).expireAfter(new UntilExpiry()).build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = sha256(token);
+        Jwt jwt = tokens.getIfPresent(key);
+        if (jwt != null) {
+            metersService.trackTokenCacheHit();
+            return jwt;
+        }
+        metersService.trackTokenCacheMiss();
+        jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            tokens.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    private static String sha256(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class UntilExpiry implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package myapp.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a password cannot be hashed or verified because the password hashing pool is saturated; the request
+ * can be retried later.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
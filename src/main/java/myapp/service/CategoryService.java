@@ -1,8 +1,19 @@
 package myapp.service;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import myapp.domain.Category;
 import myapp.repository.CategoryRepository;
+import myapp.service.dto.CategoryProductStatsDTO;
+import myapp.service.dto.CategorySummaryDTO;
+import myapp.service.dto.EntityVersionDTO;
+import myapp.service.dto.ProductSummaryDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -21,8 +32,11 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    private final CategoryTreeService categoryTreeService;
+
+    public CategoryService(CategoryRepository categoryRepository, CategoryTreeService categoryTreeService) {
         this.categoryRepository = categoryRepository;
+        this.categoryTreeService = categoryTreeService;
     }
 
     /**
@@ -30,35 +44,68 @@ public class CategoryService {
      *
      * @param category the entity to save.
      * @return the persisted entity.
+     * @throws InvalidCategoryParentException if the parent of the category does not exist.
      */
     public Category save(Category category) {
         LOG.debug("Request to save Category : {}", category);
-        return categoryRepository.save(category);
+        category.setPath(pathUnder(category.getParent(), null));
+        Category result = categoryRepository.save(category);
+        categoryTreeService.refreshAfterCommit();
+        return result;
     }
 
     /**
      * Update a category.
+     * <p>
+     * The category is merged onto the current row, so only the changed columns are written, in an
+     * {@code UPDATE ... WHERE id = ? AND version = ?}. When the category moves to another parent, the paths of all its
+     * descendants are rewritten by one bulk {@code UPDATE}.
      *
      * @param category the entity to save.
-     * @return the persisted entity.
+     * @param expectedVersion the version the category must be at, {@code null} to update whatever its version.
+     * @return the persisted entity, or empty if there is no category with this id.
+     * @throws EntityVersionMismatchException if the category is not at {@code expectedVersion}.
+     * @throws InvalidCategoryParentException if the new parent does not exist, or is the category or one of its descendants.
      */
-    public Category update(Category category) {
+    public Optional<Category> update(Category category, Long expectedVersion) {
         LOG.debug("Request to update Category : {}", category);
-        return categoryRepository.save(category);
+        return categoryRepository
+            .findById(category.getId())
+            .map(existingCategory -> {
+                checkVersion(existingCategory, expectedVersion);
+                String path = existingCategory.getPath();
+                if (path == null || !Objects.equals(parentId(existingCategory), parentId(category))) {
+                    path = pathUnder(category.getParent(), category.getId());
+                    if (existingCategory.getPath() != null && !path.equals(existingCategory.getPath())) {
+                        categoryRepository.updatePathPrefix(
+                            existingCategory.getPath() + category.getId() + "/",
+                            path + category.getId() + "/"
+                        );
+                    }
+                }
+                category.setPath(path);
+                category.setVersion(existingCategory.getVersion());
+                Category result = categoryRepository.save(category);
+                categoryTreeService.refreshAfterCommit();
+                return result;
+            });
     }
 
     /**
      * Partially update a category.
      *
      * @param category the entity to update partially.
+     * @param expectedVersion the version the category must be at, {@code null} to update whatever its version.
      * @return the persisted entity.
+     * @throws EntityVersionMismatchException if the category is not at {@code expectedVersion}.
      */
-    public Optional<Category> partialUpdate(Category category) {
+    public Optional<Category> partialUpdate(Category category, Long expectedVersion) {
         LOG.debug("Request to partially update Category : {}", category);
 
         return categoryRepository
             .findById(category.getId())
             .map(existingCategory -> {
+                checkVersion(existingCategory, expectedVersion);
                 if (category.getDescription() != null) {
                     existingCategory.setDescription(category.getDescription());
                 }
@@ -77,7 +124,60 @@ public class CategoryService {
 
                 return existingCategory;
             })
-            .map(categoryRepository::save);
+            .map(categoryRepository::save)
+            .map(result -> {
+                categoryTreeService.refreshAfterCommit();
+                return result;
+            });
+    }
+
+    /**
+     * Compute the path of a category placed under a parent.
+     *
+     * @param parent the parent, {@code null} for a root category.
+     * @param id the id of the category, {@code null} for a new one.
+     * @return the path.
+     */
+    private String pathUnder(Category parent, Long id) {
+        if (parent == null || parent.getId() == null) {
+            return CategoryTreeService.ROOT_PATH;
+        }
+        Category existingParent = categoryRepository
+            .findById(parent.getId())
+            .orElseThrow(() -> new InvalidCategoryParentException("Parent category " + parent.getId() + " does not exist"));
+        String path = pathOf(existingParent) + existingParent.getId() + "/";
+        if (id != null && path.contains("/" + id + "/")) {
+            throw new InvalidCategoryParentException("Category " + id + " cannot be moved under its descendant " + parent.getId());
+        }
+        return path;
+    }
+
+    /**
+     * The path of a category, walking up its parents if it has not been filled in yet.
+     */
+    private static String pathOf(Category category) {
+        StringBuilder path = new StringBuilder();
+        Set<Long> seen = new HashSet<>();
+        Category current = category;
+        while (current.getPath() == null && current.getParent() != null) {
+            current = current.getParent();
+            if (!seen.add(current.getId())) {
+                throw new InvalidCategoryParentException("Category " + category.getId() + " is in a parent cycle");
+            }
+            path.insert(0, current.getId() + "/");
+        }
+        String top = current.getPath() != null ? current.getPath() : CategoryTreeService.ROOT_PATH;
+        return top + path;
+    }
+
+    private static Long parentId(Category category) {
+        return category.getParent() != null ? category.getParent().getId() : null;
+    }
+
+    private static void checkVersion(Category existingCategory, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(existingCategory.getVersion())) {
+            throw new EntityVersionMismatchException(Category.class.getSimpleName(), existingCategory.getId(), expectedVersion);
+        }
     }
 
     /**
@@ -93,12 +193,48 @@ public class CategoryService {
     }
 
     /**
-     * Get all the categories with eager load of many-to-many relationships.
+     * Get a page of category summaries: each category with the number of its products and the summaries of its best
+     * rated ones.
+     * <p>
+     * Three queries whatever the size of the categories: the page, the product counts and versions grouped by
+     * category, and the top products ranked per category by a window function.
      *
-     * @return the list of entities.
+     * @param pageable the pagination information.
+     * @param topProducts the maximum number of product summaries per category.
+     * @return the page of summaries.
      */
-    public Page<Category> findAllWithEagerRelationships(Pageable pageable) {
-        return categoryRepository.findAllWithEagerRelationships(pageable);
+    @Transactional(readOnly = true)
+    public Page<CategorySummaryDTO> findAllSummaries(Pageable pageable, int topProducts) {
+        LOG.debug("Request to get a page of Category summaries");
+        Page<Category> page = categoryRepository.findAll(pageable);
+        if (page.isEmpty()) {
+            return page.map(category -> summary(category, null, List.of()));
+        }
+        List<Long> ids = page.map(Category::getId).getContent();
+        Map<Long, CategoryProductStatsDTO> stats = categoryRepository
+            .findProductStatsByCategoryIdIn(ids)
+            .stream()
+            .collect(Collectors.toMap(CategoryProductStatsDTO::categoryId, Function.identity()));
+        Map<Long, List<ProductSummaryDTO>> products = categoryRepository.findTopProductSummaries(ids, topProducts);
+        return page.map(category ->
+            summary(category, stats.get(category.getId()), products.getOrDefault(category.getId(), List.of()))
+        );
+    }
+
+    private static CategorySummaryDTO summary(Category category, CategoryProductStatsDTO stats, List<ProductSummaryDTO> topProducts) {
+        return new CategorySummaryDTO(
+            category.getId(),
+            category.getDescription(),
+            category.getSortOrder(),
+            category.getDateAdded(),
+            category.getDateModified(),
+            category.getStatus(),
+            parentId(category),
+            category.getVersion(),
+            stats != null ? stats.productCount() : 0,
+            List.copyOf(topProducts),
+            stats != null ? stats.productsVersion() : null
+        );
     }
 
     /**
@@ -113,6 +249,58 @@ public class CategoryService {
         return categoryRepository.findOneWithEagerRelationships(id);
     }
 
+    /**
+     * Get the path prefix shared by all the descendants of a category.
+     *
+     * @param id the id of the category.
+     * @return the path prefix, or empty if there is no category with this id.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> findDescendantsPathPrefix(Long id) {
+        LOG.debug("Request to get the descendants path prefix of Category : {}", id);
+        return categoryRepository.findById(id).map(category -> pathOf(category) + category.getId() + "/");
+    }
+
+    /**
+     * Get the version of one category by id, with its products, without loading it.
+     * <p>
+     * Products join or leave a category through the category, which bumps its version, so the sum of the versions of
+     * the products only has to follow the updates of the products themselves.
+     *
+     * @param id the id of the entity.
+     * @return the version of the category with its products.
+     */
+    @Transactional(readOnly = true)
+    public Optional<EntityVersionDTO> findVersion(Long id) {
+        LOG.debug("Request to get the version of Category : {}", id);
+        Optional<EntityVersionDTO> version = categoryRepository.findVersionById(id);
+        if (version.isEmpty()) {
+            return version;
+        }
+        List<CategoryProductStatsDTO> stats = categoryRepository.findProductStatsByCategoryIdIn(List.of(id));
+        return Optional.of(version.orElseThrow().embedding(stats.isEmpty() ? null : stats.get(0).productsVersion()));
+    }
+
+    /**
+     * Get the versions of a page of categories, with the versions of their products, without loading them.
+     *
+     * @param pageable the pagination information.
+     * @return the versions, in page order.
+     */
+    @Transactional(readOnly = true)
+    public Page<EntityVersionDTO> findAllVersions(Pageable pageable) {
+        LOG.debug("Request to get the versions of a page of Categories");
+        Page<EntityVersionDTO> versions = categoryRepository.findAllVersions(pageable);
+        if (versions.isEmpty()) {
+            return versions;
+        }
+        Map<Long, EntityVersionDTO> productVersions = categoryRepository
+            .findProductStatsByCategoryIdIn(versions.map(EntityVersionDTO::id).getContent())
+            .stream()
+            .collect(Collectors.toMap(CategoryProductStatsDTO::categoryId, CategoryProductStatsDTO::productsVersion));
+        return versions.map(version -> version.embedding(productVersions.get(version.id())));
+    }
+
     /**
      * Delete the category by id.
      *
@@ -121,5 +309,6 @@ public class CategoryService {
     public void delete(Long id) {
         LOG.debug("Request to delete Category : {}", id);
         categoryRepository.deleteById(id);
+        categoryTreeService.refreshAfterCommit();
     }
 }
@@ -0,0 +1,218 @@
+package myapp.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import myapp.domain.enumeration.CategoryStatus;
+import myapp.repository.CategoryRepository;
+import myapp.service.dto.CategoryNodeDTO;
+import myapp.service.dto.CategoryPathDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The tree of the {@link myapp.domain.Category}s, served from an immutable in-memory snapshot.
+ * <p>
+ * The snapshot is built from a single projection query over all categories, then swapped in with one volatile write,
+ * so readers never lock and always see a whole tree. It is rebuilt once the transaction of every change made through
+ * {@link CategoryService} commits; rebuilds are serialized and each reads the database after the commit that
+ * triggered it, so the last one to run holds the latest state. The snapshot is per instance: changes made by another
+ * instance show up here at its next local change or restart.
+ * <p>
+ * {@link CategoryStatus#DISABLED} categories are left out of the tree, with their whole subtree. Siblings are ordered by
+ * {@code sortOrder}, categories without one last, then by id.
+ */
+@Service
+public class CategoryTreeService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CategoryTreeService.class);
+
+    static final String ROOT_PATH = "/";
+
+    private static final Comparator<CategoryPathDTO> SIBLING_ORDER = Comparator.comparing(
+        CategoryPathDTO::sortOrder,
+        Comparator.nullsLast(Comparator.naturalOrder())
+    ).thenComparing(CategoryPathDTO::id);
+
+    private final CategoryRepository categoryRepository;
+
+    private final TransactionTemplate readTransactionTemplate;
+
+    private final TransactionTemplate writeTransactionTemplate;
+
+    private volatile List<CategoryNodeDTO> tree;
+
+    private final Object rebuildMonitor = new Object();
+
+    public CategoryTreeService(CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        // rebuilds run after the commit of the transaction that triggered them, so they need a transaction of their own
+        this.readTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransactionTemplate.setReadOnly(true);
+        this.writeTransactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Get the category tree.
+     *
+     * @return the root categories, each with its children.
+     */
+    public List<CategoryNodeDTO> getTree() {
+        List<CategoryNodeDTO> current = tree;
+        if (current == null) {
+            synchronized (rebuildMonitor) {
+                current = tree;
+                if (current == null) {
+                    current = rebuild();
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Rebuild the tree once the current transaction commits, or now if there is none.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        refresh();
+                    }
+                }
+            );
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Fill in the paths missing or out of date, then build the tree, once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Integer updated = writeTransactionTemplate.execute(status -> backfillPaths());
+        if (updated != null && updated > 0) {
+            LOG.info("Category paths filled in for {} categories", updated);
+        }
+        refresh();
+    }
+
+    private void refresh() {
+        synchronized (rebuildMonitor) {
+            rebuild();
+        }
+    }
+
+    // guarded by rebuildMonitor
+    private List<CategoryNodeDTO> rebuild() {
+        List<CategoryPathDTO> categories = readTransactionTemplate.execute(status -> categoryRepository.findAllPaths());
+        List<CategoryNodeDTO> built = build(Objects.requireNonNull(categories));
+        tree = built;
+        LOG.debug("Category tree rebuilt with {} categories", categories.size());
+        return built;
+    }
+
+    static List<CategoryNodeDTO> build(List<CategoryPathDTO> categories) {
+        Set<Long> ids = new HashSet<>();
+        categories.forEach(category -> ids.add(category.id()));
+        Map<Long, List<CategoryPathDTO>> childrenByParentId = new HashMap<>();
+        List<CategoryPathDTO> roots = new ArrayList<>();
+        for (CategoryPathDTO category : categories) {
+            if (category.parentId() == null || !ids.contains(category.parentId())) {
+                roots.add(category);
+            } else {
+                childrenByParentId.computeIfAbsent(category.parentId(), parentId -> new ArrayList<>()).add(category);
+            }
+        }
+        // categories caught in a parent cycle are unreachable from the roots, and left out
+        return nodes(roots, childrenByParentId);
+    }
+
+    private static List<CategoryNodeDTO> nodes(List<CategoryPathDTO> siblings, Map<Long, List<CategoryPathDTO>> childrenByParentId) {
+        return siblings
+            .stream()
+            .filter(category -> category.status() != CategoryStatus.DISABLED)
+            .sorted(SIBLING_ORDER)
+            .map(category ->
+                new CategoryNodeDTO(
+                    category.id(),
+                    category.description(),
+                    category.sortOrder(),
+                    category.status(),
+                    nodes(childrenByParentId.getOrDefault(category.id(), List.of()), childrenByParentId)
+                )
+            )
+            .toList();
+    }
+
+    /**
+     * Recompute every path from the parent links and write the ones that differ, which are the rows created before the
+     * path column existed.
+     *
+     * @return the number of paths written.
+     */
+    private int backfillPaths() {
+        List<CategoryPathDTO> categories = categoryRepository.findAllPaths();
+        Map<Long, CategoryPathDTO> categoriesById = new HashMap<>();
+        categories.forEach(category -> categoriesById.put(category.id(), category));
+        Map<Long, String> paths = new HashMap<>();
+        int updated = 0;
+        for (CategoryPathDTO category : categories) {
+            String path = pathOf(category, categoriesById, paths);
+            if (path != null && !path.equals(category.path())) {
+                categoryRepository.updatePath(category.id(), path);
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    private static String pathOf(CategoryPathDTO category, Map<Long, CategoryPathDTO> categoriesById, Map<Long, String> paths) {
+        List<CategoryPathDTO> ancestry = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        CategoryPathDTO current = category;
+        String path = null;
+        while (path == null) {
+            if (!seen.add(current.id())) {
+                LOG.warn("Category {} is in a parent cycle, its path is left as is", category.id());
+                return null;
+            }
+            path = paths.get(current.id());
+            if (path == null) {
+                ancestry.add(current);
+                CategoryPathDTO parent = current.parentId() == null ? null : categoriesById.get(current.parentId());
+                if (parent == null) {
+                    path = ROOT_PATH;
+                    paths.put(current.id(), path);
+                    ancestry.remove(ancestry.size() - 1);
+                } else {
+                    current = parent;
+                }
+            }
+        }
+        // walk back down from the first ancestor with a known path
+        for (int i = ancestry.size() - 1; i >= 0; i--) {
+            CategoryPathDTO descendant = ancestry.get(i);
+            path = path + descendant.parentId() + "/";
+            paths.put(descendant.id(), path);
+        }
+        return paths.get(category.id());
+    }
+}
@@ -0,0 +1,188 @@
+package myapp.service;
+
+import io.micrometer.core.instrument.Timer;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import myapp.config.ApplicationProperties;
+import myapp.domain.Address;
+import myapp.domain.Order;
+import myapp.domain.OrderLine;
+import myapp.domain.Product;
+import myapp.domain.enumeration.OrderStatus;
+import myapp.management.CheckoutMetersService;
+import myapp.management.CheckoutMetersService.Outcome;
+import myapp.management.CheckoutMetersService.Stage;
+import myapp.repository.AddressRepository;
+import myapp.repository.OrderLineRepository;
+import myapp.repository.OrderRepository;
+import myapp.repository.ProductRepository;
+import myapp.service.SalesRollupService.Sale;
+import myapp.service.dto.CheckoutDTO;
+import myapp.service.dto.StockReservationDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service placing {@link Order}s from a basket, in a single short transaction.
+ * <p>
+ * The stock of the products of the basket is reserved through {@link ProductStockService}, one conditional
+ * {@code UPDATE} per product, then the products are read in one {@code IN} query and the order is inserted with its
+ * lines at their prices. The reservation keeps the product rows locked until the commit, so the prices charged are
+ * those of the products when the order commits, and the order holds the products as they are after the reservation.
+ * The totals are computed here, whatever the client thinks they are. Each stage, and the commit, is timed on its own.
+ */
+@Service
+public class CheckoutService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CheckoutService.class);
+
+    private final ProductRepository productRepository;
+
+    private final AddressRepository addressRepository;
+
+    private final CustomerService customerService;
+
+    private final OrderRepository orderRepository;
+
+    private final OrderLineRepository orderLineRepository;
+
+    private final ProductStockService productStockService;
+
+    private final OrderStatusCountService orderStatusCountService;
+
+    private final SalesRollupService salesRollupService;
+
+    private final CheckoutMetersService checkoutMetersService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public CheckoutService(
+        ProductRepository productRepository,
+        AddressRepository addressRepository,
+        CustomerService customerService,
+        OrderRepository orderRepository,
+        OrderLineRepository orderLineRepository,
+        ProductStockService productStockService,
+        OrderStatusCountService orderStatusCountService,
+        SalesRollupService salesRollupService,
+        CheckoutMetersService checkoutMetersService,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.productRepository = productRepository;
+        this.addressRepository = addressRepository;
+        this.customerService = customerService;
+        this.orderRepository = orderRepository;
+        this.orderLineRepository = orderLineRepository;
+        this.productStockService = productStockService;
+        this.orderStatusCountService = orderStatusCountService;
+        this.salesRollupService = salesRollupService;
+        this.checkoutMetersService = checkoutMetersService;
+        this.applicationProperties = applicationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Place an order for a basket.
+     *
+     * @param checkout the basket; quantities of the same product are added up.
+     * @return the placed order, with its lines.
+     * @throws InsufficientStockException if a product does not have enough units in stock or is discontinued.
+     * @throws ProductNotFoundException if a product does not exist.
+     * @throws InvalidCheckoutException if the shipping address does not exist or is not one of the current customer.
+     */
+    public Order checkout(CheckoutDTO checkout) {
+        LOG.debug("Request to check out : {}", checkout);
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        checkout.items().forEach(item -> quantities.merge(item.productId(), item.quantity(), Math::addExact));
+        Timer.Sample sample = checkoutMetersService.startTimer();
+        Timer.Sample[] commitSample = new Timer.Sample[1];
+        try {
+            Order order = transactionTemplate.execute(status -> {
+                Order placed = place(checkout.shippingAddressId(), quantities);
+                commitSample[0] = checkoutMetersService.startTimer();
+                return placed;
+            });
+            stopCommitTimer(commitSample);
+            checkoutMetersService.trackCheckout(sample, Outcome.SUCCESS);
+            return order;
+        } catch (InsufficientStockException e) {
+            checkoutMetersService.trackCheckout(sample, Outcome.CONFLICT);
+            throw e;
+        } catch (ProductNotFoundException e) {
+            checkoutMetersService.trackCheckout(sample, Outcome.NOT_FOUND);
+            throw e;
+        } catch (InvalidCheckoutException e) {
+            checkoutMetersService.trackCheckout(sample, Outcome.INVALID);
+            throw e;
+        } catch (RuntimeException e) {
+            // the commit itself failed, or something unexpected did
+            stopCommitTimer(commitSample);
+            checkoutMetersService.trackCheckout(sample, Outcome.ERROR);
+            throw e;
+        }
+    }
+
+    private void stopCommitTimer(Timer.Sample[] commitSample) {
+        if (commitSample[0] != null) {
+            checkoutMetersService.trackStage(commitSample[0], Stage.COMMIT);
+            commitSample[0] = null;
+        }
+    }
+
+    private Order place(Long shippingAddressId, Map<Long, Integer> quantities) {
+        Timer.Sample sample = checkoutMetersService.startTimer();
+        Optional<Long> customerId = customerService.findCurrentCustomerId();
+        Address shippingAddress = addressRepository
+            .findById(shippingAddressId)
+            .filter(address -> address.getCustomer() != null && customerId.isPresent())
+            .filter(address -> customerId.get().equals(address.getCustomer().getId()))
+            .orElseThrow(() -> new InvalidCheckoutException("Shipping address " + shippingAddressId + " does not exist"));
+        checkoutMetersService.trackStage(sample, Stage.LOAD);
+
+        sample = checkoutMetersService.startTimer();
+        productStockService.reserve(
+            quantities.entrySet().stream().map(quantity -> new StockReservationDTO(quantity.getKey(), quantity.getValue())).toList()
+        );
+        checkoutMetersService.trackStage(sample, Stage.RESERVE);
+
+        sample = checkoutMetersService.startTimer();
+        // read after the reservation, whose row locks keep the prices until the commit; a query rather than the
+        // second-level cache, which may hold rows from before the reservation
+        Map<Long, Product> products = productRepository
+            .findAllById(quantities.keySet())
+            .stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Order order = new Order()
+            .orderDate(Instant.now())
+            .status(OrderStatus.PENDING)
+            .shippingCost(applicationProperties.getCheckout().getShippingCost())
+            .shippingAddress(shippingAddress)
+            .customer(shippingAddress.getCustomer());
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (Map.Entry<Long, Integer> quantity : quantities.entrySet()) {
+            Product product = products.get(quantity.getKey());
+            order.addLine(new OrderLine().product(product).quantity(quantity.getValue()).unitPrice(product.getPrice()));
+            totalAmount = totalAmount.add(product.getPrice().multiply(BigDecimal.valueOf(quantity.getValue())));
+        }
+        order.setTotalAmount(totalAmount);
+        Order result = orderRepository.save(order);
+        orderLineRepository.saveAll(order.getLines());
+        orderStatusCountService.moveAfterCommit(null, result.getStatus());
+        salesRollupService.moveAfterCommit(null, Sale.of(result));
+        // flush here, so that the inserts are timed with this stage rather than with the commit
+        orderRepository.flush();
+        checkoutMetersService.trackStage(sample, Stage.PERSIST);
+        return result;
+    }
+}
@@ -3,10 +3,16 @@ package myapp.service;
 import java.util.Optional;
 import myapp.domain.Customer;
 import myapp.repository.CustomerRepository;
+import myapp.security.AuthoritiesConstants;
+import myapp.security.SecurityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +39,9 @@ public class CustomerService {
      */
     public Customer save(Customer customer) {
         LOG.debug("Request to save Customer : {}", customer);
+        if (!SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesConstants.ADMIN)) {
+            customer.setUser(null);
+        }
         return customerRepository.save(customer);
     }
 
@@ -44,6 +53,10 @@ public class CustomerService {
      */
     public Customer update(Customer customer) {
         LOG.debug("Request to update Customer : {}", customer);
+        if (!SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesConstants.ADMIN)) {
+            // only an administrator links a customer to a user, as the link grants access to its orders
+            customer.setUser(customerRepository.findById(customer.getId()).map(Customer::getUser).orElse(null));
+        }
         return customerRepository.save(customer);
     }
 
@@ -89,6 +102,20 @@ public class CustomerService {
         return customerRepository.findAll(pageable);
     }
 
+    /**
+     * Get a window of customers after the given keyset position, without counting the total.
+     *
+     * @param position the keyset position to seek from.
+     * @param sort the sort order; Spring Data appends the id as tie-breaker.
+     * @param size the maximum number of customers in the window.
+     * @return the window of customers.
+     */
+    @Transactional(readOnly = true)
+    public Window<Customer> findAll(KeysetScrollPosition position, Sort sort, int size) {
+        LOG.debug("Request to get a window of Customers");
+        return customerRepository.findAllBy(position, sort, Limit.of(size));
+    }
+
     /**
      * Get one customer by id.
      *
@@ -101,6 +128,19 @@ public class CustomerService {
         return customerRepository.findById(id);
     }
 
+    /**
+     * Get the id of the customer linked to the current user.
+     * <p>
+     * The link is only set by an administrator on the customer; the email of the user is never trusted for it, since
+     * users change their email without verification.
+     *
+     * @return the customer id, empty when the current user is not linked to a customer.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findCurrentCustomerId() {
+        return SecurityUtils.getCurrentUserLogin().flatMap(customerRepository::findIdByUserLogin);
+    }
+
     /**
      * Delete the customer by id.
      *
@@ -0,0 +1,15 @@
+package myapp.service;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * Thrown when a conditional update names a version that is no longer the current one.
+ */
+public class EntityVersionMismatchException extends OptimisticLockingFailureException {
+
+    private static final long serialVersionUID = 1L;
+
+    public EntityVersionMismatchException(String entityName, Long id, Long expectedVersion) {
+        super(entityName + " " + id + " is no longer at version " + expectedVersion);
+    }
+}
@@ -0,0 +1,274 @@
+package myapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import myapp.config.ApplicationProperties;
+import myapp.domain.IdempotencyRecord;
+import myapp.repository.IdempotencyRecordRepository;
+import myapp.service.dto.IdempotentResponseDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service making requests carrying an {@code Idempotency-Key} run at most once.
+ * <p>
+ * A request first {@link #acquire acquires} its key: it either gets the stored response to replay, or the right to run,
+ * which it gives back with {@link #complete} or {@link #release}. Responses are kept in a bounded in-memory cache in
+ * front of the {@link IdempotencyRecord} table, so replays are served from memory and survive restarts. A duplicate
+ * arriving while the first request runs on this instance waits for it; one arriving on another instance polls the
+ * table. A claim left behind by a crashed instance is taken over once older than the lock timeout.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration ttl;
+
+    private final Duration lockTimeout;
+
+    private final Cache<String, IdempotentResponseDTO> responses;
+
+    private final ConcurrentMap<String, Claim> claims = new ConcurrentHashMap<>();
+
+    public IdempotencyService(
+        IdempotencyRecordRepository idempotencyRecordRepository,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        // claims must be visible to other instances as soon as they are made, whatever the caller transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        ApplicationProperties.Idempotency properties = applicationProperties.getIdempotency();
+        this.ttl = properties.getTtl();
+        this.lockTimeout = properties.getLockTimeout();
+        this.responses = Caffeine.newBuilder().maximumSize(properties.getMaxEntries()).expireAfterWrite(ttl).build();
+    }
+
+    /**
+     * Acquire a key, waiting for a request holding it to finish.
+     *
+     * @param key the key, scoped to the caller and the endpoint.
+     * @param requestHash the hash of the request body.
+     * @return the response to replay, or empty when the caller now holds the key and must run the request.
+     * @throws IdempotencyKeyReusedException if the key was used for a different request body.
+     * @throws IdempotentRequestInProgressException if the request holding the key is still running after the lock timeout.
+     */
+    public Optional<IdempotentResponseDTO> acquire(String key, String requestHash) {
+        long deadline = System.nanoTime() + lockTimeout.toNanos();
+        while (true) {
+            IdempotentResponseDTO response = responses.getIfPresent(key);
+            if (response != null) {
+                return Optional.of(checkSameRequest(response, requestHash));
+            }
+            Claim claim = new Claim();
+            Claim running = claims.putIfAbsent(key, claim);
+            if (running != null) {
+                response = await(running, deadline);
+                if (response != null) {
+                    return Optional.of(checkSameRequest(response, requestHash));
+                }
+                // the request holding the key failed, so the key is free again
+                continue;
+            }
+            try {
+                Optional<IdempotentResponseDTO> stored = claimRecord(key, requestHash, claim, deadline);
+                stored.ifPresent(storedResponse -> finish(key, claim, storedResponse));
+                return stored.map(storedResponse -> checkSameRequest(storedResponse, requestHash));
+            } catch (RuntimeException e) {
+                finish(key, claim, null);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Store the response of a request holding its key, and hand it to the duplicates waiting for it.
+     *
+     * @param key the key acquired by the request.
+     * @param response the response.
+     */
+    public void complete(String key, IdempotentResponseDTO response) {
+        Claim claim = claims.get(key);
+        if (claim == null) {
+            throw new IllegalStateException("Idempotency key not acquired: " + key);
+        }
+        try {
+            Integer updated = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.complete(
+                    key,
+                    claim.lockedAt,
+                    response.status(),
+                    response.headers(),
+                    response.body(),
+                    now().plus(ttl)
+                )
+            );
+            if (updated == null || updated == 0) {
+                LOG.warn("Idempotency key {} was taken over while its request was running", key);
+            }
+        } finally {
+            finish(key, claim, response);
+        }
+    }
+
+    /**
+     * Give back a key without a response, so that the next request carrying it runs again.
+     *
+     * @param key the key acquired by the request.
+     */
+    public void release(String key) {
+        Claim claim = claims.get(key);
+        if (claim == null) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.release(key, claim.lockedAt));
+        } finally {
+            finish(key, claim, null);
+        }
+    }
+
+    /**
+     * Expired responses are deleted every hour.
+     */
+    @Scheduled(cron = "0 30 * * * ?")
+    public void removeExpiredRecords() {
+        Integer deleted = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteExpired(now()));
+        LOG.debug("Deleted {} expired idempotency records", deleted);
+    }
+
+    /**
+     * Claim the record of a key, or get its stored response, polling while another instance holds it.
+     */
+    private Optional<IdempotentResponseDTO> claimRecord(String key, String requestHash, Claim claim, long deadline) {
+        while (true) {
+            Instant lockedAt = now();
+            Optional<IdempotencyRecord> existing = transactionTemplate.execute(status -> idempotencyRecordRepository.findById(key));
+            if (existing == null || existing.isEmpty()) {
+                if (insert(key, requestHash, lockedAt)) {
+                    claim.lockedAt = lockedAt;
+                    return Optional.empty();
+                }
+                continue;
+            }
+            IdempotencyRecord record = existing.orElseThrow();
+            if (Boolean.TRUE.equals(record.getCompleted()) && record.getExpiresAt().isAfter(lockedAt)) {
+                return Optional.of(
+                    new IdempotentResponseDTO(
+                        record.getRequestHash(),
+                        record.getResponseStatus(),
+                        record.getResponseHeaders(),
+                        record.getResponseBody()
+                    )
+                );
+            }
+            Integer claimed = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.claimExpiredOrStale(key, requestHash, lockedAt, lockedAt.plus(ttl), lockedAt.minus(lockTimeout))
+            );
+            if (claimed != null && claimed > 0) {
+                claim.lockedAt = lockedAt;
+                return Optional.empty();
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new IdempotentRequestInProgressException();
+            }
+            sleep();
+        }
+    }
+
+    private boolean insert(String key, String requestHash, Instant lockedAt) {
+        IdempotencyRecord record = new IdempotencyRecord()
+            .id(key)
+            .requestHash(requestHash)
+            .completed(false)
+            .lockedAt(lockedAt)
+            .expiresAt(lockedAt.plus(ttl));
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.saveAndFlush(record));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // another instance inserted it first
+            return false;
+        }
+    }
+
+    private void finish(String key, Claim claim, IdempotentResponseDTO response) {
+        if (response != null) {
+            responses.put(key, response);
+        }
+        claims.remove(key, claim);
+        claim.response.complete(response);
+    }
+
+    private static IdempotentResponseDTO await(Claim claim, long deadline) {
+        try {
+            return claim.response.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotentRequestInProgressException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException();
+        } catch (ExecutionException e) {
+            // never completed exceptionally
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException();
+        }
+    }
+
+    private static IdempotentResponseDTO checkSameRequest(IdempotentResponseDTO response, String requestHash) {
+        if (!response.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException();
+        }
+        return response;
+    }
+
+    /**
+     * The claim is matched on equality in the database, so it is truncated to a precision every database keeps.
+     */
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /**
+     * A key held by a request running on this instance; the duplicates wait on its response, {@code null} when the
+     * request failed.
+     */
+    private static final class Claim {
+
+        private final CompletableFuture<IdempotentResponseDTO> response = new CompletableFuture<>();
+
+        private volatile Instant lockedAt;
+    }
+}
@@ -0,0 +1,18 @@
+package myapp.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the first request made with an {@code Idempotency-Key} is still running after its duplicate has waited
+ * for it as long as allowed.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotentRequestInProgressException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotentRequestInProgressException() {
+        super("A request with the same Idempotency-Key is in progress");
+    }
+}
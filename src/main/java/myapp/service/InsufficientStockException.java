@@ -0,0 +1,25 @@
+package myapp.service;
+
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when products do not have enough units in stock for a reservation; nothing was reserved.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Long> productIds;
+
+    public InsufficientStockException(List<Long> productIds) {
+        super("Insufficient stock for products " + productIds);
+        this.productIds = List.copyOf(productIds);
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+}
@@ -0,0 +1,17 @@
+package myapp.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the parent of a category does not exist, or is the category itself or one of its descendants.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCategoryParentException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCategoryParentException(String message) {
+        super(message);
+    }
+}
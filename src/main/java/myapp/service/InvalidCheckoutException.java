@@ -0,0 +1,18 @@
+package myapp.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a checkout refers to something it cannot use, such as an unknown shipping address; nothing was reserved
+ * or saved.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCheckoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCheckoutException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,6 @@
 package myapp.service;
 
-public class InvalidDateAddedException extends RuntimeException {
+public class InvalidDateAddedException extends InvalidProductException {
     public InvalidDateAddedException(String message) {
         super(message);
     }
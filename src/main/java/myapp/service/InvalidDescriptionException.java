@@ -1,6 +1,6 @@
 package myapp.service;
 
-public class InvalidDescriptionException extends RuntimeException {
+public class InvalidDescriptionException extends InvalidProductException {
     public InvalidDescriptionException(String message) {
         super(message);
     }
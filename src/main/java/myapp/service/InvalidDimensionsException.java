@@ -1,6 +1,6 @@
 package myapp.service;
 
-public class InvalidDimensionsException extends RuntimeException {
+public class InvalidDimensionsException extends InvalidProductException {
     public InvalidDimensionsException(String message) {
         super(message);
     }
@@ -1,6 +1,6 @@
 package myapp.service;
 
-public class InvalidKeywordsException extends RuntimeException {
+public class InvalidKeywordsException extends InvalidProductException {
     public InvalidKeywordsException(String message) {
         super(message);
     }
@@ -0,0 +1,17 @@
+package myapp.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a mail campaign refers to a template or a subject that cannot be rendered; nothing was saved.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidMailCampaignException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidMailCampaignException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
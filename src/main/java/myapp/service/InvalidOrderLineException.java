@@ -0,0 +1,18 @@
+package myapp.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a line of a new {@link myapp.domain.Order} has no product or a quantity below one; nothing was priced
+ * or saved.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidOrderLineException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidOrderLineException(String message) {
+        super(message);
+    }
+}
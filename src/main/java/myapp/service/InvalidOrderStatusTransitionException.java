@@ -0,0 +1,23 @@
+package myapp.service;
+
+import myapp.domain.enumeration.OrderStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an update would move an {@link myapp.domain.Order} to a status it cannot reach from its current one, or
+ * when a new order is not placed {@link OrderStatus#PENDING}.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InvalidOrderStatusTransitionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidOrderStatusTransitionException(Long orderId, OrderStatus from, OrderStatus to) {
+        super("Order " + orderId + " cannot move from " + from + " to " + to);
+    }
+
+    public InvalidOrderStatusTransitionException(OrderStatus initial) {
+        super("A new order must be " + OrderStatus.PENDING + ", not " + initial);
+    }
+}
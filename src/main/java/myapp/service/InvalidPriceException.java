@@ -1,6 +1,6 @@
 package myapp.service;
 
-public class InvalidPriceException extends RuntimeException {
+public class InvalidPriceException extends InvalidProductException {
     public InvalidPriceException(String message) {
         super(message);
     }
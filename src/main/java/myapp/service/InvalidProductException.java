@@ -0,0 +1,16 @@
+package myapp.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Base class of the exceptions thrown when a {@link myapp.domain.Product} breaks a validation rule of
+ * {@link ProductService}.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidProductException extends RuntimeException {
+
+    public InvalidProductException(String message) {
+        super(message);
+    }
+}
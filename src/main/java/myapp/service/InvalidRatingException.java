@@ -1,6 +1,6 @@
 package myapp.service;
 
-public class InvalidRatingException extends RuntimeException {
+public class InvalidRatingException extends InvalidProductException {
     public InvalidRatingException(String message) {
         super(message);
     }
@@ -1,6 +1,6 @@
 package myapp.service;
 
-public class InvalidStatusException extends RuntimeException {
+public class InvalidStatusException extends InvalidProductException {
     public InvalidStatusException(String message) {
         super(message);
     }
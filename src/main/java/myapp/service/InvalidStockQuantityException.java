@@ -1,6 +1,6 @@
 package myapp.service;
 
-public class InvalidStockQuantityException extends RuntimeException {
+public class InvalidStockQuantityException extends InvalidProductException {
     public InvalidStockQuantityException(String message) {
         super(message);
     }
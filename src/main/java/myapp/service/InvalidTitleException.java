@@ -1,6 +1,6 @@
 package myapp.service;
 
-public class InvalidTitleException extends RuntimeException {
+public class InvalidTitleException extends InvalidProductException {
     public InvalidTitleException(String message) {
         super(message);
     }
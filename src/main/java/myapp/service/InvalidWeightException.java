@@ -1,6 +1,6 @@
 package myapp.service;
 
-public class InvalidWeightException extends RuntimeException {
+public class InvalidWeightException extends InvalidProductException {
     public InvalidWeightException(String message) {
         super(message);
     }
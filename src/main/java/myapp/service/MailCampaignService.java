@@ -0,0 +1,421 @@
+package myapp.service;
+
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import myapp.config.ApplicationProperties;
+import myapp.config.Constants;
+import myapp.domain.MailCampaign;
+import myapp.domain.enumeration.MailCampaignStatus;
+import myapp.management.MailCampaignMetersService;
+import myapp.management.MailCampaignMetersService.Result;
+import myapp.repository.MailCampaignRepository;
+import myapp.repository.UserRepository;
+import myapp.service.dto.CampaignRecipientDTO;
+import myapp.service.dto.RenderedEmailDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service sending {@link MailCampaign}s to every activated user.
+ * <p>
+ * A campaign template lives under {@value #TEMPLATE_PREFIX} and does not depend on the recipient: it is rendered once
+ * per language, with its subject, and every email of that language reuses the result. Recipients are read by id in
+ * chunks, without counting them; each chunk is split into batches built and sent over one SMTP connection each by a
+ * bounded pool of workers, at a throttled rate. The progress is saved after each chunk, so a campaign interrupted by a
+ * restart or a crash resumes at the chunk it was sending, which may then be sent twice.
+ * <p>
+ * Each instance runs one campaign at a time, on a thread of its own. Running campaigns are picked up every
+ * {@value #POLL_INTERVAL_SECONDS} seconds, once no instance has saved progress on them for the lease. A chunk may take
+ * longer than the lease, so the lease is also renewed between its batches once a quarter of it has gone; a batch
+ * itself must take well under the lease at the configured rate, which is checked on startup.
+ */
+@Service
+public class MailCampaignService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailCampaignService.class);
+
+    static final String TEMPLATE_PREFIX = "mail/campaign/";
+
+    private static final Pattern TEMPLATE_NAME = Pattern.compile("[A-Za-z0-9_-]{1,80}");
+
+    private static final long POLL_INTERVAL_SECONDS = 30;
+
+    private final MailCampaignRepository mailCampaignRepository;
+
+    private final UserRepository userRepository;
+
+    private final MailService mailService;
+
+    private final JavaMailSender javaMailSender;
+
+    private final MailCampaignMetersService mailCampaignMetersService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.MailCampaign properties;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("mail-campaign-runner-"));
+
+    private final ThreadPoolExecutor workers;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Object throttleMonitor = new Object();
+
+    private long nextSendNanos = System.nanoTime();
+
+    public MailCampaignService(
+        MailCampaignRepository mailCampaignRepository,
+        UserRepository userRepository,
+        MailService mailService,
+        JavaMailSender javaMailSender,
+        MailCampaignMetersService mailCampaignMetersService,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.mailCampaignRepository = mailCampaignRepository;
+        this.userRepository = userRepository;
+        this.mailService = mailService;
+        this.javaMailSender = javaMailSender;
+        this.mailCampaignMetersService = mailCampaignMetersService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getMailCampaign();
+        checkLease(properties);
+        int size = properties.getWorkers();
+        // a full queue makes the runner send the batch itself, which holds back the reading of recipients
+        this.workers = new ThreadPoolExecutor(
+            size,
+            size,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(size),
+            new CustomizableThreadFactory("mail-campaign-worker-"),
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    private static void checkLease(ApplicationProperties.MailCampaign properties) {
+        Duration batchDuration = Duration.ofMillis((long) (properties.getBatchSize() * 1000 / properties.getRate()));
+        if (batchDuration.multipliedBy(4).compareTo(properties.getLease()) > 0) {
+            throw new IllegalStateException(
+                "application.mail-campaign.lease (" +
+                properties.getLease() +
+                ") must be at least 4 times the time a batch takes at the rate (" +
+                batchDuration +
+                ")"
+            );
+        }
+    }
+
+    /**
+     * Create a campaign, which starts at the next poll.
+     *
+     * @param name the name of the campaign.
+     * @param templateName the name of the template, under {@value #TEMPLATE_PREFIX}.
+     * @param titleKey the message key of the subject.
+     * @return the campaign.
+     * @throws InvalidMailCampaignException if the template or the subject cannot be rendered.
+     */
+    public MailCampaign create(String name, String templateName, String titleKey) {
+        LOG.debug("Request to create MailCampaign : {}, {}", name, templateName);
+        if (!TEMPLATE_NAME.matcher(templateName).matches()) {
+            throw new InvalidMailCampaignException("Invalid template name: " + templateName, null);
+        }
+        try {
+            mailService.renderTemplate(TEMPLATE_PREFIX + templateName, titleKey, Locale.forLanguageTag(Constants.DEFAULT_LANGUAGE));
+        } catch (RuntimeException e) {
+            throw new InvalidMailCampaignException("Template " + templateName + " cannot be rendered: " + e.getMessage(), e);
+        }
+        MailCampaign campaign = new MailCampaign()
+            .name(name)
+            .templateName(templateName)
+            .titleKey(titleKey)
+            .status(MailCampaignStatus.RUNNING)
+            .sentCount(0L)
+            .failedCount(0L)
+            .createdDate(Instant.now());
+        return transactionTemplate.execute(status -> mailCampaignRepository.save(campaign));
+    }
+
+    /**
+     * Cancel a running campaign; the chunk being sent is finished.
+     *
+     * @param id the id of the campaign.
+     * @return the campaign, or empty if there is no campaign with this id.
+     */
+    public Optional<MailCampaign> cancel(Long id) {
+        LOG.debug("Request to cancel MailCampaign : {}", id);
+        return transactionTemplate.execute(status ->
+            mailCampaignRepository
+                .findById(id)
+                .map(campaign -> {
+                    if (campaign.getStatus() == MailCampaignStatus.RUNNING) {
+                        campaign.setStatus(MailCampaignStatus.CANCELLED);
+                        campaign.setCompletedDate(Instant.now());
+                    }
+                    return campaign;
+                })
+        );
+    }
+
+    /**
+     * Get all the campaigns.
+     *
+     * @param pageable the pagination information.
+     * @return the list of campaigns.
+     */
+    @Transactional(readOnly = true)
+    public Page<MailCampaign> findAll(Pageable pageable) {
+        LOG.debug("Request to get all MailCampaigns");
+        return mailCampaignRepository.findAll(pageable);
+    }
+
+    /**
+     * Get one campaign by id.
+     *
+     * @param id the id of the campaign.
+     * @return the campaign, or empty if there is no campaign with this id.
+     */
+    @Transactional(readOnly = true)
+    public Optional<MailCampaign> findOne(Long id) {
+        LOG.debug("Request to get MailCampaign : {}", id);
+        return mailCampaignRepository.findById(id);
+    }
+
+    /**
+     * Pick up a running campaign no instance is running, when this instance is not running one.
+     */
+    @Scheduled(initialDelay = POLL_INTERVAL_SECONDS, fixedDelay = POLL_INTERVAL_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void poll() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Instant heartbeat = now();
+            Instant staleBefore = heartbeat.minus(properties.getLease());
+            List<Long> ids = transactionTemplate.execute(status -> mailCampaignRepository.findIdsToRun(staleBefore));
+            for (Long id : Objects.requireNonNull(ids)) {
+                Integer claimed = transactionTemplate.execute(status -> mailCampaignRepository.claim(id, heartbeat, staleBefore));
+                if (claimed != null && claimed > 0) {
+                    runner.execute(() -> {
+                        try {
+                            run(id, heartbeat);
+                        } catch (RuntimeException e) {
+                            LOG.error("Mail campaign {} stopped, it will be resumed after its lease: {}", id, e.getMessage(), e);
+                        } finally {
+                            running.set(false);
+                        }
+                    });
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        running.set(false);
+    }
+
+    private void run(Long id, Instant claimedHeartbeat) {
+        MailCampaign campaign = transactionTemplate.execute(status -> mailCampaignRepository.findById(id)).orElseThrow();
+        LOG.info("Mail campaign {} running after user {}", campaign, campaign.getLastUserId());
+        Map<Locale, RenderedEmailDTO> rendered = new HashMap<>();
+        // the heartbeat held by this instance, renewed between batches
+        Instant[] heartbeat = { claimedHeartbeat };
+        Long afterId = campaign.getLastUserId() == null ? 0L : campaign.getLastUserId();
+        while (true) {
+            Long lastId = afterId;
+            Limit limit = Limit.of(properties.getChunkSize());
+            List<CampaignRecipientDTO> chunk = Objects.requireNonNull(
+                transactionTemplate.execute(status -> userRepository.findCampaignRecipientsAfter(lastId, limit))
+            );
+            if (chunk.isEmpty()) {
+                Instant previous = heartbeat[0];
+                transactionTemplate.execute(status -> mailCampaignRepository.complete(id, previous, Instant.now()));
+                LOG.info("Mail campaign {} completed", id);
+                return;
+            }
+            int[] results = sendChunk(campaign, chunk, rendered, heartbeat);
+            if (results[0] == 0 && results[1] > 0) {
+                // nothing went through, most likely the SMTP server is down: the chunk is retried after the lease
+                throw new IllegalStateException("No email of the chunk after user " + afterId + " could be sent");
+            }
+            afterId = chunk.get(chunk.size() - 1).id();
+            Instant previous = heartbeat[0];
+            Instant next = now();
+            Long checkpointId = afterId;
+            Integer saved = transactionTemplate.execute(status ->
+                mailCampaignRepository.checkpoint(id, previous, next, checkpointId, results[0], results[1])
+            );
+            if (saved == null || saved == 0) {
+                LOG.info("Mail campaign {} stopped after user {}: cancelled or taken over", id, afterId);
+                return;
+            }
+            heartbeat[0] = next;
+        }
+    }
+
+    /**
+     * @return the number of emails sent and failed; the batches after a failed renewal of the lease are not sent, and
+     * the checkpoint of the chunk then fails as well.
+     */
+    private int[] sendChunk(
+        MailCampaign campaign,
+        List<CampaignRecipientDTO> chunk,
+        Map<Locale, RenderedEmailDTO> rendered,
+        Instant[] heartbeat
+    ) {
+        List<Future<int[]>> batches = new ArrayList<>();
+        for (int from = 0; from < chunk.size(); from += properties.getBatchSize()) {
+            if (!renewLease(campaign.getId(), heartbeat)) {
+                LOG.info("Mail campaign {} lost its lease: cancelled or taken over", campaign.getId());
+                break;
+            }
+            List<CampaignRecipientDTO> recipients = chunk.subList(from, Math.min(chunk.size(), from + properties.getBatchSize()));
+            List<RenderedEmailDTO> emails = recipients
+                .stream()
+                .map(recipient ->
+                    rendered.computeIfAbsent(localeOf(recipient), locale ->
+                        mailService.renderTemplate(TEMPLATE_PREFIX + campaign.getTemplateName(), campaign.getTitleKey(), locale)
+                    )
+                )
+                .toList();
+            throttle(recipients.size());
+            batches.add(workers.submit(() -> sendBatch(recipients, emails)));
+        }
+        int[] results = new int[2];
+        for (Future<int[]> batch : batches) {
+            try {
+                int[] batchResults = batch.get();
+                results[0] += batchResults[0];
+                results[1] += batchResults[1];
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending a mail campaign", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private int[] sendBatch(List<CampaignRecipientDTO> recipients, List<RenderedEmailDTO> emails) {
+        Timer.Sample sample = mailCampaignMetersService.startTimer();
+        List<MimeMessage> messages = new ArrayList<>(recipients.size());
+        int failed = 0;
+        for (int i = 0; i < recipients.size(); i++) {
+            RenderedEmailDTO email = emails.get(i);
+            try {
+                messages.add(mailService.createEmail(recipients.get(i).email(), email.subject(), email.content(), false, true));
+            } catch (MessagingException e) {
+                LOG.warn("Campaign email to user {} could not be built: {}", recipients.get(i).id(), e.getMessage());
+                failed++;
+            }
+        }
+        try {
+            javaMailSender.send(messages.toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            failed += e.getFailedMessages().isEmpty() ? messages.size() : e.getFailedMessages().size();
+            LOG.warn("Campaign emails could not be sent: {}", e.getMessage());
+        } catch (MailException e) {
+            failed += messages.size();
+            LOG.warn("Campaign emails could not be sent: {}", e.getMessage());
+        }
+        mailCampaignMetersService.trackBatch(sample);
+        int sent = recipients.size() - failed;
+        mailCampaignMetersService.trackMessages(Result.SENT, sent);
+        mailCampaignMetersService.trackMessages(Result.FAILED, failed);
+        return new int[] { sent, failed };
+    }
+
+    /**
+     * Renew the lease once a quarter of it has gone since the heartbeat.
+     *
+     * @return whether the campaign is still held by this instance.
+     */
+    private boolean renewLease(Long id, Instant[] heartbeat) {
+        Instant next = now();
+        if (Duration.between(heartbeat[0], next).multipliedBy(4).compareTo(properties.getLease()) < 0) {
+            return true;
+        }
+        Instant previous = heartbeat[0];
+        Integer renewed = transactionTemplate.execute(status -> mailCampaignRepository.renew(id, previous, next));
+        if (renewed == null || renewed == 0) {
+            return false;
+        }
+        heartbeat[0] = next;
+        return true;
+    }
+
+    /**
+     * Wait until the given number of emails may be sent without going over the rate.
+     */
+    private void throttle(int emails) {
+        long waitNanos;
+        synchronized (throttleMonitor) {
+            long now = System.nanoTime();
+            long start = Math.max(nextSendNanos, now);
+            nextSendNanos = start + (long) (emails * TimeUnit.SECONDS.toNanos(1) / properties.getRate());
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            mailCampaignMetersService.trackThrottle(waitNanos);
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending a mail campaign", e);
+            }
+        }
+    }
+
+    private static Locale localeOf(CampaignRecipientDTO recipient) {
+        return Locale.forLanguageTag(recipient.langKey() == null ? Constants.DEFAULT_LANGUAGE : recipient.langKey());
+    }
+
+    /**
+     * The heartbeat is matched on equality in the database, so it is truncated to a precision every database keeps.
+     */
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,239 @@
+package myapp.service;
+
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import myapp.config.ApplicationProperties;
+import myapp.domain.OutboxMessage;
+import myapp.domain.User;
+import myapp.management.MailOutboxMetersService;
+import myapp.management.MailOutboxMetersService.Result;
+import myapp.repository.OutboxMessageRepository;
+import myapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sends the emails of the {@link OutboxMessage outbox}, in batches.
+ * <p>
+ * Each run takes the messages due in batches: a batch is locked, skipping the messages another instance has locked,
+ * and leased by pushing its next attempt back, then rendered and sent over a single SMTP connection, outside of any
+ * transaction. Sent messages are deleted; failed ones are attempted again after an exponential backoff, until they
+ * run out of attempts and are left in the outbox. A message is rendered from the recipient copied into it when it was
+ * queued, and discarded when its user no longer exists. A batch left behind by a crashed instance is sent again once
+ * its lease expires, so an email may be sent twice.
+ * <p>
+ * The depth of the outbox is counted at most every {@link #DEPTH_REFRESH_INTERVAL}, not on every run.
+ */
+@Service
+public class MailOutboxDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private static final long DISPATCH_INTERVAL_SECONDS = 2;
+
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private static final Duration DEPTH_REFRESH_INTERVAL = Duration.ofSeconds(30);
+
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    private final UserRepository userRepository;
+
+    private final MailService mailService;
+
+    private final JavaMailSender javaMailSender;
+
+    private final MailOutboxMetersService mailOutboxMetersService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.MailOutbox properties;
+
+    private Instant nextDepthRefresh = Instant.MIN;
+
+    public MailOutboxDispatcher(
+        OutboxMessageRepository outboxMessageRepository,
+        UserRepository userRepository,
+        MailService mailService,
+        JavaMailSender javaMailSender,
+        MailOutboxMetersService mailOutboxMetersService,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.userRepository = userRepository;
+        this.mailService = mailService;
+        this.javaMailSender = javaMailSender;
+        this.mailOutboxMetersService = mailOutboxMetersService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getMailOutbox();
+    }
+
+    /**
+     * Send the messages due, a bounded number of batches per run.
+     *
+     * @return the number of messages taken from the outbox.
+     */
+    @Scheduled(initialDelay = DISPATCH_INTERVAL_SECONDS, fixedDelay = DISPATCH_INTERVAL_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public int dispatch() {
+        int dispatched = 0;
+        for (int batches = 0; batches < MAX_BATCHES_PER_RUN; batches++) {
+            int size = dispatchBatch();
+            dispatched += size;
+            if (size < properties.getBatchSize()) {
+                break;
+            }
+        }
+        refreshDepth();
+        return dispatched;
+    }
+
+    private void refreshDepth() {
+        Instant now = Instant.now();
+        if (now.isBefore(nextDepthRefresh)) {
+            return;
+        }
+        nextDepthRefresh = now.plus(DEPTH_REFRESH_INTERVAL);
+        int maxAttempts = properties.getMaxAttempts();
+        transactionTemplate.executeWithoutResult(status ->
+            mailOutboxMetersService.trackDepth(
+                outboxMessageRepository.countByAttemptsLessThan(maxAttempts),
+                outboxMessageRepository.countByAttemptsGreaterThanEqual(maxAttempts)
+            )
+        );
+    }
+
+    private int dispatchBatch() {
+        Instant leasedUntil = Instant.now().plus(properties.getLease());
+        List<OutboxMessage> batch = Objects.requireNonNull(
+            transactionTemplate.execute(status -> {
+                List<OutboxMessage> due = outboxMessageRepository.findDueForUpdate(
+                    Instant.now(),
+                    properties.getMaxAttempts(),
+                    Limit.of(properties.getBatchSize())
+                );
+                due.forEach(message -> message.setNextAttemptAt(leasedUntil));
+                return due;
+            })
+        );
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Set<Long> userIds = batch.stream().map(OutboxMessage::getUserId).collect(Collectors.toSet());
+        Map<Long, User> users = Objects.requireNonNull(
+            transactionTemplate.execute(status ->
+                userRepository.findAllById(userIds).stream().collect(Collectors.toMap(User::getId, Function.identity()))
+            )
+        );
+
+        List<OutboxMessage> discarded = new ArrayList<>();
+        Map<OutboxMessage, String> failed = new HashMap<>();
+        Map<MimeMessage, OutboxMessage> emails = new IdentityHashMap<>();
+        for (OutboxMessage message : batch) {
+            User user = users.get(message.getUserId());
+            // messages queued before the recipient was copied into them are rendered from the user as it is now
+            User recipient = message.getEmail() != null ? recipientOf(message) : user;
+            if (user == null || recipient.getEmail() == null) {
+                discarded.add(message);
+                continue;
+            }
+            try {
+                emails.put(mailService.createEmailFromTemplate(recipient, message.getTemplateName(), message.getTitleKey()), message);
+            } catch (MessagingException | RuntimeException e) {
+                failed.put(message, e.toString());
+            }
+        }
+
+        List<OutboxMessage> sent = new ArrayList<>(emails.values());
+        if (!emails.isEmpty()) {
+            Timer.Sample sample = mailOutboxMetersService.startTimer();
+            try {
+                javaMailSender.send(emails.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                e
+                    .getFailedMessages()
+                    .forEach((email, exception) -> {
+                        OutboxMessage message = emails.get(email);
+                        if (message != null) {
+                            failed.put(message, exception.toString());
+                        }
+                    });
+                if (e.getFailedMessages().isEmpty()) {
+                    emails.values().forEach(message -> failed.put(message, e.toString()));
+                }
+            } catch (MailException e) {
+                emails.values().forEach(message -> failed.put(message, e.toString()));
+            }
+            mailOutboxMetersService.trackBatch(sample);
+            sent.removeAll(failed.keySet());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxMessageRepository.deleteAllByIdInBatch(sent.stream().map(OutboxMessage::getId).toList());
+            outboxMessageRepository.deleteAllByIdInBatch(discarded.stream().map(OutboxMessage::getId).toList());
+            failed.forEach(this::retryLater);
+            outboxMessageRepository.saveAll(failed.keySet());
+        });
+
+        long givenUp = failed.keySet().stream().filter(message -> message.getAttempts() >= properties.getMaxAttempts()).count();
+        mailOutboxMetersService.trackMessages(Result.SENT, sent.size());
+        mailOutboxMetersService.trackMessages(Result.DISCARDED, discarded.size());
+        mailOutboxMetersService.trackMessages(Result.RETRIED, Math.toIntExact(failed.size() - givenUp));
+        mailOutboxMetersService.trackMessages(Result.FAILED, Math.toIntExact(givenUp));
+        LOG.debug("Outbox batch: {} sent, {} failed, {} discarded", sent.size(), failed.size(), discarded.size());
+        return batch.size();
+    }
+
+    /**
+     * @return the user as it was when the message was queued.
+     */
+    private static User recipientOf(OutboxMessage message) {
+        User recipient = new User();
+        recipient.setId(message.getUserId());
+        recipient.setLogin(message.getLogin());
+        recipient.setEmail(message.getEmail());
+        recipient.setLangKey(message.getLangKey());
+        recipient.setActivationKey(message.getActivationKey());
+        recipient.setResetKey(message.getResetKey());
+        return recipient;
+    }
+
+    private void retryLater(OutboxMessage message, String error) {
+        int attempts = message.getAttempts() + 1;
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (backoff.compareTo(properties.getMaxBackoff()) > 0) {
+            backoff = properties.getMaxBackoff();
+        }
+        message.setAttempts(attempts);
+        message.setNextAttemptAt(Instant.now().plus(backoff));
+        message.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (attempts >= properties.getMaxAttempts()) {
+            LOG.error("Email {} given up after {} attempts: {}", message, attempts, error);
+        } else {
+            LOG.warn("Email {} failed, attempt {} of {}: {}", message, attempts, properties.getMaxAttempts(), error);
+        }
+    }
+}
@@ -3,8 +3,12 @@ package myapp.service;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Locale;
+import myapp.domain.OutboxMessage;
 import myapp.domain.User;
+import myapp.repository.OutboxMessageRepository;
+import myapp.service.dto.RenderedEmailDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
@@ -18,9 +22,11 @@ import org.thymeleaf.spring6.SpringTemplateEngine;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
- * Service for sending emails asynchronously.
+ * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * The emails about the account of a user are written to the {@link OutboxMessage outbox} in the transaction that
+ * triggers them, and sent by the {@link MailOutboxDispatcher} once it commits. Other emails are sent asynchronously,
+ * using the {@link Async} annotation.
  */
 @Service
 public class MailService {
@@ -39,16 +45,20 @@ public class MailService {
 
     private final SpringTemplateEngine templateEngine;
 
+    private final OutboxMessageRepository outboxMessageRepository;
+
     public MailService(
         JHipsterProperties jHipsterProperties,
         JavaMailSender javaMailSender,
         MessageSource messageSource,
-        SpringTemplateEngine templateEngine
+        SpringTemplateEngine templateEngine,
+        OutboxMessageRepository outboxMessageRepository
     ) {
         this.jHipsterProperties = jHipsterProperties;
         this.javaMailSender = javaMailSender;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
+        this.outboxMessageRepository = outboxMessageRepository;
     }
 
     @Async
@@ -66,21 +76,37 @@ public class MailService {
             content
         );
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
         try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
+            javaMailSender.send(createEmail(to, subject, content, isMultipart, isHtml));
             LOG.debug("Sent email to User '{}'", to);
         } catch (MailException | MessagingException e) {
             LOG.warn("Email could not be sent to user '{}'", to, e);
         }
     }
 
+    /**
+     * Build an email.
+     *
+     * @param to the recipient address.
+     * @param subject the subject.
+     * @param content the content.
+     * @param isMultipart whether the email is multipart.
+     * @param isHtml whether the content is HTML.
+     * @return the email, ready to send.
+     * @throws MessagingException if the email could not be built.
+     */
+    public MimeMessage createEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml)
+        throws MessagingException {
+        // Prepare message using a Spring helper
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
+        message.setTo(to);
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(subject);
+        message.setText(content, isHtml);
+        return mimeMessage;
+    }
+
     @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
         this.sendEmailFromTemplateSync(user, templateName, titleKey);
@@ -91,30 +117,96 @@ public class MailService {
             LOG.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
+        try {
+            javaMailSender.send(createEmailFromTemplate(user, templateName, titleKey));
+            LOG.debug("Sent email to User '{}'", user.getEmail());
+        } catch (MailException | MessagingException e) {
+            LOG.warn("Email could not be sent to user '{}'", user.getEmail(), e);
+        }
+    }
+
+    /**
+     * Render a template for a user, in the language of the user.
+     *
+     * @param user the user, who must have an email.
+     * @param templateName the name of the Thymeleaf template.
+     * @param titleKey the message key of the subject.
+     * @return the email, ready to send.
+     * @throws MessagingException if the email could not be built.
+     */
+    public MimeMessage createEmailFromTemplate(User user, String templateName, String titleKey) throws MessagingException {
         Locale locale = Locale.forLanguageTag(user.getLangKey());
         Context context = new Context(locale);
         context.setVariable(USER, user);
         context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
         String content = templateEngine.process(templateName, context);
         String subject = messageSource.getMessage(titleKey, null, locale);
-        this.sendEmailSync(user.getEmail(), subject, content, false, true);
+        return createEmail(user.getEmail(), subject, content, false, true);
     }
 
-    @Async
+    /**
+     * Render a template that does not depend on the recipient, such as the one of a mail campaign.
+     *
+     * @param templateName the name of the Thymeleaf template; it only gets the base URL.
+     * @param titleKey the message key of the subject.
+     * @param locale the language to render in.
+     * @return the subject and content.
+     */
+    public RenderedEmailDTO renderTemplate(String templateName, String titleKey, Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        return new RenderedEmailDTO(messageSource.getMessage(titleKey, null, locale), templateEngine.process(templateName, context));
+    }
+
+    /**
+     * Queue the activation email of a user, to be sent once the current transaction commits.
+     *
+     * @param user the user, already saved.
+     */
     public void sendActivationEmail(User user) {
-        LOG.debug("Sending activation email to '{}'", user.getEmail());
-        this.sendEmailFromTemplateSync(user, "mail/activationEmail", "email.activation.title");
+        LOG.debug("Queueing activation email to '{}'", user.getEmail());
+        queueEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
     }
 
-    @Async
+    /**
+     * Queue the creation email of a user, to be sent once the current transaction commits.
+     *
+     * @param user the user, already saved.
+     */
     public void sendCreationEmail(User user) {
-        LOG.debug("Sending creation email to '{}'", user.getEmail());
-        this.sendEmailFromTemplateSync(user, "mail/creationEmail", "email.activation.title");
+        LOG.debug("Queueing creation email to '{}'", user.getEmail());
+        queueEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
     }
 
-    @Async
+    /**
+     * Queue the password reset email of a user, to be sent once the current transaction commits.
+     *
+     * @param user the user, already saved.
+     */
     public void sendPasswordResetMail(User user) {
-        LOG.debug("Sending password reset email to '{}'", user.getEmail());
-        this.sendEmailFromTemplateSync(user, "mail/passwordResetEmail", "email.reset.title");
+        LOG.debug("Queueing password reset email to '{}'", user.getEmail());
+        queueEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
+    }
+
+    private void queueEmailFromTemplate(User user, String templateName, String titleKey) {
+        if (user.getEmail() == null) {
+            LOG.debug("Email doesn't exist for user '{}'", user.getLogin());
+            return;
+        }
+        Instant now = Instant.now();
+        outboxMessageRepository.save(
+            new OutboxMessage()
+                .userId(user.getId())
+                .login(user.getLogin())
+                .email(user.getEmail())
+                .langKey(user.getLangKey())
+                .activationKey(user.getActivationKey())
+                .resetKey(user.getResetKey())
+                .templateName(templateName)
+                .titleKey(titleKey)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdDate(now)
+        );
     }
 }
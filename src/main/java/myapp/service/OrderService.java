@@ -1,12 +1,33 @@
 package myapp.service;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import myapp.domain.Order;
+import myapp.domain.OrderLine;
+import myapp.domain.Product;
+import myapp.domain.enumeration.OrderStatus;
+import myapp.repository.OrderLineRepository;
 import myapp.repository.OrderRepository;
+import myapp.repository.ProductRepository;
+import myapp.service.SalesRollupService.Sale;
+import myapp.service.dto.CustomerOrderDTO;
+import myapp.service.dto.OrderSummaryDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,46 +40,149 @@ public class OrderService {
 
     private static final Logger LOG = LoggerFactory.getLogger(OrderService.class);
 
+    /**
+     * The order of a customer order history; the id is the tie-breaker.
+     */
+    public static final Sort CUSTOMER_ORDER_SORT = Sort.by(Sort.Direction.DESC, "orderDate");
+
     private final OrderRepository orderRepository;
 
-    public OrderService(OrderRepository orderRepository) {
+    private final OrderLineRepository orderLineRepository;
+
+    private final ProductRepository productRepository;
+
+    private final OrderStatusCountService orderStatusCountService;
+
+    private final SalesRollupService salesRollupService;
+
+    public OrderService(
+        OrderRepository orderRepository,
+        OrderLineRepository orderLineRepository,
+        ProductRepository productRepository,
+        OrderStatusCountService orderStatusCountService,
+        SalesRollupService salesRollupService
+    ) {
         this.orderRepository = orderRepository;
+        this.orderLineRepository = orderLineRepository;
+        this.productRepository = productRepository;
+        this.orderStatusCountService = orderStatusCountService;
+        this.salesRollupService = salesRollupService;
     }
 
     /**
      * Save a order.
+     * <p>
+     * When the order has lines, their products are read in one query, each line gets the current price of its product
+     * as unit price, and the total amount of the order becomes the sum of its lines. The lines are then inserted in
+     * JDBC batches; no product row is written.
      *
      * @param order the entity to save.
      * @return the persisted entity.
+     * @throws InvalidOrderLineException if a line has no product or a quantity below one.
+     * @throws ProductNotFoundException if the product of a line does not exist.
+     * @throws InvalidOrderStatusTransitionException if the order is not {@link OrderStatus#PENDING}.
      */
     public Order save(Order order) {
         LOG.debug("Request to save Order : {}", order);
-        return orderRepository.save(order);
+        if (order.getStatus() != OrderStatus.PENDING) {
+            throw new InvalidOrderStatusTransitionException(order.getStatus());
+        }
+        Set<OrderLine> lines = order.getLines() != null ? order.getLines() : Set.of();
+        if (!lines.isEmpty()) {
+            checkLines(lines);
+            priceLines(order, lines);
+        }
+        Order result = orderRepository.save(order);
+        orderLineRepository.saveAll(lines);
+        orderStatusCountService.moveAfterCommit(null, result.getStatus());
+        salesRollupService.moveAfterCommit(null, Sale.of(result));
+        return result;
+    }
+
+    private static void checkLines(Set<OrderLine> lines) {
+        for (OrderLine line : lines) {
+            if (line.getProduct() == null || line.getProduct().getId() == null) {
+                throw new InvalidOrderLineException("An order line must refer to a product");
+            }
+            if (line.getQuantity() == null || line.getQuantity() < 1) {
+                throw new InvalidOrderLineException("The quantity of an order line must be at least 1, not " + line.getQuantity());
+            }
+        }
+    }
+
+    private void priceLines(Order order, Set<OrderLine> lines) {
+        List<Long> productIds = lines.stream().map(line -> line.getProduct().getId()).distinct().toList();
+        Map<Long, Product> products = productRepository
+            .findAllById(productIds)
+            .stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderLine line : lines) {
+            Product product = products.get(line.getProduct().getId());
+            if (product == null) {
+                throw new ProductNotFoundException("Product " + line.getProduct().getId() + " does not exist");
+            }
+            line.product(product).unitPrice(product.getPrice()).setOrder(order);
+            totalAmount = totalAmount.add(product.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
+        }
+        order.setTotalAmount(totalAmount);
     }
 
     /**
      * Update a order.
+     * <p>
+     * The order is copied onto the current row, so only the changed columns are written, in an
+     * {@code UPDATE ... WHERE id = ? AND version = ?}. The lines of an order are written with it and never replaced, so
+     * the total amount of an order with lines stays the sum of its lines whatever the request holds.
      *
      * @param order the entity to save.
-     * @return the persisted entity.
+     * @param expectedVersion the version the order must be at, {@code null} to update whatever its version.
+     * @return the persisted entity, or empty if there is no order with this id.
+     * @throws EntityVersionMismatchException if the order is not at {@code expectedVersion}.
+     * @throws InvalidOrderStatusTransitionException if the order cannot move to the new status from its current one.
      */
-    public Order update(Order order) {
+    public Optional<Order> update(Order order, Long expectedVersion) {
         LOG.debug("Request to update Order : {}", order);
-        return orderRepository.save(order);
+        return orderRepository
+            .findById(order.getId())
+            .map(existingOrder -> {
+                checkVersion(existingOrder, expectedVersion);
+                Sale sale = Sale.of(existingOrder);
+                changeStatus(existingOrder, order.getStatus());
+                existingOrder.setOrderDate(order.getOrderDate());
+                existingOrder.setShippedDate(order.getShippedDate());
+                if (!orderLineRepository.existsByOrderId(existingOrder.getId())) {
+                    existingOrder.setTotalAmount(order.getTotalAmount());
+                }
+                existingOrder.setShippingCost(order.getShippingCost());
+                existingOrder.setTrackingNumber(order.getTrackingNumber());
+                existingOrder.setShippingAddress(order.getShippingAddress());
+                existingOrder.setCustomer(order.getCustomer());
+                Order result = orderRepository.save(existingOrder);
+                salesRollupService.moveAfterCommit(sale, Sale.of(result));
+                return result;
+            });
     }
 
     /**
      * Partially update a order.
+     * <p>
+     * The total amount of an order with lines stays the sum of its lines.
      *
      * @param order the entity to update partially.
+     * @param expectedVersion the version the order must be at, {@code null} to update whatever its version.
      * @return the persisted entity.
+     * @throws EntityVersionMismatchException if the order is not at {@code expectedVersion}.
+     * @throws InvalidOrderStatusTransitionException if the order cannot move to the new status from its current one.
      */
-    public Optional<Order> partialUpdate(Order order) {
+    public Optional<Order> partialUpdate(Order order, Long expectedVersion) {
         LOG.debug("Request to partially update Order : {}", order);
 
         return orderRepository
             .findById(order.getId())
             .map(existingOrder -> {
+                checkVersion(existingOrder, expectedVersion);
+                Sale sale = Sale.of(existingOrder);
                 if (order.getOrderDate() != null) {
                     existingOrder.setOrderDate(order.getOrderDate());
                 }
@@ -66,9 +190,9 @@ public class OrderService {
                     existingOrder.setShippedDate(order.getShippedDate());
                 }
                 if (order.getStatus() != null) {
-                    existingOrder.setStatus(order.getStatus());
+                    changeStatus(existingOrder, order.getStatus());
                 }
-                if (order.getTotalAmount() != null) {
+                if (order.getTotalAmount() != null && !orderLineRepository.existsByOrderId(existingOrder.getId())) {
                     existingOrder.setTotalAmount(order.getTotalAmount());
                 }
                 if (order.getShippingCost() != null) {
@@ -77,12 +201,28 @@ public class OrderService {
                 if (order.getTrackingNumber() != null) {
                     existingOrder.setTrackingNumber(order.getTrackingNumber());
                 }
+                salesRollupService.moveAfterCommit(sale, Sale.of(existingOrder));
 
                 return existingOrder;
             })
             .map(orderRepository::save);
     }
 
+    private void changeStatus(Order existingOrder, OrderStatus status) {
+        OrderStatus current = existingOrder.getStatus();
+        if (current != null && !current.canTransitionTo(status)) {
+            throw new InvalidOrderStatusTransitionException(existingOrder.getId(), current, status);
+        }
+        existingOrder.setStatus(status);
+        orderStatusCountService.moveAfterCommit(current, status);
+    }
+
+    private static void checkVersion(Order existingOrder, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(existingOrder.getVersion())) {
+            throw new EntityVersionMismatchException(Order.class.getSimpleName(), existingOrder.getId(), expectedVersion);
+        }
+    }
+
     /**
      * Get all the orders.
      *
@@ -96,7 +236,99 @@ public class OrderService {
     }
 
     /**
-     * Get one order by id.
+     * Get a page of orders.
+     *
+     * @param status the status of the orders, {@code null} for all orders.
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Order> findAll(OrderStatus status, Pageable pageable) {
+        LOG.debug("Request to get a page of Orders, in status : {}", status);
+        return status == null ? orderRepository.findAll(pageable) : orderRepository.findAllByStatus(status, pageable);
+    }
+
+    /**
+     * Get a window of orders after the given keyset position, without counting the total.
+     *
+     * @param status the status of the orders, {@code null} for all orders.
+     * @param position the keyset position to seek from.
+     * @param sort the sort order; Spring Data appends the id as tie-breaker.
+     * @param size the maximum number of orders in the window.
+     * @return the window of orders.
+     */
+    @Transactional(readOnly = true)
+    public Window<Order> findAll(OrderStatus status, KeysetScrollPosition position, Sort sort, int size) {
+        LOG.debug("Request to get a window of Orders, in status : {}", status);
+        return status == null
+            ? orderRepository.findAllBy(position, sort, Limit.of(size))
+            : orderRepository.findAllByStatus(status, position, sort, Limit.of(size));
+    }
+
+    /**
+     * Get the summaries of a page of orders.
+     *
+     * @param status the status of the orders, {@code null} for all orders.
+     * @param pageable the pagination information.
+     * @return the list of summaries.
+     */
+    @Transactional(readOnly = true)
+    public Page<OrderSummaryDTO> findAllSummaries(OrderStatus status, Pageable pageable) {
+        LOG.debug("Request to get the summaries of a page of Orders, in status : {}", status);
+        return orderRepository.findAllSummaries(status, pageable);
+    }
+
+    /**
+     * Get the summaries of a window of orders after the given keyset position, without counting the total.
+     *
+     * @param status the status of the orders, {@code null} for all orders.
+     * @param position the keyset position to seek from.
+     * @param sort the sort order; the id is appended as tie-breaker.
+     * @param size the maximum number of orders in the window.
+     * @return the window of summaries.
+     */
+    @Transactional(readOnly = true)
+    public Window<OrderSummaryDTO> findAllSummaries(OrderStatus status, KeysetScrollPosition position, Sort sort, int size) {
+        LOG.debug("Request to get the summaries of a window of Orders, in status : {}", status);
+        return orderRepository.findAllSummaries(status, position, sort, size);
+    }
+
+    /**
+     * Get a window of the order history of a customer, newest first, after the given keyset position.
+     *
+     * @param customerId the id of the customer.
+     * @param position the keyset position to seek from, on {@code orderDate} then {@code id}.
+     * @param size the maximum number of orders in the window.
+     * @return the window of orders, each with its shipping address and line summary.
+     */
+    @Transactional(readOnly = true)
+    public Window<CustomerOrderDTO> findCustomerOrders(Long customerId, KeysetScrollPosition position, int size) {
+        LOG.debug("Request to get a window of the Orders of Customer : {}", customerId);
+        // one more row than requested tells whether there is a next window
+        Limit limit = Limit.of(size + 1);
+        List<CustomerOrderDTO> rows = position.isInitial()
+            ? orderRepository.findCustomerOrders(customerId, limit)
+            : orderRepository.findCustomerOrdersBefore(
+                customerId,
+                (Instant) position.getKeys().get("orderDate"),
+                (Long) position.getKeys().get("id"),
+                limit
+            );
+        List<CustomerOrderDTO> content = rows.subList(0, Math.min(size, rows.size()));
+        return Window.from(
+            content,
+            index -> {
+                Map<String, Object> keys = new LinkedHashMap<>();
+                keys.put("orderDate", content.get(index).orderDate());
+                keys.put("id", content.get(index).id());
+                return ScrollPosition.forward(keys);
+            },
+            rows.size() > size
+        );
+    }
+
+    /**
+     * Get one order by id, with its lines.
      *
      * @param id the id of the entity.
      * @return the entity.
@@ -104,7 +336,7 @@ public class OrderService {
     @Transactional(readOnly = true)
     public Optional<Order> findOne(Long id) {
         LOG.debug("Request to get Order : {}", id);
-        return orderRepository.findById(id);
+        return orderRepository.findOneWithEagerRelationships(id);
     }
 
     /**
@@ -114,6 +346,12 @@ public class OrderService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Order : {}", id);
+        Optional<Order> order = orderRepository.findById(id);
+        orderLineRepository.deleteByOrderId(id);
         orderRepository.deleteById(id);
+        order.ifPresent(current -> {
+            orderStatusCountService.moveAfterCommit(current.getStatus(), null);
+            salesRollupService.moveAfterCommit(Sale.of(current), null);
+        });
     }
 }
@@ -0,0 +1,114 @@
+package myapp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import myapp.domain.enumeration.OrderStatus;
+import myapp.repository.OrderRepository;
+import myapp.service.dto.OrderStatusCountDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The number of {@link myapp.domain.Order}s in each {@link OrderStatus}, kept in memory and published as gauges.
+ * <p>
+ * The counts are read with one {@code group by} when the application is ready, then moved by every change made
+ * through {@link OrderService} and {@link CheckoutService} once its transaction commits. Each instance only sees its
+ * own changes, so the counts are read again every {@value #RESYNC_INTERVAL_MINUTES} minutes.
+ */
+@Service
+public class OrderStatusCountService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderStatusCountService.class);
+
+    public static final String ORDERS_METER_NAME = "orders.status";
+    public static final String ORDERS_METER_DESCRIPTION = "Number of orders in each status.";
+    public static final String ORDERS_METER_STATUS_DIMENSION = "status";
+
+    static final long RESYNC_INTERVAL_MINUTES = 10;
+
+    private final OrderRepository orderRepository;
+
+    private final Map<OrderStatus, AtomicLong> counts = new EnumMap<>(OrderStatus.class);
+
+    public OrderStatusCountService(OrderRepository orderRepository, MeterRegistry registry) {
+        this.orderRepository = orderRepository;
+        for (OrderStatus status : OrderStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            counts.put(status, count);
+            Gauge.builder(ORDERS_METER_NAME, count, AtomicLong::get)
+                .description(ORDERS_METER_DESCRIPTION)
+                .tag(ORDERS_METER_STATUS_DIMENSION, status.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+        }
+    }
+
+    /**
+     * Get the number of orders in each status.
+     *
+     * @return the counts, in status order.
+     */
+    public Map<OrderStatus, Long> getCounts() {
+        Map<OrderStatus, Long> snapshot = new EnumMap<>(OrderStatus.class);
+        counts.forEach((status, count) -> snapshot.put(status, count.get()));
+        return snapshot;
+    }
+
+    /**
+     * Move an order from one status to another once the current transaction commits.
+     *
+     * @param from the status the order was in, {@code null} for a new order.
+     * @param to the status the order is now in, {@code null} for a deleted order.
+     */
+    public void moveAfterCommit(OrderStatus from, OrderStatus to) {
+        if (from == to) {
+            return;
+        }
+        Runnable move = () -> {
+            if (from != null) {
+                counts.get(from).decrementAndGet();
+            }
+            if (to != null) {
+                counts.get(to).incrementAndGet();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        move.run();
+                    }
+                }
+            );
+        } else {
+            move.run();
+        }
+    }
+
+    /**
+     * Read the counts from the database, once the application is ready and then periodically.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = RESYNC_INTERVAL_MINUTES, fixedDelay = RESYNC_INTERVAL_MINUTES, timeUnit = TimeUnit.MINUTES)
+    @Transactional(readOnly = true)
+    public void resync() {
+        Map<OrderStatus, Long> current = new EnumMap<>(OrderStatus.class);
+        for (OrderStatusCountDTO statusCount : orderRepository.countByStatus()) {
+            current.put(statusCount.status(), statusCount.count());
+        }
+        counts.forEach((status, count) -> count.set(current.getOrDefault(status, 0L)));
+        LOG.debug("Order status counts read : {}", current);
+    }
+}
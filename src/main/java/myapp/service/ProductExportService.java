@@ -0,0 +1,151 @@
+package myapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.opencsv.CSVWriter;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+import myapp.domain.Product;
+import myapp.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for exporting the {@link Product} catalog as NDJSON or CSV.
+ * <p>
+ * Rows are read from a forward-only cursor with a bounded fetch size, written to the output as they come and
+ * detached right after, so heap usage does not depend on the size of the catalog. The export runs in a single
+ * read-only transaction, which gives a consistent snapshot on Postgres.
+ */
+@Service
+public class ProductExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductExportService.class);
+
+    /**
+     * The CSV columns, named after the JSON properties so that an export can be imported back.
+     */
+    static final String[] CSV_HEADER = {
+        "id",
+        "title",
+        "keywords",
+        "description",
+        "rating",
+        "price",
+        "quantityInStock",
+        "status",
+        "weight",
+        "dimensions",
+        "dateAdded",
+        "dateModified",
+    };
+
+    private static final int CSV_ERROR_CHECK_INTERVAL = 1000;
+
+    private final ProductRepository productRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    public ProductExportService(ProductRepository productRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Export products, ordered by id.
+     *
+     * @param output the stream to write to; it is flushed but not closed.
+     * @param format the output format.
+     * @param updatedSince when set, only the products modified (or, if never modified, added) since this instant.
+     * @return the number of exported products.
+     * @throws IOException if the output cannot be written.
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream output, ProductFileFormat format, Instant updatedSince) throws IOException {
+        LOG.debug("Request to export Products as {} updated since {}", format, updatedSince);
+        long count;
+        try (Stream<Product> products = updatedSince == null ? productRepository.streamAll() : productRepository.streamAllUpdatedSince(updatedSince)) {
+            count = format == ProductFileFormat.CSV ? writeCsv(products.iterator(), output) : writeNdjson(products.iterator(), output);
+        }
+        LOG.debug("Exported {} Products", count);
+        return count;
+    }
+
+    private long writeNdjson(Iterator<Product> products, OutputStream output) throws IOException {
+        long count = 0;
+        try (
+            SequenceWriter writer = objectMapper
+                .writerFor(Product.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(output)
+        ) {
+            while (products.hasNext()) {
+                Product product = products.next();
+                writer.write(product);
+                entityManager.detach(product);
+                count++;
+            }
+        }
+        if (count > 0) {
+            output.write('\n');
+        }
+        output.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<Product> products, OutputStream output) throws IOException {
+        long count = 0;
+        CSVWriter writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+        writer.writeNext(CSV_HEADER, false);
+        while (products.hasNext()) {
+            Product product = products.next();
+            writer.writeNext(
+                new String[] {
+                    toCell(product.getId()),
+                    toCell(product.getTitle()),
+                    toCell(product.getKeywords()),
+                    toCell(product.getDescription()),
+                    toCell(product.getRating()),
+                    product.getPrice() == null ? "" : product.getPrice().toPlainString(),
+                    toCell(product.getQuantityInStock()),
+                    toCell(product.getStatus()),
+                    toCell(product.getWeight()),
+                    toCell(product.getDimensions()),
+                    toCell(product.getDateAdded()),
+                    toCell(product.getDateModified()),
+                },
+                false
+            );
+            entityManager.detach(product);
+            count++;
+            // CSVWriter swallows write errors, stop reading the cursor once the client is gone
+            if (count % CSV_ERROR_CHECK_INTERVAL == 0 && writer.checkError()) {
+                throw new IOException("Product export could not be written");
+            }
+        }
+        writer.flush();
+        if (writer.checkError()) {
+            throw new IOException("Product export could not be written");
+        }
+        return count;
+    }
+
+    private static String toCell(Object value) {
+        return Objects.toString(value, "");
+    }
+}
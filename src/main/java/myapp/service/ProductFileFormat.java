@@ -0,0 +1,59 @@
+package myapp.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Body formats of the bulk {@link myapp.domain.Product} import and export.
+ */
+public enum ProductFileFormat {
+    /**
+     * One JSON object per line.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON),
+
+    /**
+     * RFC 4180 CSV with a header row naming the product properties.
+     */
+    CSV(MediaType.parseMediaType("text/csv"));
+
+    private final MediaType mediaType;
+
+    ProductFileFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @param mediaTypes the media types of a {@code Content-Type} or {@code Accept} header; they are ranked by quality,
+     * then by specificity, and those with a quality of {@code 0} refuse the formats they include.
+     * @return CSV when it is preferred, NDJSON otherwise.
+     */
+    public static ProductFileFormat from(List<MediaType> mediaTypes) {
+        List<MediaType> ranked = new ArrayList<>(mediaTypes);
+        MimeTypeUtils.sortBySpecificity(ranked);
+        // stable, so the media types of the same quality stay ordered by specificity
+        ranked.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : ranked) {
+            if (mediaType.getQualityValue() == 0 || mediaType.isWildcardType()) {
+                continue;
+            }
+            for (ProductFileFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(mediaType) && !format.isRefused(mediaTypes)) {
+                    return format;
+                }
+            }
+        }
+        return NDJSON;
+    }
+
+    private boolean isRefused(List<MediaType> mediaTypes) {
+        return mediaTypes.stream().anyMatch(mediaType -> mediaType.getQualityValue() == 0 && mediaType.includes(this.mediaType));
+    }
+}
@@ -0,0 +1,296 @@
+package myapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import myapp.domain.Product;
+import myapp.service.dto.ProductImportReportDTO;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for bulk importing {@link Product}s from a streamed NDJSON or CSV body.
+ * <p>
+ * Rows are parsed and validated one at a time with the bean constraints and the rules of
+ * {@link ProductService#validateForSave(Product)}; a missing {@code dateAdded} defaults to now. Valid rows are
+ * persisted in chunks of {@value #CHUNK_SIZE}, one transaction per chunk: ids come from the pooled
+ * {@code sequence_generator}, the inserts are sent in JDBC batches of {@code hibernate.jdbc.batch_size}, and the
+ * persistence context is cleared after each chunk so that memory does not grow with the size of the import. The
+ * second-level cache is bypassed, imported rows are not worth caching.
+ * <p>
+ * A chunk rejected by the database is split until the rows at fault are found; only those are rejected, and the
+ * import goes on.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductImportService.class);
+
+    static final int CHUNK_SIZE = 1000;
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ProductService productService;
+
+    private final ProductSearchService productSearchService;
+
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductImportService(
+        ProductService productService,
+        ProductSearchService productSearchService,
+        EntityManager entityManager,
+        Validator validator,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.productService = productService;
+        this.productSearchService = productSearchService;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import products.
+     *
+     * @param input the request body; it is read once, as a stream.
+     * @param format the body format. CSV needs a header row naming the product properties, as in JSON.
+     * @return the import report.
+     * @throws IOException if the body cannot be read.
+     */
+    public ProductImportReportDTO importProducts(InputStream input, ProductFileFormat format) throws IOException {
+        LOG.debug("Request to import Products from {}", format);
+        Report report = new Report();
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        try (RowReader rows = format == ProductFileFormat.CSV ? new CsvRowReader(reader, objectMapper) : new NdjsonRowReader(reader, objectMapper)) {
+            Row row;
+            while ((row = rows.next()) != null) {
+                String error = row.error() != null ? row.error() : validate(row.product());
+                if (error != null) {
+                    report.reject(row.line(), error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    persist(chunk, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persist(chunk, report);
+        }
+        LOG.info("Imported {} Products, {} rows rejected", report.imported, report.failed);
+        return report.toDto();
+    }
+
+    private String validate(Product product) {
+        if (product.getId() != null) {
+            return "A new product cannot already have an ID";
+        }
+        if (product.getDateAdded() == null) {
+            product.setDateAdded(Instant.now());
+        }
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<Product> violation = violations.iterator().next();
+            return violation.getPropertyPath() + ": " + violation.getMessage();
+        }
+        try {
+            productService.validateForSave(product);
+        } catch (InvalidProductException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * Insert the rows in one transaction. When the database refuses them the rows are split in two halves, each
+     * inserted on its own, until the rows at fault are isolated and rejected one by one; the others are kept.
+     */
+    private void persist(List<Row> rows, Report report) {
+        try {
+            insert(rows);
+            report.imported += rows.size();
+        } catch (RuntimeException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (rows.size() == 1) {
+                LOG.warn("Product import row at line {} was rejected by the database: {}", rows.get(0).line(), cause);
+                report.reject(rows.get(0).line(), "Rejected by the database: " + cause);
+                return;
+            }
+            LOG.debug("Product import of {} rows starting at line {} failed, splitting it: {}", rows.size(), rows.get(0).line(), cause);
+            for (Row row : rows) {
+                // the rolled back insert left its id and version on the entity
+                row.product().setId(null);
+                row.product().setVersion(null);
+            }
+            int middle = rows.size() / 2;
+            persist(rows.subList(0, middle), report);
+            persist(rows.subList(middle, rows.size()), report);
+        }
+    }
+
+    private void insert(List<Row> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            List<Product> products = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                entityManager.persist(row.product());
+                products.add(row.product());
+            }
+            entityManager.flush();
+            entityManager.clear();
+            productSearchService.index(products);
+        });
+    }
+
+    private record Row(long line, Product product, String error) {}
+
+    private static final class Report {
+
+        private long imported;
+        private long failed;
+        private final List<ProductImportReportDTO.RowError> errors = new ArrayList<>();
+
+        void reject(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ProductImportReportDTO.RowError(line, message));
+            }
+        }
+
+        ProductImportReportDTO toDto() {
+            return new ProductImportReportDTO(imported, failed, errors);
+        }
+    }
+
+    private interface RowReader extends Closeable {
+        /**
+         * @return the next row, or {@code null} at the end of the body.
+         */
+        Row next() throws IOException;
+    }
+
+    /**
+     * One JSON object per line; blank lines are skipped.
+     */
+    private static final class NdjsonRowReader implements RowReader {
+
+        private final BufferedReader reader;
+        private final ObjectReader productReader;
+        private long line;
+
+        NdjsonRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.productReader = objectMapper.readerFor(Product.class);
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                return new Row(line, productReader.readValue(text), null);
+            } catch (JsonProcessingException e) {
+                return new Row(line, null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header row; empty cells are treated as absent values.
+     */
+    private static final class CsvRowReader implements RowReader {
+
+        private final CSVReader reader;
+        private final ObjectMapper objectMapper;
+        private String[] header;
+
+        CsvRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = new CSVReader(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            try {
+                if (header == null) {
+                    header = reader.readNext();
+                    if (header == null) {
+                        return null;
+                    }
+                }
+                String[] cells = reader.readNext();
+                if (cells == null) {
+                    return null;
+                }
+                long line = reader.getLinesRead();
+                if (cells.length != header.length) {
+                    return new Row(line, null, "Expected " + header.length + " columns but found " + cells.length);
+                }
+                Map<String, String> values = new LinkedHashMap<>();
+                for (int i = 0; i < cells.length; i++) {
+                    if (!cells[i].isEmpty()) {
+                        values.put(header[i].trim(), cells[i]);
+                    }
+                }
+                try {
+                    return new Row(line, objectMapper.convertValue(values, Product.class), null);
+                } catch (IllegalArgumentException e) {
+                    return new Row(line, null, "Invalid value: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            } catch (CsvValidationException e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package myapp.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a product cannot be deleted because order lines refer to it; nothing was deleted.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ProductInUseException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long productId;
+
+    public ProductInUseException(Long productId) {
+        super("Product " + productId + " is referenced by orders");
+        this.productId = productId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+}
@@ -0,0 +1,272 @@
+package myapp.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import myapp.domain.*; // for static metamodels
+import myapp.domain.Product;
+import myapp.domain.enumeration.ProductStatus;
+import myapp.repository.ProductRepository;
+import myapp.service.criteria.ProductCriteria;
+import myapp.service.dto.EntityVersionDTO;
+import myapp.service.dto.ProductFacetsDTO;
+import myapp.service.dto.ProductSummaryDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link Product} entities in the database.
+ * The main input is a {@link ProductCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Page} of {@link Product} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProductQueryService extends QueryService<Product> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductQueryService.class);
+
+    private final ProductRepository productRepository;
+
+    private final EntityManager entityManager;
+
+    public ProductQueryService(ProductRepository productRepository, EntityManager entityManager) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Return a {@link Page} of {@link Product} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Product> findByCriteria(ProductCriteria criteria, Pageable page) {
+        LOG.debug("find by criteria : {}, page: {}", criteria, page);
+        final Specification<Product> specification = createSpecification(criteria);
+        return productRepository.findAll(specification, page);
+    }
+
+    /**
+     * Return a {@link Window} of {@link Product} which matches the criteria, after the given keyset position.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param position the keyset position to seek from.
+     * @param sort the sort order; Spring Data appends the id as tie-breaker.
+     * @param size the maximum number of entities in the window.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<Product> findByCriteria(ProductCriteria criteria, KeysetScrollPosition position, Sort sort, int size) {
+        LOG.debug("find by criteria : {}, position: {}", criteria, position);
+        final Specification<Product> specification = createSpecification(criteria);
+        return productRepository.findBy(specification, query -> query.sortBy(sort).limit(size).scroll(position));
+    }
+
+    /**
+     * Return a {@link Page} of {@link ProductSummaryDTO} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the summaries of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDTO> findSummariesByCriteria(ProductCriteria criteria, Pageable page) {
+        LOG.debug("find summaries by criteria : {}, page: {}", criteria, page);
+        final Specification<Product> specification = createSpecification(criteria);
+        return productRepository.findAllSummaries(specification, page);
+    }
+
+    /**
+     * Return a {@link Window} of {@link ProductSummaryDTO} which matches the criteria, after the given keyset position.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param position the keyset position to seek from.
+     * @param sort the sort order; the id is appended as tie-breaker.
+     * @param size the maximum number of summaries in the window.
+     * @return the summaries of the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<ProductSummaryDTO> findSummariesByCriteria(ProductCriteria criteria, KeysetScrollPosition position, Sort sort, int size) {
+        LOG.debug("find summaries by criteria : {}, position: {}", criteria, position);
+        final Specification<Product> specification = createSpecification(criteria);
+        return productRepository.findAllSummaries(specification, position, sort, size);
+    }
+
+    /**
+     * Return a {@link Window} of {@link ProductSummaryDTO} of the products of a category, and optionally of its
+     * descendants, after the given keyset position.
+     * <p>
+     * Membership is a semi-join on {@code rel_category__product}, driven by the category id or by a prefix match on
+     * the materialised path of the categories, so a product in several categories of the subtree is listed once and
+     * no product outside the window is read.
+     * @param categoryId the id of the category.
+     * @param descendantsPathPrefix the path prefix of the descendants of the category, {@code null} to list its direct
+     * products only.
+     * @param position the keyset position to seek from.
+     * @param sort the sort order; the id is appended as tie-breaker.
+     * @param size the maximum number of summaries in the window.
+     * @return the summaries of the products.
+     */
+    @Transactional(readOnly = true)
+    public Window<ProductSummaryDTO> findSummariesInCategory(
+        Long categoryId,
+        String descendantsPathPrefix,
+        KeysetScrollPosition position,
+        Sort sort,
+        int size
+    ) {
+        LOG.debug("find summaries in category : {}, descendants: {}, position: {}", categoryId, descendantsPathPrefix, position);
+        return productRepository.findAllSummaries(inCategorySpecification(categoryId, descendantsPathPrefix), position, sort, size);
+    }
+
+    /**
+     * Return the versions of the {@link Page} of {@link Product} which matches the criteria, without loading the
+     * entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the versions of the matching entities, in page order.
+     */
+    @Transactional(readOnly = true)
+    public Page<EntityVersionDTO> findVersionsByCriteria(ProductCriteria criteria, Pageable page) {
+        LOG.debug("find versions by criteria : {}, page: {}", criteria, page);
+        final Specification<Product> specification = createSpecification(criteria);
+        return productRepository.findAllVersions(specification, page);
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(ProductCriteria criteria) {
+        LOG.debug("count by criteria : {}", criteria);
+        final Specification<Product> specification = createSpecification(criteria);
+        return productRepository.count(specification);
+    }
+
+    /**
+     * Return the facet counts of the entities which match the criteria.
+     * <p>
+     * The status, rating and price facets are folded from a single query grouped by {@code (status, rating, price
+     * bucket)}; the category facet needs its own grouped query, as joining the categories multiplies the product rows.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param priceBucketSize the width of a price histogram bucket.
+     * @return the facet counts.
+     */
+    @Transactional(readOnly = true)
+    public ProductFacetsDTO facetsByCriteria(ProductCriteria criteria, BigDecimal priceBucketSize) {
+        LOG.debug("facets by criteria : {}, price bucket size: {}", criteria, priceBucketSize);
+        final Specification<Product> specification = createSpecification(criteria);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        Path<ProductStatus> status = root.get(Product_.status);
+        Path<Integer> rating = root.get(Product_.rating);
+        Expression<Number> priceBucket = cb.floor(cb.quot(root.get(Product_.price), cb.literal(priceBucketSize)));
+        query.multiselect(status, rating, priceBucket, cb.countDistinct(root)).groupBy(status, rating, priceBucket);
+        restrict(query, specification.toPredicate(root, query, cb));
+
+        long total = 0;
+        Map<ProductStatus, Long> statusCounts = new TreeMap<>();
+        Map<Integer, Long> ratingCounts = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        Map<BigDecimal, Long> priceCounts = new TreeMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            long count = row.get(3, Long.class);
+            total += count;
+            statusCounts.merge(row.get(0, ProductStatus.class), count, Long::sum);
+            ratingCounts.merge(row.get(1, Integer.class), count, Long::sum);
+            BigDecimal bucket = new BigDecimal(row.get(2, Number.class).toString()).multiply(priceBucketSize);
+            priceCounts.merge(bucket.stripTrailingZeros(), count, Long::sum);
+        }
+
+        CriteriaQuery<Tuple> categoryQuery = cb.createTupleQuery();
+        Root<Product> categoryRoot = categoryQuery.from(Product.class);
+        Path<Long> categoryId = categoryRoot.join(Product_.categories).get(Category_.id);
+        categoryQuery.multiselect(categoryId, cb.countDistinct(categoryRoot)).groupBy(categoryId);
+        restrict(categoryQuery, specification.toPredicate(categoryRoot, categoryQuery, cb));
+        Map<Long, Long> categoryCounts = new TreeMap<>();
+        for (Tuple row : entityManager.createQuery(categoryQuery).getResultList()) {
+            categoryCounts.put(row.get(0, Long.class), row.get(1, Long.class));
+        }
+
+        return new ProductFacetsDTO(total, buckets(statusCounts), buckets(ratingCounts), buckets(priceCounts), buckets(categoryCounts));
+    }
+
+    private static void restrict(CriteriaQuery<Tuple> query, Predicate predicate) {
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private static <T> List<ProductFacetsDTO.Bucket<T>> buckets(Map<T, Long> counts) {
+        List<ProductFacetsDTO.Bucket<T>> buckets = new ArrayList<>(counts.size());
+        counts.forEach((value, count) -> buckets.add(new ProductFacetsDTO.Bucket<>(value, count)));
+        return buckets;
+    }
+
+    /**
+     * Function to convert {@link ProductCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Product> createSpecification(ProductCriteria criteria) {
+        Specification<Product> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            specification = Specification.allOf(
+                Boolean.TRUE.equals(criteria.getDistinct()) ? distinct(criteria.getDistinct()) : null,
+                buildRangeSpecification(criteria.getId(), Product_.id),
+                buildStringSpecification(criteria.getTitle(), Product_.title),
+                buildRangeSpecification(criteria.getRating(), Product_.rating),
+                buildRangeSpecification(criteria.getPrice(), Product_.price),
+                buildRangeSpecification(criteria.getQuantityInStock(), Product_.quantityInStock),
+                buildSpecification(criteria.getStatus(), Product_.status),
+                inStockSpecification(criteria),
+                buildSpecification(criteria.getCategoriesId(), root -> root.join(Product_.categories, JoinType.LEFT).get(Category_.id))
+            );
+        }
+        return specification;
+    }
+
+    private Specification<Product> inCategorySpecification(Long categoryId, String descendantsPathPrefix) {
+        return (root, query, cb) -> {
+            Subquery<Long> members = query.subquery(Long.class);
+            Root<Category> category = members.from(Category.class);
+            Predicate inCategory = cb.equal(category.get(Category_.id), categoryId);
+            if (descendantsPathPrefix != null) {
+                inCategory = cb.or(inCategory, cb.like(category.get(Category_.path), descendantsPathPrefix + "%"));
+            }
+            members.select(category.join(Category_.products).get(Product_.id)).where(inCategory);
+            return root.get(Product_.id).in(members);
+        };
+    }
+
+    private Specification<Product> inStockSpecification(ProductCriteria criteria) {
+        if (criteria.getInStock() == null || criteria.getInStock().getEquals() == null) {
+            return null;
+        }
+        boolean inStock = criteria.getInStock().getEquals();
+        return (root, query, cb) -> {
+            Path<Integer> quantityInStock = root.get(Product_.quantityInStock);
+            return inStock
+                ? cb.greaterThan(quantityInStock, 0)
+                : cb.or(cb.isNull(quantityInStock), cb.lessThanOrEqualTo(quantityInStock, 0));
+        };
+    }
+}
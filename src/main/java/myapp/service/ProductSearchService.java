@@ -0,0 +1,219 @@
+package myapp.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import myapp.domain.Product;
+import myapp.repository.ProductRepository;
+import myapp.service.dto.ProductTextDTO;
+import myapp.service.search.InvertedIndex;
+import myapp.service.search.TextAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Full-text search over the {@code title}, {@code keywords} and {@code description} of {@link Product}s, served from
+ * an in-memory {@link InvertedIndex}.
+ * <p>
+ * The index is rebuilt when the application is ready: products are read in id order, in batches of
+ * {@value #REBUILD_BATCH_SIZE}, and each batch is analyzed in parallel. Changes made through {@link ProductService}
+ * are applied once their transaction commits. Changes committed while a rebuild is running are applied to both
+ * indexes and win over the (possibly older) rows read by the rebuild.
+ */
+@Service
+public class ProductSearchService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductSearchService.class);
+
+    static final int REBUILD_BATCH_SIZE = 10_000;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int KEYWORDS_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ProductRepository productRepository;
+
+    private volatile InvertedIndex index = new InvertedIndex();
+
+    private final Object rebuildMonitor = new Object();
+
+    // guarded by rebuildMonitor
+    private InvertedIndex rebuilding;
+
+    // guarded by rebuildMonitor, ids changed since the running rebuild started
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+
+    public ProductSearchService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Index a product once the current transaction commits.
+     *
+     * @param product the saved product.
+     */
+    public void index(Product product) {
+        InvertedIndex.Document document = toDocument(product.getId(), product.getTitle(), product.getKeywords(), product.getDescription());
+        afterCommit(() -> apply(document.id(), target -> target.add(document)));
+    }
+
+    /**
+     * Index products once the current transaction commits.
+     *
+     * @param products the saved products.
+     */
+    public void index(Collection<Product> products) {
+        List<InvertedIndex.Document> documents = products
+            .stream()
+            .map(product -> toDocument(product.getId(), product.getTitle(), product.getKeywords(), product.getDescription()))
+            .toList();
+        afterCommit(() -> {
+            synchronized (rebuildMonitor) {
+                index.addAll(documents);
+                if (rebuilding != null) {
+                    rebuilding.addAll(documents);
+                    documents.forEach(document -> changedDuringRebuild.add(document.id()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove a product from the index once the current transaction commits.
+     *
+     * @param id the id of the deleted product.
+     */
+    public void remove(Long id) {
+        afterCommit(() -> apply(id, target -> target.remove(id)));
+    }
+
+    /**
+     * Search products, best matches first.
+     *
+     * @param query the free-text query.
+     * @param pageable the pagination information; the sort is ignored, results are ordered by relevance.
+     * @return the page of products.
+     */
+    @Transactional(readOnly = true)
+    public Page<Product> search(String query, Pageable pageable) {
+        List<String> terms = TextAnalyzer.analyze(query);
+        int limit = Math.toIntExact(Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize()));
+        InvertedIndex.Result result = index.search(terms, limit);
+        List<Long> ids = result.ids().subList((int) Math.min(pageable.getOffset(), result.ids().size()), result.ids().size());
+        Map<Long, Product> productsById = productRepository
+            .findAllById(ids)
+            .stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = productsById.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return new PageImpl<>(products, pageable, result.totalHits());
+    }
+
+    /**
+     * Rebuild the index from the database, in the background, once the application is ready.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        InvertedIndex target = new InvertedIndex();
+        synchronized (rebuildMonitor) {
+            if (rebuilding != null) {
+                LOG.debug("Product search index rebuild already running");
+                return;
+            }
+            rebuilding = target;
+            changedDuringRebuild.clear();
+        }
+        long start = System.currentTimeMillis();
+        try {
+            Long afterId = 0L;
+            List<ProductTextDTO> batch;
+            do {
+                batch = productRepository.findAllTextAfter(afterId, Limit.of(REBUILD_BATCH_SIZE));
+                List<InvertedIndex.Document> documents = batch
+                    .parallelStream()
+                    .map(text -> toDocument(text.id(), text.title(), text.keywords(), text.description()))
+                    .toList();
+                synchronized (rebuildMonitor) {
+                    target.addAll(documents.stream().filter(document -> !changedDuringRebuild.contains(document.id())).toList());
+                }
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            synchronized (rebuildMonitor) {
+                index = target;
+            }
+            LOG.info("Product search index rebuilt with {} products in {} ms", target.size(), System.currentTimeMillis() - start);
+        } finally {
+            synchronized (rebuildMonitor) {
+                rebuilding = null;
+                changedDuringRebuild.clear();
+            }
+        }
+    }
+
+    private void apply(Long id, Consumer<InvertedIndex> change) {
+        synchronized (rebuildMonitor) {
+            change.accept(index);
+            if (rebuilding != null) {
+                change.accept(rebuilding);
+                changedDuringRebuild.add(id);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        } else {
+            action.run();
+        }
+    }
+
+    static InvertedIndex.Document toDocument(Long id, String title, String keywords, String description) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        int length = addField(termFrequencies, title, TITLE_WEIGHT);
+        length += addField(termFrequencies, keywords, KEYWORDS_WEIGHT);
+        length += addField(termFrequencies, description, DESCRIPTION_WEIGHT);
+        return new InvertedIndex.Document(id, termFrequencies, length);
+    }
+
+    private static int addField(Map<String, Integer> termFrequencies, String text, int weight) {
+        List<String> terms = TextAnalyzer.analyze(text);
+        for (String term : terms) {
+            termFrequencies.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+}
@@ -4,18 +4,28 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.List;
 import java.util.Optional;
 
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.NotNull;
 import myapp.domain.Product;
 import myapp.domain.enumeration.ProductStatus;
+import myapp.repository.OrderLineRepository;
 import myapp.repository.ProductRepository;
+import myapp.repository.WishListItemRepository;
+import myapp.service.dto.EntityVersionDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -26,10 +36,45 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProductService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ProductService.class);
+
+    /**
+     * The properties a partial update may change.
+     */
+    private static final List<String> PATCHABLE_PROPERTIES = List.of(
+        "title",
+        "keywords",
+        "description",
+        "rating",
+        "price",
+        "quantityInStock",
+        "status",
+        "weight",
+        "dimensions",
+        "dateAdded"
+    );
+
     private final ProductRepository productRepository;
 
-    public ProductService(ProductRepository productRepository) {
+    private final WishListItemRepository wishListItemRepository;
+
+    private final OrderLineRepository orderLineRepository;
+
+    private final ProductSearchService productSearchService;
+
+    private final Validator validator;
+
+    public ProductService(
+        ProductRepository productRepository,
+        WishListItemRepository wishListItemRepository,
+        OrderLineRepository orderLineRepository,
+        ProductSearchService productSearchService,
+        Validator validator
+    ) {
         this.productRepository = productRepository;
+        this.wishListItemRepository = wishListItemRepository;
+        this.orderLineRepository = orderLineRepository;
+        this.productSearchService = productSearchService;
+        this.validator = validator;
     }
 
     /**
@@ -40,9 +85,64 @@ public class ProductService {
      */
     public Product save(Product product) {
         LOG.debug("Request to save Product : {}", product);
+        validateForSave(product);
+        Product result = productRepository.save(product);
+        productSearchService.index(result);
+        return result;
+    }
 
+    /**
+     * Check a new product against the rules applied by {@link #save(Product)}.
+     *
+     * @param product the product to check.
+     * @throws InvalidProductException if a rule is broken.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void validateForSave(Product product) {
+        // Validação do Título: obrigatório
+        if (product.getTitle() == null) {
+            throw new InvalidTitleException("Título inválido: deve ter entre 3 e 100 caracteres.");
+        }
+
+        validateFields(product);
+
+        // Validação de Status: deve ser "IN_STOCK", "OUT_OF_STOCK" ou "DISCONTINUED"
+        if (product.getStatus() == null || !isValidStatus(product.getStatus())) {
+            throw new InvalidStatusException("Status inválido: deve ser 'IN_STOCK', 'OUT_OF_STOCK' ou 'DISCONTINUED'.");
+        }
+
+        // Validação de Data de Adição: não pode ser nula e deve ser igual à data atual
+        if (product.getDateAdded() == null || !isDateToday(product.getDateAdded())) {
+            throw new InvalidDateAddedException("Data de adição inválida: deve ser a data atual.");
+        }
+    }
+
+    /**
+     * Check the fields given to a partial update against the bean constraints and the rules of
+     * {@link #validateForSave(Product)}. The fields left {@code null} are kept, so they are not checked; the date
+     * added only has to be today when the product is created.
+     *
+     * @param product the partial product.
+     * @throws InvalidProductException if a rule is broken.
+     */
+    private void validatePatch(Product product) {
+        for (String property : PATCHABLE_PROPERTIES) {
+            validator
+                .validateProperty(product, property)
+                .stream()
+                .filter(violation -> violation.getInvalidValue() != null)
+                .findFirst()
+                .ifPresent(violation -> {
+                    throw new InvalidProductException(violation.getPropertyPath() + ": " + violation.getMessage());
+                });
+        }
+        validateFields(product);
+    }
+
+    // Validações dos campos informados (os campos nulos são ignorados)
+    private void validateFields(Product product) {
         // Validação do Título: 3 <= t <= 100 caracteres
-        if (product.getTitle() == null || product.getTitle().length() < 3 || product.getTitle().length() > 100) {
+        if (product.getTitle() != null && (product.getTitle().length() < 3 || product.getTitle().length() > 100)) {
             throw new InvalidTitleException("Título inválido: deve ter entre 3 e 100 caracteres.");
         }
 
@@ -71,12 +171,6 @@ public class ProductService {
             throw new InvalidStockQuantityException("Quantidade em estoque inválida: deve ser maior ou igual a 0.");
         }
 
-        // Validação de Status: deve ser "IN_STOCK", "OUT_OF_STOCK" ou "DISCONTINUED"
-        if (product.getStatus() == null || !isValidStatus(product.getStatus())) {
-            throw new InvalidStatusException("Status inválido: deve ser 'IN_STOCK', 'OUT_OF_STOCK' ou 'DISCONTINUED'.");
-        }
-
-
         // Validação de Peso: deve ser >= 0
         if (product.getWeight() != null && product.getWeight().compareTo(0.0) < 0) {
             throw new InvalidWeightException("Peso inválido: deve ser maior ou igual a 0.");
@@ -86,13 +180,6 @@ public class ProductService {
         if (product.getDimensions() != null && product.getDimensions().length() > 50) {
             throw new InvalidDimensionsException("Dimensões inválidas: máximo de 50 caracteres.");
         }
-
-        // Validação de Data de Adição: não pode ser nula e deve ser igual à data atual
-        if (product.getDateAdded() == null || !isDateToday(product.getDateAdded())) {
-            throw new InvalidDateAddedException("Data de adição inválida: deve ser a data atual.");
-        }
-
-        return productRepository.save(product);
     }
 
     private boolean isDateToday(Instant dateAdded) {
@@ -117,11 +204,17 @@ public class ProductService {
 
     /**
      * Update an existing product.
+     * <p>
+     * Only the changed columns are written, in an {@code UPDATE ... WHERE id = ? AND version = ?}. The modification
+     * date is set to now, whatever the request holds.
      *
      * @param product the entity to update (with validation).
+     * @param expectedVersion the version the product must be at, {@code null} to update whatever its version.
      * @return the updated product.
+     * @throws EntityVersionMismatchException if the product is not at {@code expectedVersion}.
      */
-    public @Valid Product update(@Valid Product product) {
+    public @Valid Product update(@Valid Product product, Long expectedVersion) {
+        LOG.debug("Request to update Product : {}", product);
         // Validação manual extra (caso necessário)
         validateProduct(product);
 
@@ -133,6 +226,7 @@ public class ProductService {
         }
 
         Product existingProduct = existingProductOpt.get();
+        checkVersion(existingProduct, expectedVersion);
 
         // Atualiza os campos do produto existente com os novos valores
         existingProduct.setTitle(product.getTitle());
@@ -144,10 +238,18 @@ public class ProductService {
         existingProduct.setStatus(product.getStatus());
         existingProduct.setWeight(product.getWeight());
         existingProduct.setDimensions(product.getDimensions());
-        existingProduct.setDateModified(product.getDateModified());
+        existingProduct.setDateModified(Instant.now());
 
         // Salva o produto atualizado
-        return productRepository.save(existingProduct);
+        Product result = productRepository.save(existingProduct);
+        productSearchService.index(result);
+        return result;
+    }
+
+    private static void checkVersion(Product existingProduct, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(existingProduct.getVersion())) {
+            throw new EntityVersionMismatchException(Product.class.getSimpleName(), existingProduct.getId(), expectedVersion);
+        }
     }
 
     // Validações manuais (caso você precise de validações adicionais além do @Valid)
@@ -160,11 +262,32 @@ public class ProductService {
 
     /**
      * Partial update of a product.
+     * <p>
+     * When the expected version is known the update is a single conditional {@code UPDATE} and the product is only
+     * read back afterwards; otherwise it is loaded, patched and written with its changed columns. Either way the
+     * modification date is set to now.
      *
      * @param product the entity to update partially.
+     * @param expectedVersion the version the product must be at, {@code null} to update whatever its version.
      * @return the updated entity.
+     * @throws InvalidProductException if a given field breaks a validation rule.
+     * @throws EntityVersionMismatchException if the product is not at {@code expectedVersion}.
      */
-    public Optional<Product> partialUpdate(Product product) {
+    public Optional<Product> partialUpdate(Product product, Long expectedVersion) {
+        LOG.debug("Request to partially update Product : {}", product);
+        validatePatch(product);
+        if (expectedVersion != null) {
+            if (!productRepository.updateIfVersionMatches(product, expectedVersion)) {
+                if (!productRepository.existsById(product.getId())) {
+                    return Optional.empty();
+                }
+                throw new EntityVersionMismatchException(Product.class.getSimpleName(), product.getId(), expectedVersion);
+            }
+            Optional<Product> result = productRepository.findById(product.getId());
+            result.ifPresent(productSearchService::index);
+            return result;
+        }
+
         // Buscando o produto existente pelo ID
         return productRepository
             .findById(product.getId())
@@ -200,12 +323,14 @@ public class ProductService {
                 if (product.getDateAdded() != null) {
                     existingProduct.setDateAdded(product.getDateAdded());
                 }
-                if (product.getDateModified() != null) {
-                    existingProduct.setDateModified(product.getDateModified());
-                }
+                existingProduct.setDateModified(Instant.now());
 
                 // Salva o produto com as mudanças parciais
                 return productRepository.save(existingProduct);
+            })
+            .map(updatedProduct -> {
+                productSearchService.index(updatedProduct);
+                return updatedProduct;
             });
     }
 
@@ -217,9 +342,37 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public Page<Product> findAll(Pageable pageable) {
+        LOG.debug("Request to get all Products");
         return productRepository.findAll(pageable);
     }
 
+    /**
+     * Get a window of products after the given keyset position, without counting the total.
+     *
+     * @param position the keyset position to seek from.
+     * @param sort the sort order; Spring Data appends the id as tie-breaker.
+     * @param size the maximum number of products in the window.
+     * @return the window of products.
+     */
+    @Transactional(readOnly = true)
+    public Window<Product> findAll(KeysetScrollPosition position, Sort sort, int size) {
+        LOG.debug("Request to get a window of Products");
+        return productRepository.findAllBy(position, sort, Limit.of(size));
+    }
+
+    /**
+     * Search products by title, keywords and description, best matches first.
+     *
+     * @param query the free-text query.
+     * @param pageable the pagination information.
+     * @return the page of products.
+     */
+    @Transactional(readOnly = true)
+    public Page<Product> search(String query, Pageable pageable) {
+        LOG.debug("Request to search for a page of Products for query {}", query);
+        return productSearchService.search(query, pageable);
+    }
+
     /**
      * Get one product by id.
      *
@@ -228,22 +381,45 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public Optional<Product> findOne(Long id) {
+        LOG.debug("Request to get Product : {}", id);
         return productRepository.findById(id);
     }
 
+    /**
+     * Get the version of one product by id, without loading it.
+     *
+     * @param id the id of the product.
+     * @return an Optional containing the version if the product exists, or empty otherwise.
+     */
+    @Transactional(readOnly = true)
+    public Optional<EntityVersionDTO> findVersion(Long id) {
+        LOG.debug("Request to get the version of Product : {}", id);
+        return productRepository.findVersionById(id);
+    }
+
 
     /**
      * Delete a product by id.
+     * <p>
+     * A product that has been ordered stays, as its order lines refer to it; it should be discontinued instead.
      *
      * @param id the id of the product to delete.
+     * @throws ProductNotFoundException if there is no product with this id.
+     * @throws ProductInUseException if order lines refer to the product.
      */
     public void delete(Long id) {
+        LOG.debug("Request to delete Product : {}", id);
         // Verifica se o produto existe
         if (!productRepository.existsById(id)) {
             throw new ProductNotFoundException("Product not found with ID: " + id);
         }
+        if (orderLineRepository.existsByProductId(id)) {
+            throw new ProductInUseException(id);
+        }
 
         // Exclui o produto
+        wishListItemRepository.deleteByProductId(id);
         productRepository.deleteById(id);
+        productSearchService.remove(id);
     }
 }
@@ -0,0 +1,138 @@
+package myapp.service;
+
+import io.micrometer.core.instrument.Timer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import myapp.management.StockMetersService;
+import myapp.management.StockMetersService.Outcome;
+import myapp.repository.ProductRepository;
+import myapp.service.dto.StockReservationDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for reserving and releasing units of the stock of {@link myapp.domain.Product}s.
+ * <p>
+ * Each product is changed by a single conditional {@code UPDATE}, so two reservations racing on the last unit cannot
+ * both succeed, and no row is locked for longer than its statement and the commit. A basket is reserved in one short
+ * transaction: either every product gives its units, or the transaction is rolled back and none does.
+ */
+@Service
+public class ProductStockService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductStockService.class);
+
+    private final ProductRepository productRepository;
+
+    private final StockMetersService stockMetersService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductStockService(
+        ProductRepository productRepository,
+        StockMetersService stockMetersService,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.productRepository = productRepository;
+        this.stockMetersService = stockMetersService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reserve units of one product.
+     *
+     * @param productId the id of the product.
+     * @param quantity the number of units, positive.
+     * @throws InsufficientStockException if the product does not have enough units in stock or is discontinued.
+     * @throws ProductNotFoundException if the product does not exist.
+     */
+    public void reserve(Long productId, int quantity) {
+        reserve(List.of(new StockReservationDTO(productId, quantity)));
+    }
+
+    /**
+     * Reserve units of several products, all or nothing.
+     *
+     * @param reservations the units to reserve; quantities of the same product are added up.
+     * @throws InsufficientStockException if a product does not have enough units in stock or is discontinued.
+     * @throws ProductNotFoundException if a product does not exist.
+     */
+    public void reserve(List<StockReservationDTO> reservations) {
+        LOG.debug("Request to reserve stock : {}", reservations);
+        Map<Long, Integer> quantities = quantitiesByProduct(reservations);
+        Timer.Sample sample = stockMetersService.startTimer();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> failedIds = productRepository.decrementStock(quantities);
+                if (!failedIds.isEmpty()) {
+                    checkExist(failedIds);
+                    throw new InsufficientStockException(failedIds);
+                }
+            });
+            stockMetersService.trackReserve(sample, Outcome.SUCCESS);
+        } catch (InsufficientStockException e) {
+            stockMetersService.trackReserve(sample, Outcome.CONFLICT);
+            throw e;
+        } catch (ProductNotFoundException e) {
+            stockMetersService.trackReserve(sample, Outcome.NOT_FOUND);
+            throw e;
+        }
+    }
+
+    /**
+     * Release units of one product back to its stock.
+     *
+     * @param productId the id of the product.
+     * @param quantity the number of units, positive.
+     * @throws ProductNotFoundException if the product does not exist.
+     */
+    public void release(Long productId, int quantity) {
+        release(List.of(new StockReservationDTO(productId, quantity)));
+    }
+
+    /**
+     * Release units of several products back to their stock, all or nothing.
+     *
+     * @param reservations the units to release; quantities of the same product are added up.
+     * @throws ProductNotFoundException if a product does not exist.
+     */
+    public void release(List<StockReservationDTO> reservations) {
+        LOG.debug("Request to release stock : {}", reservations);
+        Map<Long, Integer> quantities = quantitiesByProduct(reservations);
+        Timer.Sample sample = stockMetersService.startTimer();
+        try {
+            transactionTemplate.executeWithoutResult(status -> checkExist(productRepository.incrementStock(quantities)));
+            stockMetersService.trackRelease(sample, Outcome.SUCCESS);
+        } catch (ProductNotFoundException e) {
+            stockMetersService.trackRelease(sample, Outcome.NOT_FOUND);
+            throw e;
+        }
+    }
+
+    private void checkExist(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> existingIds = productRepository.findExistingIds(ids);
+        for (Long id : ids) {
+            if (!existingIds.contains(id)) {
+                throw new ProductNotFoundException("Product not found with ID: " + id);
+            }
+        }
+    }
+
+    private static Map<Long, Integer> quantitiesByProduct(List<StockReservationDTO> reservations) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (StockReservationDTO reservation : reservations) {
+            if (reservation.productId() == null || reservation.quantity() == null || reservation.quantity() <= 0) {
+                throw new IllegalArgumentException("Invalid stock reservation: " + reservation);
+            }
+            quantities.merge(reservation.productId(), reservation.quantity(), Math::addExact);
+        }
+        return quantities;
+    }
+}
@@ -0,0 +1,303 @@
+package myapp.service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import myapp.config.ApplicationProperties;
+import myapp.domain.AbstractSalesRollup;
+import myapp.domain.Order;
+import myapp.domain.SalesDailyRollup;
+import myapp.domain.SalesHourlyRollup;
+import myapp.domain.enumeration.OrderStatus;
+import myapp.domain.enumeration.SalesGranularity;
+import myapp.repository.OrderRepository;
+import myapp.repository.SalesDailyRollupRepository;
+import myapp.repository.SalesHourlyRollupRepository;
+import myapp.repository.SalesRollupRepository;
+import myapp.service.dto.SalesRollupDTO;
+import myapp.service.dto.SalesTotalsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The hourly and daily sales rollups of the {@link Order}s, so that sales reports never scan the order table.
+ * <p>
+ * Every change made through {@link OrderService} and {@link CheckoutService} adds its difference to the hour of the
+ * order once its transaction commits. The differences are summed in memory and written to both rollups every
+ * {@value #FLUSH_INTERVAL_SECONDS} seconds, so placing an order never waits on a rollup row, and once more when the
+ * instance stops. Differences not yet written when an instance crashes are lost, and rows changed outside of these
+ * services are not seen: when an instance starts the current day is summed again from the order table, every night
+ * the last closed days are, and the rollups are corrected where they differ.
+ * <p>
+ * Cancelled orders are not counted. Buckets are in UTC.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SalesRollupService.class);
+
+    static final long FLUSH_INTERVAL_SECONDS = 5;
+
+    private final OrderRepository orderRepository;
+
+    private final SalesHourlyRollupRepository salesHourlyRollupRepository;
+
+    private final SalesDailyRollupRepository salesDailyRollupRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int reconcileDays;
+
+    private final ConcurrentMap<Instant, SalesTotalsDTO> pending = new ConcurrentHashMap<>();
+
+    private final Object flushMonitor = new Object();
+
+    public SalesRollupService(
+        OrderRepository orderRepository,
+        SalesHourlyRollupRepository salesHourlyRollupRepository,
+        SalesDailyRollupRepository salesDailyRollupRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.orderRepository = orderRepository;
+        this.salesHourlyRollupRepository = salesHourlyRollupRepository;
+        this.salesDailyRollupRepository = salesDailyRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileDays = applicationProperties.getSales().getReconcileDays();
+    }
+
+    /**
+     * Get the sales of the buckets between two instants; buckets without any order are left out.
+     *
+     * @param from the first instant, rounded down to its bucket.
+     * @param to the last instant, exclusive.
+     * @param granularity the size of the buckets.
+     * @return the buckets, in time order.
+     */
+    @Transactional(readOnly = true)
+    public List<SalesRollupDTO> findSales(Instant from, Instant to, SalesGranularity granularity) {
+        LOG.debug("Request to get the {} sales between {} and {}", granularity, from, to);
+        return repository(granularity).findAllBetween(granularity.bucketOf(from), to);
+    }
+
+    /**
+     * Move the sales of an order once the current transaction commits.
+     *
+     * @param from the sales of the order before the change, {@code null} for a new order.
+     * @param to the sales of the order after the change, {@code null} for a deleted order.
+     */
+    public void moveAfterCommit(Sale from, Sale to) {
+        if (from == null && to == null || from != null && from.equals(to)) {
+            return;
+        }
+        Runnable move = () -> {
+            if (from != null) {
+                add(from.hour(), from.totals().negate());
+            }
+            if (to != null) {
+                add(to.hour(), to.totals());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        move.run();
+                    }
+                }
+            );
+        } else {
+            move.run();
+        }
+    }
+
+    private void add(Instant hour, SalesTotalsDTO totals) {
+        pending.merge(hour, totals, SalesTotalsDTO::plus);
+    }
+
+    /**
+     * Write the pending differences to the rollups.
+     */
+    @Scheduled(initialDelay = FLUSH_INTERVAL_SECONDS, fixedDelay = FLUSH_INTERVAL_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void flush() {
+        synchronized (flushMonitor) {
+            for (Instant hour : pending.keySet()) {
+                SalesTotalsDTO totals = pending.remove(hour);
+                if (totals == null || totals.sameAs(SalesTotalsDTO.ZERO)) {
+                    continue;
+                }
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        addTo(salesHourlyRollupRepository, SalesHourlyRollup::new, hour, totals);
+                        addTo(salesDailyRollupRepository, SalesDailyRollup::new, SalesGranularity.DAY.bucketOf(hour), totals);
+                    });
+                } catch (RuntimeException e) {
+                    // most likely another instance created the bucket at the same time; retried at the next flush
+                    LOG.warn("Sales of {} could not be rolled up, will retry: {}", hour, e.getMessage());
+                    add(hour, totals);
+                }
+            }
+        }
+    }
+
+    private static <T extends AbstractSalesRollup> void addTo(
+        SalesRollupRepository<T> repository,
+        Supplier<T> newRollup,
+        Instant bucketStart,
+        SalesTotalsDTO totals
+    ) {
+        if (repository.add(bucketStart, totals.orderCount(), totals.revenue(), totals.shippingCost()) == 0) {
+            repository.saveAndFlush(rollup(newRollup.get(), bucketStart, totals));
+        }
+    }
+
+    /**
+     * Write the differences still pending when the instance stops.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            LOG.warn("Sales of {} hours could not be rolled up before shutdown", pending.size());
+        }
+    }
+
+    /**
+     * Check the rollups of the last closed days against the order table every night, and correct them.
+     */
+    @Scheduled(cron = "0 15 3 * * ?")
+    public void reconcile() {
+        Instant today = SalesGranularity.DAY.bucketOf(Instant.now());
+        synchronized (flushMonitor) {
+            flush();
+            for (int days = reconcileDays; days >= 1; days--) {
+                reconcile(today.minus(days, ChronoUnit.DAYS));
+            }
+        }
+    }
+
+    /**
+     * Check the rollups of the current day against the order table once the application is ready, and correct them,
+     * since the differences a previous instance had not written when it stopped would otherwise only be found the
+     * next night, if ever.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileToday() {
+        synchronized (flushMonitor) {
+            flush();
+            reconcile(SalesGranularity.DAY.bucketOf(Instant.now()));
+        }
+    }
+
+    private void reconcile(Instant day) {
+        try {
+            Integer corrected = transactionTemplate.execute(status -> reconcileDay(day));
+            if (corrected != null && corrected > 0) {
+                LOG.warn("Sales rollups of {} corrected in {} buckets", day, corrected);
+            } else {
+                LOG.debug("Sales rollups of {} checked", day);
+            }
+        } catch (RuntimeException e) {
+            // most likely another instance created a bucket at the same time; checked again at the next run
+            LOG.warn("Sales rollups of {} could not be reconciled: {}", day, e.getMessage());
+        }
+    }
+
+    private int reconcileDay(Instant day) {
+        Instant nextDay = day.plus(1, ChronoUnit.DAYS);
+        Map<Instant, SalesHourlyRollup> hours = salesHourlyRollupRepository
+            .findAllByBucketStartGreaterThanEqualAndBucketStartLessThan(day, nextDay)
+            .stream()
+            .collect(Collectors.toMap(SalesHourlyRollup::getBucketStart, Function.identity()));
+        int corrected = 0;
+        for (Instant hour = day; hour.isBefore(nextDay); hour = hour.plus(1, ChronoUnit.HOURS)) {
+            SalesTotalsDTO actual = orderRepository.sumSales(hour, hour.plus(1, ChronoUnit.HOURS));
+            if (correct(salesHourlyRollupRepository, hours.get(hour), SalesHourlyRollup::new, hour, actual)) {
+                corrected++;
+            }
+        }
+        SalesDailyRollup stored = salesDailyRollupRepository.findById(day).orElse(null);
+        if (correct(salesDailyRollupRepository, stored, SalesDailyRollup::new, day, orderRepository.sumSales(day, nextDay))) {
+            corrected++;
+        }
+        return corrected;
+    }
+
+    private static <T extends AbstractSalesRollup> boolean correct(
+        SalesRollupRepository<T> repository,
+        T stored,
+        Supplier<T> newRollup,
+        Instant bucketStart,
+        SalesTotalsDTO actual
+    ) {
+        if (stored == null) {
+            if (actual.orderCount() == 0) {
+                return false;
+            }
+            repository.save(rollup(newRollup.get(), bucketStart, actual));
+            return true;
+        }
+        if (totalsOf(stored).sameAs(actual)) {
+            return false;
+        }
+        LOG.debug("Sales rollup {} corrected to {}", stored, actual);
+        rollup(stored, bucketStart, actual);
+        return true;
+    }
+
+    private static <T extends AbstractSalesRollup> T rollup(T rollup, Instant bucketStart, SalesTotalsDTO totals) {
+        rollup.setBucketStart(bucketStart);
+        rollup.setOrderCount(totals.orderCount());
+        rollup.setRevenue(totals.revenue());
+        rollup.setShippingCost(totals.shippingCost());
+        return rollup;
+    }
+
+    private static SalesTotalsDTO totalsOf(AbstractSalesRollup rollup) {
+        return new SalesTotalsDTO(rollup.getOrderCount(), rollup.getRevenue(), rollup.getShippingCost());
+    }
+
+    private SalesRollupRepository<? extends AbstractSalesRollup> repository(SalesGranularity granularity) {
+        return switch (granularity) {
+            case HOUR -> salesHourlyRollupRepository;
+            case DAY -> salesDailyRollupRepository;
+        };
+    }
+
+    /**
+     * What an order adds to the sales of its hour.
+     */
+    public record Sale(Instant hour, SalesTotalsDTO totals) {
+        /**
+         * @param order an order, as it is now.
+         * @return what it adds to the sales, {@code null} when it is cancelled or has no order date.
+         */
+        public static Sale of(Order order) {
+            if (order.getOrderDate() == null || order.getStatus() == OrderStatus.CANCELLED) {
+                return null;
+            }
+            return new Sale(
+                SalesGranularity.HOUR.bucketOf(order.getOrderDate()),
+                new SalesTotalsDTO(1, order.getTotalAmount(), order.getShippingCost())
+            );
+        }
+    }
+}
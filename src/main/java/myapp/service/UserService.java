@@ -15,16 +15,23 @@ import myapp.service.dto.AdminUserDTO;
 import myapp.service.dto.UserDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import tech.jhipster.security.RandomUtil;
 
 /**
  * Service class for managing users.
+ * <p>
+ * Users with their authorities are cached by login and by email by {@link UserRepository}; every change made here
+ * evicts the user, so that authentication and {@code /api/account} do not see it as it was.
  */
 @Service
 @Transactional
@@ -38,10 +45,22 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final MailService mailService;
+
+    private final CacheManager cacheManager;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        AuthorityRepository authorityRepository,
+        MailService mailService,
+        CacheManager cacheManager
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
+        this.mailService = mailService;
+        this.cacheManager = cacheManager;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -52,6 +71,7 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
+                this.clearUserCaches(user);
                 LOG.debug("Activated user: {}", user);
                 return user;
             });
@@ -66,6 +86,7 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
+                this.clearUserCaches(user);
                 return user;
             });
     }
@@ -77,6 +98,7 @@ public class UserService {
             .map(user -> {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
+                mailService.sendPasswordResetMail(user);
                 return user;
             });
     }
@@ -118,6 +140,7 @@ public class UserService {
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
+        mailService.sendActivationEmail(newUser);
         LOG.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -128,6 +151,7 @@ public class UserService {
         }
         userRepository.delete(existingUser);
         userRepository.flush();
+        this.clearUserCaches(existingUser);
         return true;
     }
 
@@ -161,6 +185,7 @@ public class UserService {
             user.setAuthorities(authorities);
         }
         userRepository.save(user);
+        mailService.sendCreationEmail(user);
         LOG.debug("Created Information for User: {}", user);
         return user;
     }
@@ -176,6 +201,7 @@ public class UserService {
             .filter(Optional::isPresent)
             .map(Optional::get)
             .map(user -> {
+                this.clearUserCaches(user);
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -206,6 +232,7 @@ public class UserService {
             .findOneByLogin(login)
             .ifPresent(user -> {
                 userRepository.delete(user);
+                this.clearUserCaches(user);
                 LOG.debug("Deleted User: {}", user);
             });
     }
@@ -223,6 +250,7 @@ public class UserService {
         SecurityUtils.getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
+                this.clearUserCaches(user);
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
@@ -246,10 +274,27 @@ public class UserService {
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
+                this.clearUserCaches(user);
                 LOG.debug("Changed password for User: {}", user);
             });
     }
 
+    /**
+     * Replace the password hash of a user with a new hash of the same password, such as one with a higher work factor.
+     *
+     * @param login the login of the user.
+     * @param encodedPassword the new hash.
+     */
+    public void updateEncodedPassword(String login, String encodedPassword) {
+        userRepository
+            .findOneByLogin(login)
+            .ifPresent(user -> {
+                user.setPassword(encodedPassword);
+                this.clearUserCaches(user);
+                LOG.debug("Rehashed password for User: {}", user);
+            });
+    }
+
     @Transactional(readOnly = true)
     public Page<AdminUserDTO> getAllManagedUsers(Pageable pageable) {
         return userRepository.findAll(pageable).map(AdminUserDTO::new);
@@ -282,6 +327,7 @@ public class UserService {
             .forEach(user -> {
                 LOG.debug("Deleting not activated user {}", user.getLogin());
                 userRepository.delete(user);
+                this.clearUserCaches(user);
             });
     }
 
@@ -293,4 +339,37 @@ public class UserService {
     public List<String> getAuthorities() {
         return authorityRepository.findAll().stream().map(Authority::getName).toList();
     }
+
+    /**
+     * Evict a user, under its current login and email, now and again once the current transaction commits, so that
+     * a read made in between does not leave the user cached as it was.
+     */
+    private void clearUserCaches(User user) {
+        String login = user.getLogin();
+        String email = user.getEmail() == null ? null : user.getEmail().toLowerCase(Locale.ENGLISH);
+        Runnable evict = () -> {
+            evict(UserRepository.USERS_BY_LOGIN_CACHE, login);
+            if (email != null) {
+                evict(UserRepository.USERS_BY_EMAIL_CACHE, email);
+            }
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evict.run();
+                    }
+                }
+            );
+        }
+    }
+
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evictIfPresent(key);
+        }
+    }
 }
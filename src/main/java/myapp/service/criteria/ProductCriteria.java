@@ -0,0 +1,296 @@
+package myapp.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Optional;
+import myapp.domain.enumeration.ProductStatus;
+import org.springdoc.core.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.*;
+
+/**
+ * Criteria class for the {@link myapp.domain.Product} entity. This class is used
+ * in {@link myapp.web.rest.ProductResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /products?price.greaterThanOrEqual=10&status.equals=IN_STOCK&rating.greaterThanOrEqual=4&categoriesId.equals=3&inStock.equals=true}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+@ParameterObject
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ProductCriteria implements Serializable, Criteria {
+
+    /**
+     * Class for filtering ProductStatus
+     */
+    public static class ProductStatusFilter extends Filter<ProductStatus> {
+
+        public ProductStatusFilter() {}
+
+        public ProductStatusFilter(ProductStatusFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public ProductStatusFilter copy() {
+            return new ProductStatusFilter(this);
+        }
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter title;
+
+    private IntegerFilter rating;
+
+    private BigDecimalFilter price;
+
+    private IntegerFilter quantityInStock;
+
+    private ProductStatusFilter status;
+
+    private BooleanFilter inStock;
+
+    private LongFilter categoriesId;
+
+    private Boolean distinct;
+
+    public ProductCriteria() {}
+
+    public ProductCriteria(ProductCriteria other) {
+        this.id = other.optionalId().map(LongFilter::copy).orElse(null);
+        this.title = other.optionalTitle().map(StringFilter::copy).orElse(null);
+        this.rating = other.optionalRating().map(IntegerFilter::copy).orElse(null);
+        this.price = other.optionalPrice().map(BigDecimalFilter::copy).orElse(null);
+        this.quantityInStock = other.optionalQuantityInStock().map(IntegerFilter::copy).orElse(null);
+        this.status = other.optionalStatus().map(ProductStatusFilter::copy).orElse(null);
+        this.inStock = other.optionalInStock().map(BooleanFilter::copy).orElse(null);
+        this.categoriesId = other.optionalCategoriesId().map(LongFilter::copy).orElse(null);
+        this.distinct = other.distinct;
+    }
+
+    @Override
+    public ProductCriteria copy() {
+        return new ProductCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public Optional<LongFilter> optionalId() {
+        return Optional.ofNullable(id);
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            setId(new LongFilter());
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getTitle() {
+        return title;
+    }
+
+    public Optional<StringFilter> optionalTitle() {
+        return Optional.ofNullable(title);
+    }
+
+    public StringFilter title() {
+        if (title == null) {
+            setTitle(new StringFilter());
+        }
+        return title;
+    }
+
+    public void setTitle(StringFilter title) {
+        this.title = title;
+    }
+
+    public IntegerFilter getRating() {
+        return rating;
+    }
+
+    public Optional<IntegerFilter> optionalRating() {
+        return Optional.ofNullable(rating);
+    }
+
+    public IntegerFilter rating() {
+        if (rating == null) {
+            setRating(new IntegerFilter());
+        }
+        return rating;
+    }
+
+    public void setRating(IntegerFilter rating) {
+        this.rating = rating;
+    }
+
+    public BigDecimalFilter getPrice() {
+        return price;
+    }
+
+    public Optional<BigDecimalFilter> optionalPrice() {
+        return Optional.ofNullable(price);
+    }
+
+    public BigDecimalFilter price() {
+        if (price == null) {
+            setPrice(new BigDecimalFilter());
+        }
+        return price;
+    }
+
+    public void setPrice(BigDecimalFilter price) {
+        this.price = price;
+    }
+
+    public IntegerFilter getQuantityInStock() {
+        return quantityInStock;
+    }
+
+    public Optional<IntegerFilter> optionalQuantityInStock() {
+        return Optional.ofNullable(quantityInStock);
+    }
+
+    public IntegerFilter quantityInStock() {
+        if (quantityInStock == null) {
+            setQuantityInStock(new IntegerFilter());
+        }
+        return quantityInStock;
+    }
+
+    public void setQuantityInStock(IntegerFilter quantityInStock) {
+        this.quantityInStock = quantityInStock;
+    }
+
+    public ProductStatusFilter getStatus() {
+        return status;
+    }
+
+    public Optional<ProductStatusFilter> optionalStatus() {
+        return Optional.ofNullable(status);
+    }
+
+    public ProductStatusFilter status() {
+        if (status == null) {
+            setStatus(new ProductStatusFilter());
+        }
+        return status;
+    }
+
+    public void setStatus(ProductStatusFilter status) {
+        this.status = status;
+    }
+
+    /**
+     * {@code inStock.equals=true} keeps the products with a positive {@code quantityInStock}, {@code false} the others.
+     */
+    public BooleanFilter getInStock() {
+        return inStock;
+    }
+
+    public Optional<BooleanFilter> optionalInStock() {
+        return Optional.ofNullable(inStock);
+    }
+
+    public BooleanFilter inStock() {
+        if (inStock == null) {
+            setInStock(new BooleanFilter());
+        }
+        return inStock;
+    }
+
+    public void setInStock(BooleanFilter inStock) {
+        this.inStock = inStock;
+    }
+
+    public LongFilter getCategoriesId() {
+        return categoriesId;
+    }
+
+    public Optional<LongFilter> optionalCategoriesId() {
+        return Optional.ofNullable(categoriesId);
+    }
+
+    public LongFilter categoriesId() {
+        if (categoriesId == null) {
+            setCategoriesId(new LongFilter());
+        }
+        return categoriesId;
+    }
+
+    public void setCategoriesId(LongFilter categoriesId) {
+        this.categoriesId = categoriesId;
+    }
+
+    public Boolean getDistinct() {
+        return distinct;
+    }
+
+    public Optional<Boolean> optionalDistinct() {
+        return Optional.ofNullable(distinct);
+    }
+
+    public Boolean distinct() {
+        if (distinct == null) {
+            setDistinct(true);
+        }
+        return distinct;
+    }
+
+    public void setDistinct(Boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final ProductCriteria that = (ProductCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(title, that.title) &&
+            Objects.equals(rating, that.rating) &&
+            Objects.equals(price, that.price) &&
+            Objects.equals(quantityInStock, that.quantityInStock) &&
+            Objects.equals(status, that.status) &&
+            Objects.equals(inStock, that.inStock) &&
+            Objects.equals(categoriesId, that.categoriesId) &&
+            Objects.equals(distinct, that.distinct)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, rating, price, quantityInStock, status, inStock, categoriesId, distinct);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ProductCriteria{" +
+            optionalId().map(f -> "id=" + f + ", ").orElse("") +
+            optionalTitle().map(f -> "title=" + f + ", ").orElse("") +
+            optionalRating().map(f -> "rating=" + f + ", ").orElse("") +
+            optionalPrice().map(f -> "price=" + f + ", ").orElse("") +
+            optionalQuantityInStock().map(f -> "quantityInStock=" + f + ", ").orElse("") +
+            optionalStatus().map(f -> "status=" + f + ", ").orElse("") +
+            optionalInStock().map(f -> "inStock=" + f + ", ").orElse("") +
+            optionalCategoriesId().map(f -> "categoriesId=" + f + ", ").orElse("") +
+            optionalDistinct().map(f -> "distinct=" + f + ", ").orElse("") +
+        "}";
+    }
+}
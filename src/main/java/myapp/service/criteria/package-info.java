@@ -0,0 +1,4 @@
+/**
+ * Criteria for filtering entities.
+ */
+package myapp.service.criteria;
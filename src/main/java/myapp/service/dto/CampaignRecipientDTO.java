@@ -0,0 +1,6 @@
+package myapp.service.dto;
+
+/**
+ * The columns of a {@link myapp.domain.User} a mail campaign needs, read without loading the entity.
+ */
+public record CampaignRecipientDTO(Long id, String email, String langKey) {}
@@ -0,0 +1,9 @@
+package myapp.service.dto;
+
+import java.util.List;
+import myapp.domain.enumeration.CategoryStatus;
+
+/**
+ * A {@link myapp.domain.Category} of the category tree, with its children in display order.
+ */
+public record CategoryNodeDTO(Long id, String description, Integer sortOrder, CategoryStatus status, List<CategoryNodeDTO> children) {}
@@ -0,0 +1,9 @@
+package myapp.service.dto;
+
+import myapp.domain.enumeration.CategoryStatus;
+
+/**
+ * The position of a {@link myapp.domain.Category} in the category tree and what the tree shows of it, read without
+ * loading the entity.
+ */
+public record CategoryPathDTO(Long id, Long parentId, String path, String description, Integer sortOrder, CategoryStatus status) {}
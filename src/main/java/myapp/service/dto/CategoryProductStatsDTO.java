@@ -0,0 +1,15 @@
+package myapp.service.dto;
+
+import java.time.Instant;
+
+/**
+ * Aggregates over the products of a {@link myapp.domain.Category}, read without loading them.
+ */
+public record CategoryProductStatsDTO(Long categoryId, Long productCount, Long productVersions, Instant productsLastModified) {
+    /**
+     * @return the version of the products of the category, to embed in the version of the category.
+     */
+    public EntityVersionDTO productsVersion() {
+        return new EntityVersionDTO(categoryId, productVersions, productsLastModified);
+    }
+}
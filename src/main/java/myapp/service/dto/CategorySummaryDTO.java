@@ -0,0 +1,27 @@
+package myapp.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.Instant;
+import java.util.List;
+import myapp.domain.enumeration.CategoryStatus;
+
+/**
+ * A {@link myapp.domain.Category} as shown in category lists: its own columns, the number of its products and the
+ * summaries of its best rated ones, instead of all its products.
+ * <p>
+ * {@code productsVersion} is the version of all the products of the category, which the entity tag of the list is
+ * computed from; it is not serialised.
+ */
+public record CategorySummaryDTO(
+    Long id,
+    String description,
+    Integer sortOrder,
+    Instant dateAdded,
+    Instant dateModified,
+    CategoryStatus status,
+    Long parentId,
+    Long version,
+    long productCount,
+    List<ProductSummaryDTO> topProducts,
+    @JsonIgnore EntityVersionDTO productsVersion
+) {}
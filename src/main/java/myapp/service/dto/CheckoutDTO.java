@@ -0,0 +1,8 @@
+package myapp.service.dto;
+
+import java.util.List;
+
+/**
+ * A basket to check out: units of products, shipped to an address of the customer.
+ */
+public record CheckoutDTO(Long shippingAddressId, List<StockReservationDTO> items) {}
@@ -0,0 +1,62 @@
+package myapp.service.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import myapp.domain.enumeration.OrderStatus;
+
+/**
+ * An {@link myapp.domain.Order} in the order history of a customer, with its shipping address and the summary of its
+ * lines, read in one query without loading the entities.
+ *
+ * @param lineCount the number of lines of the order.
+ * @param itemCount the number of units across the lines of the order.
+ */
+public record CustomerOrderDTO(
+    Long id,
+    Instant orderDate,
+    Instant shippedDate,
+    OrderStatus status,
+    BigDecimal totalAmount,
+    BigDecimal shippingCost,
+    String trackingNumber,
+    Long version,
+    OrderAddressDTO shippingAddress,
+    long lineCount,
+    long itemCount
+) {
+    /**
+     * Flat constructor for the query constructor expression; the address is absent when the order has none.
+     */
+    public CustomerOrderDTO(
+        Long id,
+        Instant orderDate,
+        Instant shippedDate,
+        OrderStatus status,
+        BigDecimal totalAmount,
+        BigDecimal shippingCost,
+        String trackingNumber,
+        Long version,
+        Long addressId,
+        String address1,
+        String address2,
+        String city,
+        String postcode,
+        String country,
+        Long lineCount,
+        Long itemCount
+    ) {
+        this(
+            id,
+            orderDate,
+            shippedDate,
+            status,
+            totalAmount,
+            shippingCost,
+            trackingNumber,
+            version,
+            addressId == null ? null : new OrderAddressDTO(addressId, address1, address2, city, postcode, country),
+            lineCount,
+            itemCount
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package myapp.service.dto;
+
+import java.time.Instant;
+
+/**
+ * The version of the representation of an entity, read without loading the entity: its optimistic locking version,
+ * the sum of the versions of the entities embedded in it (if any) and when it was last modified.
+ */
+public record EntityVersionDTO(Long id, Long version, Long embeddedVersion, Instant lastModified) {
+    public EntityVersionDTO(Long id, Long version, Instant lastModified) {
+        this(id, version, null, lastModified);
+    }
+
+    /**
+     * Fold the version of the embedded entities into this one.
+     *
+     * @param embedded the sum of the versions of the embedded entities and their last modification, may be {@code null}
+     * when nothing is embedded.
+     * @return the version of the representation with its embedded entities.
+     */
+    public EntityVersionDTO embedding(EntityVersionDTO embedded) {
+        if (embedded == null) {
+            return new EntityVersionDTO(id, version, 0L, lastModified);
+        }
+        Instant latest = lastModified == null || (embedded.lastModified() != null && embedded.lastModified().isAfter(lastModified))
+            ? embedded.lastModified()
+            : lastModified;
+        return new EntityVersionDTO(id, version, embedded.version(), latest);
+    }
+}
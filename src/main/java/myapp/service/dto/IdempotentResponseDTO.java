@@ -0,0 +1,11 @@
+package myapp.service.dto;
+
+/**
+ * The response to a request made with an {@code Idempotency-Key}, as replayed to its duplicates.
+ *
+ * @param requestHash the hash of the request body, which a duplicate must share.
+ * @param status the HTTP status.
+ * @param headers the response headers, as JSON.
+ * @param body the response body, as JSON, may be {@code null}.
+ */
+public record IdempotentResponseDTO(String requestHash, int status, String headers, String body) {}
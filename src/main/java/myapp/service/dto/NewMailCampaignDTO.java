@@ -0,0 +1,13 @@
+package myapp.service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * A mail campaign to start: the name of its template under {@code mail/campaign/}, and the message key of its subject.
+ */
+public record NewMailCampaignDTO(
+    @NotBlank @Size(max = 100) String name,
+    @NotBlank @Size(max = 80) String templateName,
+    @NotBlank @Size(max = 100) String titleKey
+) {}
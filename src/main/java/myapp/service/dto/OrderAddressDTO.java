@@ -0,0 +1,6 @@
+package myapp.service.dto;
+
+/**
+ * The shipping {@link myapp.domain.Address} of an order, read with the order.
+ */
+public record OrderAddressDTO(Long id, String address1, String address2, String city, String postcode, String country) {}
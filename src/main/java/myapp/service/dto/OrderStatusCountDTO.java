@@ -0,0 +1,8 @@
+package myapp.service.dto;
+
+import myapp.domain.enumeration.OrderStatus;
+
+/**
+ * The number of {@link myapp.domain.Order}s in a status.
+ */
+public record OrderStatusCountDTO(OrderStatus status, long count) {}
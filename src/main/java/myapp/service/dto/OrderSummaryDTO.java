@@ -0,0 +1,19 @@
+package myapp.service.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import myapp.domain.enumeration.OrderStatus;
+
+/**
+ * The columns of an {@link myapp.domain.Order} shown in order lists, read without loading the entity.
+ */
+public record OrderSummaryDTO(
+    Long id,
+    Instant orderDate,
+    Instant shippedDate,
+    OrderStatus status,
+    BigDecimal totalAmount,
+    BigDecimal shippingCost,
+    String trackingNumber,
+    Long version
+) {}
@@ -0,0 +1,24 @@
+package myapp.service.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import myapp.domain.enumeration.ProductStatus;
+
+/**
+ * Facet counts of the {@link myapp.domain.Product}s matching a {@link myapp.service.criteria.ProductCriteria}.
+ * <p>
+ * A product without rating is counted in the {@code null} rating bucket; a price bucket is identified by its lower
+ * bound; a product in several categories is counted once per category.
+ */
+public record ProductFacetsDTO(
+    long total,
+    List<Bucket<ProductStatus>> status,
+    List<Bucket<Integer>> rating,
+    List<Bucket<BigDecimal>> price,
+    List<Bucket<Long>> category
+) {
+    /**
+     * The number of products having a facet value.
+     */
+    public record Bucket<T>(T value, long count) {}
+}
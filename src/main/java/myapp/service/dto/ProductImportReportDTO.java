@@ -0,0 +1,16 @@
+package myapp.service.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk {@link myapp.domain.Product} import.
+ * <p>
+ * {@code errors} lists the rejected rows by line number in the request body, up to a fixed limit; {@code failed}
+ * always holds the full count.
+ */
+public record ProductImportReportDTO(long imported, long failed, List<RowError> errors) {
+    /**
+     * A rejected row.
+     */
+    public record RowError(long line, String message) {}
+}
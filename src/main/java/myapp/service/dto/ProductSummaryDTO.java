@@ -0,0 +1,17 @@
+package myapp.service.dto;
+
+import java.math.BigDecimal;
+import myapp.domain.enumeration.ProductStatus;
+
+/**
+ * The columns of a {@link myapp.domain.Product} shown in product lists, read without loading the entity.
+ */
+public record ProductSummaryDTO(
+    Long id,
+    String title,
+    BigDecimal price,
+    ProductStatus status,
+    Integer rating,
+    Integer quantityInStock,
+    Long version
+) {}
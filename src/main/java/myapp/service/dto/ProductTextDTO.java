@@ -0,0 +1,6 @@
+package myapp.service.dto;
+
+/**
+ * The searchable text of a {@link myapp.domain.Product}, read without loading the entity.
+ */
+public record ProductTextDTO(Long id, String title, String keywords, String description) {}
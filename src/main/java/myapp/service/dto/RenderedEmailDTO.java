@@ -0,0 +1,6 @@
+package myapp.service.dto;
+
+/**
+ * The subject and the HTML content of an email rendered from a template.
+ */
+public record RenderedEmailDTO(String subject, String content) {}
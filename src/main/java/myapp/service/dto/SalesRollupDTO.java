@@ -0,0 +1,23 @@
+package myapp.service.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+
+/**
+ * The sales of one time bucket, as reported.
+ *
+ * @param bucketStart the start of the bucket, in UTC.
+ * @param averageBasket the revenue per order, {@code null} when there is no order.
+ */
+public record SalesRollupDTO(Instant bucketStart, long orderCount, BigDecimal revenue, BigDecimal shippingCost, BigDecimal averageBasket) {
+    public SalesRollupDTO(Instant bucketStart, Long orderCount, BigDecimal revenue, BigDecimal shippingCost) {
+        this(
+            bucketStart,
+            orderCount,
+            revenue,
+            shippingCost,
+            orderCount == 0 ? null : revenue.divide(BigDecimal.valueOf(orderCount), 2, RoundingMode.HALF_EVEN)
+        );
+    }
+}
@@ -0,0 +1,31 @@
+package myapp.service.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * The sales of a set of {@link myapp.domain.Order}s, or a change to them; sums over no order are zero.
+ */
+public record SalesTotalsDTO(long orderCount, BigDecimal revenue, BigDecimal shippingCost) {
+    public static final SalesTotalsDTO ZERO = new SalesTotalsDTO(0, BigDecimal.ZERO, BigDecimal.ZERO);
+
+    public SalesTotalsDTO {
+        revenue = revenue == null ? BigDecimal.ZERO : revenue;
+        shippingCost = shippingCost == null ? BigDecimal.ZERO : shippingCost;
+    }
+
+    public SalesTotalsDTO plus(SalesTotalsDTO other) {
+        return new SalesTotalsDTO(orderCount + other.orderCount, revenue.add(other.revenue), shippingCost.add(other.shippingCost));
+    }
+
+    public SalesTotalsDTO negate() {
+        return new SalesTotalsDTO(-orderCount, revenue.negate(), shippingCost.negate());
+    }
+
+    /**
+     * @param other other totals.
+     * @return whether both hold the same sales, whatever the scale of the amounts.
+     */
+    public boolean sameAs(SalesTotalsDTO other) {
+        return orderCount == other.orderCount && revenue.compareTo(other.revenue) == 0 && shippingCost.compareTo(other.shippingCost) == 0;
+    }
+}
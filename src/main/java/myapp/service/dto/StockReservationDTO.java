@@ -0,0 +1,6 @@
+package myapp.service.dto;
+
+/**
+ * A number of units of a {@link myapp.domain.Product} to reserve or release.
+ */
+public record StockReservationDTO(Long productId, Integer quantity) {}
@@ -0,0 +1,9 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A product on a wish list, by id, without reading the product.
+ */
+public record WishListItemDTO(Long productId, Instant addedAt) implements Serializable {}
@@ -0,0 +1,293 @@
+package myapp.service.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe in-memory inverted index ranked with BM25.
+ * <p>
+ * Each document gets a dense ordinal; postings are parallel {@code int} arrays of ordinals and term frequencies, so a
+ * query walks primitive arrays and accumulates scores into a per-thread buffer indexed by ordinal. Updates replace the
+ * whole document: the old ordinal is tombstoned and a new one is appended. Tombstones are purged from the postings
+ * once they reach a quarter of the index.
+ * <p>
+ * Queries share a read lock, updates take the write lock.
+ */
+public class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_DELETED_FOR_COMPACTION = 1024;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int maxOrdinal;
+    private int deletedCount;
+    private long totalLength;
+
+    /**
+     * An analyzed document: the (already weighted) frequency of each of its terms and its total length.
+     */
+    public record Document(long id, Map<String, Integer> termFrequencies, int length) {}
+
+    /**
+     * Ranked ids of the best matches, and the number of documents matching at least one term.
+     */
+    public record Result(List<Long> ids, int totalHits) {}
+
+    /**
+     * Add documents, replacing any already indexed with the same id.
+     *
+     * @param documents the documents.
+     */
+    public void addAll(Collection<Document> documents) {
+        lock.writeLock().lock();
+        try {
+            for (Document document : documents) {
+                removeInternal(document.id());
+                addInternal(document);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a document, replacing the one already indexed with the same id.
+     *
+     * @param document the document.
+     */
+    public void add(Document document) {
+        addAll(List.of(document));
+    }
+
+    /**
+     * Remove a document.
+     *
+     * @param id the document id.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of live documents.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank the documents matching any of the terms.
+     *
+     * @param terms the analyzed query terms; repeated terms weigh more.
+     * @param limit the maximum number of ids to return.
+     * @return the best {@code limit} ids by descending score, ties broken by ascending id.
+     */
+    public Result search(List<String> terms, int limit) {
+        Map<String, Integer> queryFrequencies = new HashMap<>();
+        for (String term : terms) {
+            queryFrequencies.merge(term, 1, Integer::sum);
+        }
+        lock.readLock().lock();
+        try {
+            int liveCount = ordinalsById.size();
+            if (liveCount == 0 || queryFrequencies.isEmpty()) {
+                return new Result(List.of(), 0);
+            }
+            Scratch scratch = SCRATCH.get();
+            scratch.ensureCapacity(maxOrdinal);
+            float[] scores = scratch.scores;
+            float averageLength = (float) totalLength / liveCount;
+            int touchedCount = 0;
+            try {
+                for (Map.Entry<String, Integer> queryTerm : queryFrequencies.entrySet()) {
+                    Postings postings = postingsByTerm.get(queryTerm.getKey());
+                    if (postings == null) {
+                        continue;
+                    }
+                    // tombstones still count until the next compaction, keep the document frequency in range
+                    int documentFrequency = Math.min(postings.size, liveCount);
+                    float idf = (float) Math.log(1 + (liveCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                    float weight = idf * queryTerm.getValue();
+                    for (int i = 0; i < postings.size; i++) {
+                        int ordinal = postings.ordinals[i];
+                        if (deleted.get(ordinal)) {
+                            continue;
+                        }
+                        int tf = postings.frequencies[i];
+                        float norm = K1 * (1 - B + B * lengths[ordinal] / averageLength);
+                        if (scores[ordinal] == 0) {
+                            touchedCount = scratch.touch(touchedCount, ordinal);
+                        }
+                        scores[ordinal] += weight * (tf * (K1 + 1)) / (tf + norm);
+                    }
+                }
+                return new Result(topHits(scratch, touchedCount, limit), touchedCount);
+            } finally {
+                for (int i = 0; i < touchedCount; i++) {
+                    scores[scratch.touched[i]] = 0;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> topHits(Scratch scratch, int touchedCount, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        float[] scores = scratch.scores;
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(limit, touchedCount) + 1, (a, b) -> compareHits(scores, a, b));
+        for (int i = 0; i < touchedCount; i++) {
+            int ordinal = scratch.touched[i];
+            if (heap.size() < limit) {
+                heap.add(ordinal);
+            } else if (compareHits(scores, ordinal, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(ordinal);
+            }
+        }
+        Long[] best = new Long[heap.size()];
+        for (int i = best.length - 1; i >= 0; i--) {
+            best[i] = ids[heap.poll()];
+        }
+        return Arrays.asList(best);
+    }
+
+    /**
+     * Orders hits from worst to best: lower score first, then higher id first.
+     */
+    private int compareHits(float[] scores, int a, int b) {
+        int byScore = Float.compare(scores[a], scores[b]);
+        return byScore != 0 ? byScore : Long.compare(ids[b], ids[a]);
+    }
+
+    private void addInternal(Document document) {
+        if (maxOrdinal == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            lengths = Arrays.copyOf(lengths, lengths.length * 2);
+        }
+        int ordinal = maxOrdinal++;
+        ids[ordinal] = document.id();
+        lengths[ordinal] = document.length();
+        totalLength += document.length();
+        ordinalsById.put(document.id(), ordinal);
+        for (Map.Entry<String, Integer> term : document.termFrequencies().entrySet()) {
+            postingsByTerm.computeIfAbsent(term.getKey(), t -> new Postings()).add(ordinal, term.getValue());
+        }
+    }
+
+    private void removeInternal(long id) {
+        Integer ordinal = ordinalsById.remove(id);
+        if (ordinal != null) {
+            deleted.set(ordinal);
+            deletedCount++;
+            totalLength -= lengths[ordinal];
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount < MIN_DELETED_FOR_COMPACTION || deletedCount * 4 < maxOrdinal) {
+            return;
+        }
+        int[] remap = new int[maxOrdinal];
+        int live = 0;
+        for (int ordinal = 0; ordinal < maxOrdinal; ordinal++) {
+            if (deleted.get(ordinal)) {
+                remap[ordinal] = -1;
+            } else {
+                remap[ordinal] = live;
+                ids[live] = ids[ordinal];
+                lengths[live] = lengths[ordinal];
+                ordinalsById.put(ids[live], live);
+                live++;
+            }
+        }
+        postingsByTerm.values().removeIf(postings -> postings.compact(remap) == 0);
+        maxOrdinal = live;
+        deletedCount = 0;
+        deleted.clear();
+    }
+
+    private static final class Postings {
+
+        private int[] ordinals = new int[2];
+        private int[] frequencies = new int[2];
+        private int size;
+
+        void add(int ordinal, int frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        int compact(int[] remap) {
+            int live = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = remap[ordinals[i]];
+                if (ordinal >= 0) {
+                    ordinals[live] = ordinal;
+                    frequencies[live] = frequencies[i];
+                    live++;
+                }
+            }
+            size = live;
+            if (size < ordinals.length / 4) {
+                ordinals = Arrays.copyOf(ordinals, Math.max(2, size));
+                frequencies = Arrays.copyOf(frequencies, Math.max(2, size));
+            }
+            return size;
+        }
+    }
+
+    private static final class Scratch {
+
+        private float[] scores = new float[0];
+        private int[] touched = new int[0];
+
+        void ensureCapacity(int capacity) {
+            if (scores.length < capacity) {
+                scores = new float[capacity];
+                touched = new int[capacity];
+            }
+        }
+
+        int touch(int touchedCount, int ordinal) {
+            touched[touchedCount] = ordinal;
+            return touchedCount + 1;
+        }
+    }
+}
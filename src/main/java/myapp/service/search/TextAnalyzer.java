@@ -0,0 +1,160 @@
+package myapp.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free text into index terms: accent folding, lower-casing, splitting on anything that is not a letter or a
+ * digit, stop word removal and a light suffix-stripping stemmer.
+ * <p>
+ * The same analyzer must be used for documents and queries, so that "Shoes" in a query matches "shoe" in a title.
+ */
+public final class TextAnalyzer {
+
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a",
+        "an",
+        "and",
+        "are",
+        "as",
+        "at",
+        "be",
+        "by",
+        "for",
+        "from",
+        "in",
+        "is",
+        "it",
+        "of",
+        "on",
+        "or",
+        "the",
+        "to",
+        "with",
+        "com",
+        "da",
+        "das",
+        "de",
+        "do",
+        "dos",
+        "em",
+        "na",
+        "no",
+        "os",
+        "para",
+        "um",
+        "uma"
+    );
+
+    /**
+     * A suffix is only stripped when at least this many characters are left, so that short words such as "tie",
+     * "gas" or "sing" are kept whole.
+     */
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private TextAnalyzer() {}
+
+    /**
+     * Analyze a text.
+     *
+     * @param text the text, may be {@code null}.
+     * @return the terms, in text order and with duplicates.
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean tokenChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                String token = folded.substring(start, i);
+                if (token.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(token)) {
+                    terms.add(stem(token));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static String fold(String text) {
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        if (isAscii(lowerCase)) {
+            return lowerCase;
+        }
+        StringBuilder folded = new StringBuilder(lowerCase.length());
+        for (char c : Normalizer.normalize(lowerCase, Normalizer.Form.NFD).toCharArray()) {
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Light stemmer: plural forms first, then the most common verbal and adverbial suffixes. It is deliberately less
+     * aggressive than Porter: digits are left untouched and no suffix is stripped below {@value #MIN_STEM_LENGTH}
+     * characters. A final "ie" becomes "y" as "ies" does, so that "movie" and "movies" share a term as "battery" and
+     * "batteries" do.
+     */
+    static String stem(String term) {
+        int length = term.length();
+        if (length <= MIN_STEM_LENGTH || Character.isDigit(term.charAt(length - 1))) {
+            return term;
+        }
+        String stem = term;
+        if (stem.endsWith("ie") && length - 1 >= MIN_STEM_LENGTH) {
+            stem = stem.substring(0, length - 2) + "y";
+        } else if (stem.endsWith("ies") && length - 2 >= MIN_STEM_LENGTH) {
+            stem = stem.substring(0, length - 3) + "y";
+        } else if (stem.endsWith("sses") || stem.endsWith("ches") || stem.endsWith("shes") || stem.endsWith("xes")) {
+            stem = strip(stem, 2);
+        } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us") && !stem.endsWith("is")) {
+            stem = strip(stem, 1);
+        }
+        if (stem.endsWith("ing")) {
+            stem = undouble(strip(stem, 3));
+        } else if (stem.endsWith("ed")) {
+            stem = undouble(strip(stem, 2));
+        } else if (stem.endsWith("ly")) {
+            stem = strip(stem, 2);
+        }
+        return stem;
+    }
+
+    private static String strip(String term, int suffixLength) {
+        int stemLength = term.length() - suffixLength;
+        return stemLength >= MIN_STEM_LENGTH ? term.substring(0, stemLength) : term;
+    }
+
+    /**
+     * "runn" (from "running") becomes "run", "fall" and "pass" are kept.
+     */
+    private static String undouble(String stem) {
+        int length = stem.length();
+        char last = stem.charAt(length - 1);
+        if (length > 2 && last == stem.charAt(length - 2) && "aeioulsz".indexOf(last) < 0 && Character.isLetter(last)) {
+            return stem.substring(0, length - 1);
+        }
+        return stem;
+    }
+}
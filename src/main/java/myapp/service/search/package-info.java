@@ -0,0 +1,4 @@
+/**
+ * In-process full-text search.
+ */
+package myapp.service.search;
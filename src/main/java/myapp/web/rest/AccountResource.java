@@ -2,21 +2,31 @@ package myapp.web.rest;
 
 import jakarta.validation.Valid;
 import java.util.*;
+import myapp.domain.Order;
 import myapp.domain.User;
 import myapp.repository.UserRepository;
 import myapp.security.SecurityUtils;
-import myapp.service.MailService;
+import myapp.service.CustomerService;
+import myapp.service.OrderService;
 import myapp.service.UserService;
 import myapp.service.dto.AdminUserDTO;
+import myapp.service.dto.CustomerOrderDTO;
 import myapp.service.dto.PasswordChangeDTO;
 import myapp.web.rest.errors.*;
 import myapp.web.rest.vm.KeyAndPasswordVM;
 import myapp.web.rest.vm.ManagedUserVM;
+import myapp.web.util.KeysetPaginationUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
  * REST controller for managing the current user's account.
@@ -38,12 +48,20 @@ public class AccountResource {
 
     private final UserService userService;
 
-    private final MailService mailService;
+    private final CustomerService customerService;
 
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    private final OrderService orderService;
+
+    public AccountResource(
+        UserRepository userRepository,
+        UserService userService,
+        CustomerService customerService,
+        OrderService orderService
+    ) {
         this.userRepository = userRepository;
         this.userService = userService;
-        this.mailService = mailService;
+        this.customerService = customerService;
+        this.orderService = orderService;
     }
 
     /**
@@ -60,8 +78,7 @@ public class AccountResource {
         if (isPasswordLengthInvalid(managedUserVM.getPassword())) {
             throw new InvalidPasswordException();
         }
-        User user = userService.registerUser(managedUserVM, managedUserVM.getPassword());
-        mailService.sendActivationEmail(user);
+        userService.registerUser(managedUserVM, managedUserVM.getPassword());
     }
 
     /**
@@ -92,6 +109,31 @@ public class AccountResource {
             .orElseThrow(() -> new AccountResourceException("User could not be found"));
     }
 
+    /**
+     * {@code GET  /account/orders} : get the order history of the current user, newest first.
+     * <p>
+     * The current user is resolved to the customer linked to it; a user who is not a customer has no orders. The
+     * orders are returned in cursor mode, like {@code GET /customers/:id/orders}.
+     *
+     * @param pageable the pagination information, of which only the size is used.
+     * @param after the cursor returned with the previous window, absent or empty for the first window.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of orders in body.
+     */
+    @GetMapping("/account/orders")
+    public ResponseEntity<List<CustomerOrderDTO>> getAccountOrders(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
+    ) {
+        KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(after, Order.class, OrderService.CUSTOMER_ORDER_SORT, "order");
+        Optional<Long> customerId = customerService.findCurrentCustomerId();
+        if (customerId.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        Window<CustomerOrderDTO> window = orderService.findCustomerOrders(customerId.orElseThrow(), position, pageable.getPageSize());
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
     /**
      * {@code POST  /account} : update the current user information.
      *
@@ -142,9 +184,7 @@ public class AccountResource {
     @PostMapping(path = "/account/reset-password/init")
     public void requestPasswordReset(@RequestBody String mail) {
         Optional<User> user = userService.requestPasswordReset(mail);
-        if (user.isPresent()) {
-            mailService.sendPasswordResetMail(user.orElseThrow());
-        } else {
+        if (user.isEmpty()) {
             // Pretend the request has been successful to prevent checking which emails really exist
             // but log that an invalid attempt has been made
             LOG.warn("Password reset requested for non existing mail");
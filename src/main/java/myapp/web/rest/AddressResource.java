@@ -7,14 +7,20 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import myapp.domain.Address;
 import myapp.repository.AddressRepository;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.util.KeysetPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -36,6 +42,8 @@ public class AddressResource {
 
     private static final String ENTITY_NAME = "address";
 
+    private static final Set<String> KEYSET_SORT_PROPERTIES = Set.of("address1", "city", "postcode", "country");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -156,18 +164,37 @@ public class AddressResource {
 
     /**
      * {@code GET  /addresses} : get all the addresses.
+     * <p>
+     * When {@code after} is present the addresses are returned in cursor mode: the query seeks past the cursor on
+     * {@code (sort key, id)}, no total count is computed and the next cursor is sent in the {@code Link} header.
      *
      * @param pageable the pagination information.
+     * @param after the cursor returned with the previous window, empty for the first window.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of addresses in body.
      */
     @GetMapping("")
-    public ResponseEntity<List<Address>> getAllAddresses(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<Address>> getAllAddresses(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
+    ) {
+        if (after != null) {
+            return getAddressesAfter(pageable, after);
+        }
         LOG.debug("REST request to get a page of Addresses");
         Page<Address> page = addressRepository.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    private ResponseEntity<List<Address>> getAddressesAfter(Pageable pageable, String after) {
+        LOG.debug("REST request to get a window of Addresses");
+        Sort sort = KeysetPaginationUtil.keysetSort(pageable.getSort(), KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+        KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(after, Address.class, sort, ENTITY_NAME);
+        Window<Address> window = addressRepository.findAllBy(position, sort, Limit.of(pageable.getPageSize()));
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
     /**
      * {@code GET  /addresses/:id} : get the "id" address.
      *
@@ -4,25 +4,40 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import myapp.domain.Category;
+import myapp.domain.Product;
 import myapp.repository.CategoryRepository;
 import myapp.service.CategoryService;
+import myapp.service.CategoryTreeService;
+import myapp.service.ProductQueryService;
+import myapp.service.dto.CategoryNodeDTO;
+import myapp.service.dto.CategorySummaryDTO;
+import myapp.service.dto.EntityVersionDTO;
+import myapp.service.dto.ProductSummaryDTO;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.util.EntityTagUtil;
+import myapp.web.util.KeysetPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link myapp.domain.Category}.
@@ -35,15 +50,34 @@ public class CategoryResource {
 
     private static final String ENTITY_NAME = "category";
 
+    private static final String PRODUCT_ENTITY_NAME = "product";
+
+    private static final int DEFAULT_TOP_PRODUCTS = 5;
+
+    private static final int MAX_TOP_PRODUCTS = 20;
+
+    private static final Set<String> PRODUCT_KEYSET_SORT_PROPERTIES = Set.of("title", "price", "status", "dateAdded");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final CategoryService categoryService;
 
+    private final CategoryTreeService categoryTreeService;
+
+    private final ProductQueryService productQueryService;
+
     private final CategoryRepository categoryRepository;
 
-    public CategoryResource(CategoryService categoryService, CategoryRepository categoryRepository) {
+    public CategoryResource(
+        CategoryService categoryService,
+        CategoryTreeService categoryTreeService,
+        ProductQueryService productQueryService,
+        CategoryRepository categoryRepository
+    ) {
         this.categoryService = categoryService;
+        this.categoryTreeService = categoryTreeService;
+        this.productQueryService = productQueryService;
         this.categoryRepository = categoryRepository;
     }
 
@@ -79,6 +113,7 @@ public class CategoryResource {
     @PutMapping("/{id}")
     public ResponseEntity<Category> updateCategory(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody Category category
     ) throws URISyntaxException {
         LOG.debug("REST request to update Category : {}, {}", id, category);
@@ -89,13 +124,12 @@ public class CategoryResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!categoryRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        category = categoryService.update(category);
+        category = categoryService
+            .update(category, EntityTagUtil.expectedVersion(ifMatch, category.getVersion(), ENTITY_NAME))
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, category.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(category.getVersion()))
             .body(category);
     }
 
@@ -113,6 +147,7 @@ public class CategoryResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Category> partialUpdateCategory(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody Category category
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Category partially : {}, {}", id, category);
@@ -123,52 +158,132 @@ public class CategoryResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!categoryRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Category> result = categoryService.partialUpdate(category);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, category.getId().toString())
-        );
+        Category result = categoryService
+            .partialUpdate(category, EntityTagUtil.expectedVersion(ifMatch, category.getVersion(), ENTITY_NAME))
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .body(result);
     }
 
     /**
      * {@code GET  /categories} : get all the categories.
+     * <p>
+     * The categories are returned as {@link CategorySummaryDTO}s: the number of products of each category and the
+     * summaries of its best rated ones, never all of them; {@code GET /categories/:id/products} pages through the
+     * products of a category.
      *
      * @param pageable the pagination information.
-     * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body.
+     * @param topProducts the maximum number of product summaries per category, {@value #DEFAULT_TOP_PRODUCTS} by default.
+     * @param requestHeaders the request headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of category summaries in body, or with status
+     * {@code 304 (Not Modified)} when the entity tag of the page, computed from the versions of its categories and of
+     * their products and the total count, still matches.
      */
     @GetMapping("")
-    public ResponseEntity<List<Category>> getAllCategories(
+    public ResponseEntity<List<CategorySummaryDTO>> getAllCategories(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+        @RequestParam(name = "topProducts", required = false, defaultValue = "" + DEFAULT_TOP_PRODUCTS) int topProducts,
+        @RequestHeader HttpHeaders requestHeaders
     ) {
         LOG.debug("REST request to get a page of Categories");
-        Page<Category> page;
-        if (eagerload) {
-            page = categoryService.findAllWithEagerRelationships(pageable);
-        } else {
-            page = categoryService.findAll(pageable);
+        if (topProducts < 0 || topProducts > MAX_TOP_PRODUCTS) {
+            throw new BadRequestAlertException("topProducts must be between 0 and " + MAX_TOP_PRODUCTS, ENTITY_NAME, "topproductsinvalid");
+        }
+        if (EntityTagUtil.isConditional(requestHeaders)) {
+            Page<EntityVersionDTO> versions = categoryService.findAllVersions(pageable);
+            String eTag = EntityTagUtil.collectionTag(versions.getTotalElements(), versions.getContent());
+            if (EntityTagUtil.isNotModified(requestHeaders, eTag, null)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
         }
+        Page<CategorySummaryDTO> page = categoryService.findAllSummaries(pageable, topProducts);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        String eTag = EntityTagUtil.collectionTag(
+            page.getTotalElements(),
+            page
+                .map(category ->
+                    new EntityVersionDTO(category.id(), category.version(), null).embedding(category.productsVersion())
+                )
+                .getContent()
+        );
+        return ResponseEntity.ok().headers(headers).eTag(eTag).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /categories/tree} : get the category tree.
+     * <p>
+     * Served from memory; disabled categories are left out with their subtree, siblings are ordered by sort order.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the root categories, with their children, in body.
+     */
+    @GetMapping("/tree")
+    public ResponseEntity<List<CategoryNodeDTO>> getCategoryTree() {
+        LOG.debug("REST request to get the Category tree");
+        return ResponseEntity.ok().body(categoryTreeService.getTree());
     }
 
     /**
      * {@code GET  /categories/:id} : get the "id" category.
+     * <p>
+     * A conditional request ({@code If-None-Match} or {@code If-Modified-Since}) is first checked against the versions
+     * of the category and of its products, read without loading them, and answered with {@code 304 (Not Modified)} when
+     * the client copy is current.
      *
      * @param id the id of the category to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the category, or with status {@code 404 (Not Found)}.
+     * @param requestHeaders the request headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the category, or with status {@code 304 (Not Modified)},
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategory(@PathVariable("id") Long id) {
+    public ResponseEntity<Category> getCategory(@PathVariable("id") Long id, @RequestHeader HttpHeaders requestHeaders) {
         LOG.debug("REST request to get Category : {}", id);
+        if (EntityTagUtil.isConditional(requestHeaders)) {
+            Optional<EntityVersionDTO> version = categoryService.findVersion(id);
+            if (EntityTagUtil.isNotModified(requestHeaders, version)) {
+                return EntityTagUtil.notModified(version.orElseThrow());
+            }
+        }
         Optional<Category> category = categoryService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(category);
+        return EntityTagUtil.wrapOrNotFound(category, CategoryResource::versionOf);
+    }
+
+    /**
+     * {@code GET  /categories/:id/products} : get the products of the "id" category, in keyset windows.
+     * <p>
+     * The query seeks past the {@code after} cursor on {@code (sort key, id)} and no total count is computed, so every
+     * window costs the same however large the category; the next cursor is sent in the {@code Link} header.
+     *
+     * @param id the id of the category.
+     * @param includeDescendants whether the products of all the descendants of the category are listed too.
+     * @param pageable the window size and sort; the page number is ignored.
+     * @param after the cursor returned with the previous window, empty or absent for the first window.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of product summaries in body, or
+     * with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/products")
+    public ResponseEntity<List<ProductSummaryDTO>> getCategoryProducts(
+        @PathVariable("id") Long id,
+        @RequestParam(name = "includeDescendants", required = false, defaultValue = "false") boolean includeDescendants,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
+    ) {
+        LOG.debug("REST request to get a window of the Products of Category : {}, descendants: {}", id, includeDescendants);
+        String descendantsPathPrefix = categoryService
+            .findDescendantsPathPrefix(id)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        Sort sort = KeysetPaginationUtil.keysetSort(pageable.getSort(), PRODUCT_KEYSET_SORT_PROPERTIES, PRODUCT_ENTITY_NAME);
+        KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(after, Product.class, sort, PRODUCT_ENTITY_NAME);
+        Window<ProductSummaryDTO> window = productQueryService.findSummariesInCategory(
+            id,
+            includeDescendants ? descendantsPathPrefix : null,
+            position,
+            sort,
+            pageable.getPageSize()
+        );
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
     }
 
     /**
@@ -185,4 +300,19 @@ public class CategoryResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static EntityVersionDTO versionOf(Category category) {
+        Instant lastModified = category.getDateModified() != null ? category.getDateModified() : category.getDateAdded();
+        EntityVersionDTO version = new EntityVersionDTO(category.getId(), category.getVersion(), lastModified);
+        long productVersions = 0;
+        Instant productsLastModified = null;
+        for (Product product : category.getProducts()) {
+            productVersions += product.getVersion();
+            Instant productLastModified = product.getDateModified() != null ? product.getDateModified() : product.getDateAdded();
+            if (productsLastModified == null || productLastModified.isAfter(productsLastModified)) {
+                productsLastModified = productLastModified;
+            }
+        }
+        return version.embedding(new EntityVersionDTO(category.getId(), productVersions, productsLastModified));
+    }
 }
@@ -0,0 +1,82 @@
+package myapp.web.rest;
+
+import jakarta.validation.constraints.NotNull;
+import java.net.URI;
+import java.net.URISyntaxException;
+import myapp.aop.idempotency.Idempotent;
+import myapp.config.ApplicationProperties;
+import myapp.domain.Order;
+import myapp.service.CheckoutService;
+import myapp.service.dto.CheckoutDTO;
+import myapp.service.dto.StockReservationDTO;
+import myapp.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.HeaderUtil;
+
+/**
+ * REST controller for checking out a basket into an {@link Order}.
+ */
+@RestController
+@RequestMapping("/api/checkout")
+public class CheckoutResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CheckoutResource.class);
+
+    private static final String ENTITY_NAME = "order";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final CheckoutService checkoutService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public CheckoutResource(CheckoutService checkoutService, ApplicationProperties applicationProperties) {
+        this.checkoutService = checkoutService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * {@code POST  /checkout} : place an order for a basket: reserve the stock of its products and save the order, with
+     * its totals computed from the current prices, all or nothing.
+     *
+     * @param checkout the basket and its shipping address.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new order,
+     * or with status {@code 400 (Bad Request)} if the basket is not valid or the shipping address is not one of the customer,
+     * or with status {@code 404 (Not Found)} if a product does not exist,
+     * or with status {@code 409 (Conflict)} if a product does not have enough units in stock.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("")
+    @Idempotent
+    public ResponseEntity<Order> checkout(@NotNull @RequestBody CheckoutDTO checkout) throws URISyntaxException {
+        LOG.debug("REST request to check out : {}", checkout);
+        checkBasket(checkout);
+        Order order = checkoutService.checkout(checkout);
+        return ResponseEntity.created(new URI("/api/orders/" + order.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, order.getId().toString()))
+            .body(order);
+    }
+
+    private void checkBasket(CheckoutDTO checkout) {
+        if (checkout.shippingAddressId() == null) {
+            throw new BadRequestAlertException("A shipping address is required", ENTITY_NAME, "addressnull");
+        }
+        int maxItems = applicationProperties.getCheckout().getMaxItems();
+        if (checkout.items() == null || checkout.items().isEmpty() || checkout.items().size() > maxItems) {
+            throw new BadRequestAlertException("Between 1 and " + maxItems + " items", ENTITY_NAME, "itemsinvalid");
+        }
+        for (StockReservationDTO item : checkout.items()) {
+            if (item == null || item.productId() == null) {
+                throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+            }
+            if (item.quantity() == null || item.quantity() <= 0) {
+                throw new BadRequestAlertException("Quantity must be positive", ENTITY_NAME, "quantityinvalid");
+            }
+        }
+    }
+}
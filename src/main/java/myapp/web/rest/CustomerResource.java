@@ -7,18 +7,30 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import myapp.domain.Customer;
+import myapp.domain.Order;
 import myapp.repository.CustomerRepository;
+import myapp.security.AuthoritiesConstants;
 import myapp.service.CustomerService;
+import myapp.service.OrderService;
+import myapp.service.dto.CustomerOrderDTO;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.util.KeysetPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -35,6 +47,8 @@ public class CustomerResource {
 
     private static final String ENTITY_NAME = "customer";
 
+    private static final Set<String> KEYSET_SORT_PROPERTIES = Set.of("firstName", "lastName", "email");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,9 +56,12 @@ public class CustomerResource {
 
     private final CustomerRepository customerRepository;
 
-    public CustomerResource(CustomerService customerService, CustomerRepository customerRepository) {
+    private final OrderService orderService;
+
+    public CustomerResource(CustomerService customerService, CustomerRepository customerRepository, OrderService orderService) {
         this.customerService = customerService;
         this.customerRepository = customerRepository;
+        this.orderService = orderService;
     }
 
     /**
@@ -137,18 +154,37 @@ public class CustomerResource {
 
     /**
      * {@code GET  /customers} : get all the customers.
+     * <p>
+     * When {@code after} is present the customers are returned in cursor mode: the query seeks past the cursor on
+     * {@code (sort key, id)}, no total count is computed and the next cursor is sent in the {@code Link} header.
      *
      * @param pageable the pagination information.
+     * @param after the cursor returned with the previous window, empty for the first window.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of customers in body.
      */
     @GetMapping("")
-    public ResponseEntity<List<Customer>> getAllCustomers(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<Customer>> getAllCustomers(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
+    ) {
+        if (after != null) {
+            return getCustomersAfter(pageable, after);
+        }
         LOG.debug("REST request to get a page of Customers");
         Page<Customer> page = customerService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    private ResponseEntity<List<Customer>> getCustomersAfter(Pageable pageable, String after) {
+        LOG.debug("REST request to get a window of Customers");
+        Sort sort = KeysetPaginationUtil.keysetSort(pageable.getSort(), KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+        KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(after, Customer.class, sort, ENTITY_NAME);
+        Window<Customer> window = customerService.findAll(position, sort, pageable.getPageSize());
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
     /**
      * {@code GET  /customers/:id} : get the "id" customer.
      *
@@ -162,6 +198,40 @@ public class CustomerResource {
         return ResponseUtil.wrapOrNotFound(customer);
     }
 
+    /**
+     * {@code GET  /customers/:id/orders} : get the order history of the "id" customer, newest first.
+     * <p>
+     * The orders are always returned in cursor mode, sorted by {@code orderDate} descending; the requested sort is
+     * ignored. Each order comes with its shipping address and the summary of its lines. Customers read their own
+     * history through {@code GET /account/orders}.
+     *
+     * @param id the id of the customer.
+     * @param pageable the pagination information, of which only the size is used.
+     * @param after the cursor returned with the previous window, absent or empty for the first window.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of orders in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/orders")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<CustomerOrderDTO>> getCustomerOrders(
+        @PathVariable("id") Long id,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
+    ) {
+        LOG.debug("REST request to get a window of the Orders of Customer : {}", id);
+        KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(
+            after,
+            Order.class,
+            OrderService.CUSTOMER_ORDER_SORT,
+            ENTITY_NAME
+        );
+        if (!customerRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        Window<CustomerOrderDTO> window = orderService.findCustomerOrders(id, position, pageable.getPageSize());
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
     /**
      * {@code DELETE  /customers/:id} : delete the "id" customer.
      *
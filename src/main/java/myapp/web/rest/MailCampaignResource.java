@@ -0,0 +1,102 @@
+package myapp.web.rest;
+
+import jakarta.validation.Valid;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import myapp.domain.MailCampaign;
+import myapp.security.AuthoritiesConstants;
+import myapp.service.MailCampaignService;
+import myapp.service.dto.NewMailCampaignDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for managing {@link MailCampaign}s, sent to every activated user.
+ */
+@RestController
+@RequestMapping("/api/admin/mail-campaigns")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class MailCampaignResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailCampaignResource.class);
+
+    private static final String ENTITY_NAME = "mailCampaign";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final MailCampaignService mailCampaignService;
+
+    public MailCampaignResource(MailCampaignService mailCampaignService) {
+        this.mailCampaignService = mailCampaignService;
+    }
+
+    /**
+     * {@code POST  /admin/mail-campaigns} : Create a new mail campaign, which starts sending within a minute.
+     *
+     * @param campaign the template and subject of the campaign.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new campaign, or with status {@code 400 (Bad Request)} if the template or subject cannot be rendered.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("")
+    public ResponseEntity<MailCampaign> createMailCampaign(@Valid @RequestBody NewMailCampaignDTO campaign) throws URISyntaxException {
+        LOG.debug("REST request to create MailCampaign : {}", campaign);
+        MailCampaign result = mailCampaignService.create(campaign.name(), campaign.templateName(), campaign.titleKey());
+        return ResponseEntity.created(new URI("/api/admin/mail-campaigns/" + result.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code GET  /admin/mail-campaigns} : get all the mail campaigns, with their progress.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of campaigns in body.
+     */
+    @GetMapping("")
+    public ResponseEntity<List<MailCampaign>> getAllMailCampaigns(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+        LOG.debug("REST request to get a page of MailCampaigns");
+        Page<MailCampaign> page = mailCampaignService.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /admin/mail-campaigns/:id} : get the "id" mail campaign.
+     *
+     * @param id the id of the campaign to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the campaign, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<MailCampaign> getMailCampaign(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get MailCampaign : {}", id);
+        return ResponseUtil.wrapOrNotFound(mailCampaignService.findOne(id));
+    }
+
+    /**
+     * {@code POST  /admin/mail-campaigns/:id/cancel} : cancel the "id" mail campaign; the emails being sent are not recalled.
+     *
+     * @param id the id of the campaign to cancel.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the campaign, or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<MailCampaign> cancelMailCampaign(@PathVariable("id") Long id) {
+        LOG.debug("REST request to cancel MailCampaign : {}", id);
+        return ResponseUtil.wrapOrNotFound(
+            mailCampaignService.cancel(id),
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString())
+        );
+    }
+}
@@ -5,17 +5,29 @@ import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import myapp.aop.idempotency.Idempotent;
 import myapp.domain.Order;
+import myapp.domain.OrderLine;
+import myapp.domain.enumeration.OrderStatus;
 import myapp.repository.OrderRepository;
 import myapp.service.OrderService;
+import myapp.service.OrderStatusCountService;
+import myapp.service.dto.OrderSummaryDTO;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.util.EntityTagUtil;
+import myapp.web.util.KeysetPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -35,6 +47,8 @@ public class OrderResource {
 
     private static final String ENTITY_NAME = "order";
 
+    private static final Set<String> KEYSET_SORT_PROPERTIES = Set.of("orderDate", "status", "totalAmount");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,24 +56,35 @@ public class OrderResource {
 
     private final OrderRepository orderRepository;
 
-    public OrderResource(OrderService orderService, OrderRepository orderRepository) {
+    private final OrderStatusCountService orderStatusCountService;
+
+    public OrderResource(OrderService orderService, OrderRepository orderRepository, OrderStatusCountService orderStatusCountService) {
         this.orderService = orderService;
         this.orderRepository = orderRepository;
+        this.orderStatusCountService = orderStatusCountService;
     }
 
     /**
      * {@code POST  /orders} : Create a new order.
+     * <p>
+     * Each line only needs a product id and a quantity: the unit prices are those of the products, and the total
+     * amount of an order with lines is computed from them. A retry carrying the {@code Idempotency-Key} of a completed
+     * request gets its response back instead of creating another order.
      *
      * @param order the order to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new order, or with status {@code 400 (Bad Request)} if the order has already an ID.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new order, or with status {@code 400 (Bad Request)} if the order has already an ID
+     * or a line is invalid, or with status {@code 404 (Not Found)} if the product of a line does not exist, or with status
+     * {@code 409 (Conflict)} if the order is not {@code PENDING}.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("")
+    @Idempotent
     public ResponseEntity<Order> createOrder(@Valid @RequestBody Order order) throws URISyntaxException {
         LOG.debug("REST request to save Order : {}", order);
         if (order.getId() != null) {
             throw new BadRequestAlertException("A new order cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        checkLines(order);
         order = orderService.save(order);
         return ResponseEntity.created(new URI("/api/orders/" + order.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, order.getId().toString()))
@@ -77,8 +102,11 @@ public class OrderResource {
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Order> updateOrder(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody Order order)
-        throws URISyntaxException {
+    public ResponseEntity<Order> updateOrder(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @Valid @RequestBody Order order
+    ) throws URISyntaxException {
         LOG.debug("REST request to update Order : {}, {}", id, order);
         if (order.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -87,13 +115,12 @@ public class OrderResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!orderRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        order = orderService.update(order);
+        order = orderService
+            .update(order, EntityTagUtil.expectedVersion(ifMatch, order.getVersion(), ENTITY_NAME))
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, order.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(order.getVersion()))
             .body(order);
     }
 
@@ -111,6 +138,7 @@ public class OrderResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Order> partialUpdateOrder(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody Order order
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Order partially : {}, {}", id, order);
@@ -121,32 +149,99 @@ public class OrderResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!orderRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<Order> result = orderService.partialUpdate(order);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, order.getId().toString())
-        );
+        Order result = orderService
+            .partialUpdate(order, EntityTagUtil.expectedVersion(ifMatch, order.getVersion(), ENTITY_NAME))
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .body(result);
     }
 
     /**
      * {@code GET  /orders} : get all the orders.
+     * <p>
+     * When {@code after} is present the orders are returned in cursor mode: the query seeks past the cursor on
+     * {@code (sort key, id)}, no total count is computed and the next cursor is sent in the {@code Link} header.
      *
      * @param pageable the pagination information.
+     * @param status the status of the orders to list, all orders when absent; the open statuses are indexed.
+     * @param after the cursor returned with the previous window, empty for the first window.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of orders in body.
      */
     @GetMapping("")
-    public ResponseEntity<List<Order>> getAllOrders(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
-        LOG.debug("REST request to get a page of Orders");
-        Page<Order> page = orderService.findAll(pageable);
+    public ResponseEntity<List<Order>> getAllOrders(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = "status", required = false) OrderStatus status,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
+    ) {
+        if (after != null) {
+            return getOrdersAfter(pageable, status, after);
+        }
+        LOG.debug("REST request to get a page of Orders, in status : {}", status);
+        Page<Order> page = orderService.findAll(status, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    private ResponseEntity<List<Order>> getOrdersAfter(Pageable pageable, OrderStatus status, String after) {
+        LOG.debug("REST request to get a window of Orders, in status : {}", status);
+        Sort sort = KeysetPaginationUtil.keysetSort(pageable.getSort(), KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+        KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(after, Order.class, sort, ENTITY_NAME);
+        Window<Order> window = orderService.findAll(status, position, sort, pageable.getPageSize());
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
+    /**
+     * {@code GET  /orders/summaries} : get the summaries of all the orders.
+     * <p>
+     * The orders are returned as {@link OrderSummaryDTO}s, read without loading the entities. Paging, cursors and the
+     * status filter work as for {@code GET /orders}.
+     *
+     * @param pageable the pagination information.
+     * @param status the status of the orders to list, all orders when absent.
+     * @param after the cursor returned with the previous window, empty for the first window.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of order summaries in body.
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<List<OrderSummaryDTO>> getAllOrderSummaries(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = "status", required = false) OrderStatus status,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
+    ) {
+        if (after != null) {
+            return getOrderSummariesAfter(pageable, status, after);
+        }
+        LOG.debug("REST request to get the summaries of a page of Orders, in status : {}", status);
+        Page<OrderSummaryDTO> page = orderService.findAllSummaries(status, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    private ResponseEntity<List<OrderSummaryDTO>> getOrderSummariesAfter(Pageable pageable, OrderStatus status, String after) {
+        LOG.debug("REST request to get the summaries of a window of Orders, in status : {}", status);
+        Sort sort = KeysetPaginationUtil.keysetSort(pageable.getSort(), KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+        KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(after, Order.class, sort, ENTITY_NAME);
+        Window<OrderSummaryDTO> window = orderService.findAllSummaries(status, position, sort, pageable.getPageSize());
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
+    /**
+     * {@code GET  /orders/status-counts} : get the number of orders in each status.
+     * <p>
+     * The counts are kept in memory rather than counted on each request, and may lag behind changes made by other
+     * instances for a few minutes.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the counts in body, by status.
+     */
+    @GetMapping("/status-counts")
+    public ResponseEntity<Map<OrderStatus, Long>> getOrderStatusCounts() {
+        LOG.debug("REST request to get the number of Orders in each status");
+        return ResponseEntity.ok(orderStatusCountService.getCounts());
+    }
+
     /**
      * {@code GET  /orders/:id} : get the "id" order.
      *
@@ -174,4 +269,21 @@ public class OrderResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static void checkLines(Order order) {
+        if (order.getLines() == null) {
+            return;
+        }
+        for (OrderLine line : order.getLines()) {
+            if (line.getId() != null) {
+                throw new BadRequestAlertException("A new order line cannot already have an ID", ENTITY_NAME, "idexists");
+            }
+            if (line.getProduct() == null || line.getProduct().getId() == null) {
+                throw new BadRequestAlertException("Invalid product id", ENTITY_NAME, "idnull");
+            }
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new BadRequestAlertException("Quantity must be positive", ENTITY_NAME, "quantityinvalid");
+            }
+        }
+    }
 }
@@ -1,28 +1,53 @@
 package myapp.web.rest;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import myapp.domain.Product;
 import myapp.repository.ProductRepository;
+import myapp.service.ProductExportService;
+import myapp.service.ProductFileFormat;
+import myapp.service.ProductImportService;
+import myapp.service.ProductNotFoundException;
+import myapp.service.ProductQueryService;
 import myapp.service.ProductService;
+import myapp.service.ProductStockService;
+import myapp.service.criteria.ProductCriteria;
+import myapp.service.dto.EntityVersionDTO;
+import myapp.service.dto.ProductFacetsDTO;
+import myapp.service.dto.ProductImportReportDTO;
+import myapp.service.dto.ProductSummaryDTO;
+import myapp.service.dto.StockReservationDTO;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.util.EntityTagUtil;
+import myapp.web.util.KeysetPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link myapp.domain.Product}.
@@ -35,6 +60,8 @@ public class ProductResource {
 
     private static final String ENTITY_NAME = "product";
 
+    private static final Set<String> KEYSET_SORT_PROPERTIES = Set.of("title", "price", "status", "dateAdded");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,9 +69,28 @@ public class ProductResource {
 
     private final ProductRepository productRepository;
 
-    public ProductResource(ProductService productService, ProductRepository productRepository) {
+    private final ProductQueryService productQueryService;
+
+    private final ProductImportService productImportService;
+
+    private final ProductExportService productExportService;
+
+    private final ProductStockService productStockService;
+
+    public ProductResource(
+        ProductService productService,
+        ProductRepository productRepository,
+        ProductQueryService productQueryService,
+        ProductImportService productImportService,
+        ProductExportService productExportService,
+        ProductStockService productStockService
+    ) {
         this.productService = productService;
         this.productRepository = productRepository;
+        this.productQueryService = productQueryService;
+        this.productImportService = productImportService;
+        this.productExportService = productExportService;
+        this.productStockService = productStockService;
     }
 
     /**
@@ -66,6 +112,29 @@ public class ProductResource {
             .body(product);
     }
 
+    /**
+     * {@code POST  /products/_import} : Import products in bulk.
+     * <p>
+     * The body is streamed, either as NDJSON (one product per line) or as CSV with a header row naming the product
+     * properties. Invalid rows are reported and skipped, the valid ones are imported.
+     *
+     * @param contentType the body format, {@code application/x-ndjson} or {@code text/csv}.
+     * @param body the products to import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import report.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/_import", consumes = { "application/x-ndjson", "text/csv" })
+    public ResponseEntity<ProductImportReportDTO> importProducts(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        InputStream body
+    ) throws IOException {
+        LOG.debug("REST request to import Products as {}", contentType);
+        ProductImportReportDTO report = productImportService.importProducts(body, ProductFileFormat.from(List.of(contentType)));
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createAlert(applicationName, report.imported() + " products imported", String.valueOf(report.imported())))
+            .body(report);
+    }
+
     /**
      * {@code PUT  /products/:id} : Updates an existing product.
      *
@@ -79,6 +148,7 @@ public class ProductResource {
     @PutMapping("/{id}")
     public ResponseEntity<Product> updateProduct(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody Product product
     ) throws URISyntaxException {
         LOG.debug("REST request to update Product : {}, {}", id, product);
@@ -89,13 +159,14 @@ public class ProductResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!productRepository.existsById(id)) {
+        try {
+            product = productService.update(product, EntityTagUtil.expectedVersion(ifMatch, product.getVersion(), ENTITY_NAME));
+        } catch (ProductNotFoundException e) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
-
-        product = productService.update(product);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, product.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(product.getVersion()))
             .body(product);
     }
 
@@ -113,6 +184,7 @@ public class ProductResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Product> partialUpdateProduct(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody Product product
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Product partially : {}, {}", id, product);
@@ -123,43 +195,285 @@ public class ProductResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!productRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        Product result = productService
+            .partialUpdate(product, EntityTagUtil.expectedVersion(ifMatch, product.getVersion(), ENTITY_NAME))
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(result.getVersion()))
+            .body(result);
+    }
+
+    /**
+     * {@code GET  /products} : get all the products.
+     * <p>
+     * When {@code after} is present the products are returned in cursor mode: the query seeks past the cursor on
+     * {@code (sort key, id)}, no total count is computed and the next cursor is sent in the {@code Link} header.
+     * Otherwise the page carries an entity tag computed from the versions of its products and the total count; a
+     * conditional request is first checked against the versions alone.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the cursor returned with the previous window, empty for the first window.
+     * @param requestHeaders the request headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body, or with status
+     * {@code 304 (Not Modified)}.
+     */
+    @GetMapping("")
+    public ResponseEntity<List<Product>> getAllProducts(
+        ProductCriteria criteria,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @RequestHeader HttpHeaders requestHeaders
+    ) {
+        if (after != null) {
+            return getProductsAfter(criteria, pageable, after);
         }
+        LOG.debug("REST request to get Products by criteria: {}", criteria);
+        Optional<String> notModifiedTag = notModifiedTag(criteria, pageable, requestHeaders);
+        if (notModifiedTag.isPresent()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModifiedTag.get()).build();
+        }
+        Page<Product> page = productQueryService.findByCriteria(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        String eTag = EntityTagUtil.collectionTag(page.getTotalElements(), page.map(ProductResource::versionOf).getContent());
+        return ResponseEntity.ok().headers(headers).eTag(eTag).body(page.getContent());
+    }
 
-        Optional<Product> result = productService.partialUpdate(product);
+    private ResponseEntity<List<Product>> getProductsAfter(ProductCriteria criteria, Pageable pageable, String after) {
+        LOG.debug("REST request to get a window of Products by criteria: {}", criteria);
+        Sort sort = KeysetPaginationUtil.keysetSort(pageable.getSort(), KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+        KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(after, Product.class, sort, ENTITY_NAME);
+        Window<Product> window = productQueryService.findByCriteria(criteria, position, sort, pageable.getPageSize());
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, product.getId().toString())
+    /**
+     * {@code GET  /products/summaries} : get the summaries of all the products.
+     * <p>
+     * The products are returned as {@link ProductSummaryDTO}s, read without loading the entities, so the description and
+     * the relationships are neither selected nor serialised. Criteria, paging, cursors and entity tags work as for
+     * {@code GET /products}.
+     *
+     * @param pageable the pagination information.
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the cursor returned with the previous window, empty for the first window.
+     * @param requestHeaders the request headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of product summaries in body, or with
+     * status {@code 304 (Not Modified)}.
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<List<ProductSummaryDTO>> getAllProductSummaries(
+        ProductCriteria criteria,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @RequestHeader HttpHeaders requestHeaders
+    ) {
+        if (after != null) {
+            return getProductSummariesAfter(criteria, pageable, after);
+        }
+        LOG.debug("REST request to get Product summaries by criteria: {}", criteria);
+        Optional<String> notModifiedTag = notModifiedTag(criteria, pageable, requestHeaders);
+        if (notModifiedTag.isPresent()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModifiedTag.get()).build();
+        }
+        Page<ProductSummaryDTO> page = productQueryService.findSummariesByCriteria(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        String eTag = EntityTagUtil.collectionTag(
+            page.getTotalElements(),
+            page.map(product -> new EntityVersionDTO(product.id(), product.version(), null)).getContent()
         );
+        return ResponseEntity.ok().headers(headers).eTag(eTag).body(page.getContent());
+    }
+
+    private ResponseEntity<List<ProductSummaryDTO>> getProductSummariesAfter(ProductCriteria criteria, Pageable pageable, String after) {
+        LOG.debug("REST request to get a window of Product summaries by criteria: {}", criteria);
+        Sort sort = KeysetPaginationUtil.keysetSort(pageable.getSort(), KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+        KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(after, Product.class, sort, ENTITY_NAME);
+        Window<ProductSummaryDTO> window = productQueryService.findSummariesByCriteria(criteria, position, sort, pageable.getPageSize());
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
     }
 
     /**
-     * {@code GET  /products} : get all the products.
+     * @return the entity tag of the requested page when a conditional request matches it, checked against the versions
+     * of the products alone.
+     */
+    private Optional<String> notModifiedTag(ProductCriteria criteria, Pageable pageable, HttpHeaders requestHeaders) {
+        if (!EntityTagUtil.isConditional(requestHeaders)) {
+            return Optional.empty();
+        }
+        Page<EntityVersionDTO> versions = productQueryService.findVersionsByCriteria(criteria, pageable);
+        String eTag = EntityTagUtil.collectionTag(versions.getTotalElements(), versions.getContent());
+        return EntityTagUtil.isNotModified(requestHeaders, eTag, null) ? Optional.of(eTag) : Optional.empty();
+    }
+
+    /**
+     * {@code GET  /products/count} : count all the products.
      *
-     * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
      */
-    @GetMapping("")
-    public ResponseEntity<List<Product>> getAllProducts(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
-        LOG.debug("REST request to get a page of Products");
-        Page<Product> page = productService.findAll(pageable);
+    @GetMapping("/count")
+    public ResponseEntity<Long> countProducts(ProductCriteria criteria) {
+        LOG.debug("REST request to count Products by criteria: {}", criteria);
+        return ResponseEntity.ok().body(productQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /products/_facets} : get the facet counts of the products matching the criteria.
+     *
+     * @param criteria the criteria which the counted entities should match.
+     * @param priceBucketSize the width of a price histogram bucket.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the facet counts per status, rating, price
+     * bucket and category in body, or with status {@code 400 (Bad Request)} if the price bucket size is not positive.
+     */
+    @GetMapping("/_facets")
+    public ResponseEntity<ProductFacetsDTO> getProductFacets(
+        ProductCriteria criteria,
+        @RequestParam(name = "priceBucketSize", defaultValue = "10") BigDecimal priceBucketSize
+    ) {
+        LOG.debug("REST request to get Product facets by criteria: {}", criteria);
+        if (priceBucketSize.signum() <= 0) {
+            throw new BadRequestAlertException("Price bucket size must be positive", ENTITY_NAME, "pricebucketinvalid");
+        }
+        return ResponseEntity.ok().body(productQueryService.facetsByCriteria(criteria, priceBucketSize));
+    }
+
+    /**
+     * {@code GET  /products/_export} : export all the products, ordered by id.
+     * <p>
+     * The products are streamed as NDJSON, or as CSV when {@code text/csv} is preferred, without paging. A malformed
+     * {@code Accept} header is answered with {@code 400 (Bad Request)}.
+     *
+     * @param updatedSince when set, only export the products modified (or added, if never modified) since then.
+     * @param accept the accepted media types.
+     * @param response the response the products are written to, with status {@code 200 (OK)}.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/_export")
+    public void exportProducts(
+        @RequestParam(name = "updatedSince", required = false) Instant updatedSince,
+        @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+        HttpServletResponse response
+    ) throws IOException {
+        LOG.debug("REST request to export Products updated since {}", updatedSince);
+        ProductFileFormat format = ProductFileFormat.from(accept == null ? List.of() : MediaType.parseMediaTypes(accept));
+        response.setContentType(format.getMediaType().toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        productExportService.export(response.getOutputStream(), format, updatedSince);
+    }
+
+    /**
+     * {@code GET  /products/_search?q=:q} : search the products by title, keywords and description.
+     *
+     * @param q the query of the product search.
+     * @param pageable the pagination information; results are ordered by relevance.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of matching products in body.
+     */
+    @GetMapping("/_search")
+    public ResponseEntity<List<Product>> searchProducts(
+        @RequestParam("q") String q,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to search for a page of Products for query {}", q);
+        Page<Product> page = productService.search(q, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
     /**
      * {@code GET  /products/:id} : get the "id" product.
+     * <p>
+     * A conditional request ({@code If-None-Match} or {@code If-Modified-Since}) is first checked against the version
+     * of the product, read without loading it, and answered with {@code 304 (Not Modified)} when the client copy is
+     * current.
      *
      * @param id the id of the product to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the product, or with status {@code 404 (Not Found)}.
+     * @param requestHeaders the request headers.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the product, or with status {@code 304 (Not Modified)},
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProduct(@PathVariable("id") Long id) {
+    public ResponseEntity<Product> getProduct(@PathVariable("id") Long id, @RequestHeader HttpHeaders requestHeaders) {
         LOG.debug("REST request to get Product : {}", id);
+        if (EntityTagUtil.isConditional(requestHeaders)) {
+            Optional<EntityVersionDTO> version = productService.findVersion(id);
+            if (EntityTagUtil.isNotModified(requestHeaders, version)) {
+                return EntityTagUtil.notModified(version.orElseThrow());
+            }
+        }
         Optional<Product> product = productService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(product);
+        return EntityTagUtil.wrapOrNotFound(product, ProductResource::versionOf);
+    }
+
+    /**
+     * {@code POST  /products/:id/reserve} : reserve units of the "id" product.
+     *
+     * @param id the id of the product.
+     * @param quantity the number of units to reserve.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 400 (Bad Request)} if the quantity is not positive,
+     * or with status {@code 404 (Not Found)}, or with status {@code 409 (Conflict)} if the product does not have enough units in stock.
+     */
+    @PostMapping("/{id}/reserve")
+    public ResponseEntity<Void> reserveProduct(
+        @PathVariable("id") Long id,
+        @RequestParam(name = "quantity", defaultValue = "1") int quantity
+    ) {
+        LOG.debug("REST request to reserve {} units of Product : {}", quantity, id);
+        checkQuantity(quantity);
+        productStockService.reserve(id, quantity);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * {@code POST  /products/:id/release} : release reserved units of the "id" product back to its stock.
+     *
+     * @param id the id of the product.
+     * @param quantity the number of units to release.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 400 (Bad Request)} if the quantity is not positive,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/{id}/release")
+    public ResponseEntity<Void> releaseProduct(
+        @PathVariable("id") Long id,
+        @RequestParam(name = "quantity", defaultValue = "1") int quantity
+    ) {
+        LOG.debug("REST request to release {} units of Product : {}", quantity, id);
+        checkQuantity(quantity);
+        productStockService.release(id, quantity);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * {@code POST  /products/_reserve} : reserve units of several products, all or nothing.
+     *
+     * @param reservations the units to reserve, by product.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 400 (Bad Request)} if a quantity is not positive,
+     * or with status {@code 404 (Not Found)}, or with status {@code 409 (Conflict)} if a product does not have enough units in stock.
+     */
+    @PostMapping("/_reserve")
+    public ResponseEntity<Void> reserveProducts(@NotNull @RequestBody List<StockReservationDTO> reservations) {
+        LOG.debug("REST request to reserve Products : {}", reservations);
+        checkReservations(reservations);
+        productStockService.reserve(reservations);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * {@code POST  /products/_release} : release reserved units of several products back to their stock, all or nothing.
+     *
+     * @param reservations the units to release, by product.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 400 (Bad Request)} if a quantity is not positive,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/_release")
+    public ResponseEntity<Void> releaseProducts(@NotNull @RequestBody List<StockReservationDTO> reservations) {
+        LOG.debug("REST request to release Products : {}", reservations);
+        checkReservations(reservations);
+        productStockService.release(reservations);
+        return ResponseEntity.noContent().build();
     }
 
     /**
@@ -176,4 +490,24 @@ public class ProductResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static EntityVersionDTO versionOf(Product product) {
+        Instant lastModified = product.getDateModified() != null ? product.getDateModified() : product.getDateAdded();
+        return new EntityVersionDTO(product.getId(), product.getVersion(), lastModified);
+    }
+
+    private static void checkReservations(List<StockReservationDTO> reservations) {
+        for (StockReservationDTO reservation : reservations) {
+            if (reservation.productId() == null) {
+                throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+            }
+            checkQuantity(reservation.quantity() == null ? 0 : reservation.quantity());
+        }
+    }
+
+    private static void checkQuantity(int quantity) {
+        if (quantity <= 0) {
+            throw new BadRequestAlertException("Quantity must be positive", ENTITY_NAME, "quantityinvalid");
+        }
+    }
 }
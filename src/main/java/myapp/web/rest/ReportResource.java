@@ -0,0 +1,63 @@
+package myapp.web.rest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import myapp.domain.enumeration.SalesGranularity;
+import myapp.security.AuthoritiesConstants;
+import myapp.service.SalesRollupService;
+import myapp.service.dto.SalesRollupDTO;
+import myapp.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the sales reports, read from the sales rollups.
+ */
+@RestController
+@RequestMapping("/api/reports")
+public class ReportResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReportResource.class);
+
+    private static final String ENTITY_NAME = "salesReport";
+
+    static final long MAX_BUCKETS = 10_000;
+
+    private final SalesRollupService salesRollupService;
+
+    public ReportResource(SalesRollupService salesRollupService) {
+        this.salesRollupService = salesRollupService;
+    }
+
+    /**
+     * {@code GET  /reports/sales} : get the sales between two instants, by hour or by day.
+     * <p>
+     * Buckets are in UTC; {@code from} is rounded down to its bucket and buckets without any order are left out.
+     * Cancelled orders are not counted.
+     *
+     * @param from the first instant.
+     * @param to the last instant, exclusive.
+     * @param granularity the size of the buckets.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of buckets in body, or with status {@code 400 (Bad Request)} if the range is empty or too long.
+     */
+    @GetMapping("/sales")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<SalesRollupDTO>> getSales(
+        @RequestParam("from") Instant from,
+        @RequestParam("to") Instant to,
+        @RequestParam(name = "granularity", defaultValue = "DAY") SalesGranularity granularity
+    ) {
+        LOG.debug("REST request to get the {} sales between {} and {}", granularity, from, to);
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("from must be before to", ENTITY_NAME, "rangeinvalid");
+        }
+        if (Duration.between(granularity.bucketOf(from), to).dividedBy(granularity.getUnit().getDuration()) >= MAX_BUCKETS) {
+            throw new BadRequestAlertException("Too many buckets, use a shorter range or a larger bucket", ENTITY_NAME, "rangetoolong");
+        }
+        return ResponseEntity.ok(salesRollupService.findSales(from, to, granularity));
+    }
+}
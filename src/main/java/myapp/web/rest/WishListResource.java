@@ -4,19 +4,34 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import myapp.domain.WishList;
+import myapp.domain.WishListItem;
+import myapp.repository.ProductRepository;
+import myapp.repository.WishListItemRepository;
 import myapp.repository.WishListRepository;
+import myapp.service.dto.WishListItemDTO;
 import myapp.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
 /**
@@ -31,13 +46,25 @@ public class WishListResource {
 
     private static final String ENTITY_NAME = "wishList";
 
+    private static final int MAX_ITEMS_PER_REQUEST = 500;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final WishListRepository wishListRepository;
 
-    public WishListResource(WishListRepository wishListRepository) {
+    private final WishListItemRepository wishListItemRepository;
+
+    private final ProductRepository productRepository;
+
+    public WishListResource(
+        WishListRepository wishListRepository,
+        WishListItemRepository wishListItemRepository,
+        ProductRepository productRepository
+    ) {
         this.wishListRepository = wishListRepository;
+        this.wishListItemRepository = wishListItemRepository;
+        this.productRepository = productRepository;
     }
 
     /**
@@ -143,11 +170,15 @@ public class WishListResource {
     /**
      * {@code GET  /wish-lists} : get all the wishLists.
      *
+     * @param productId the id of a product the wishLists must hold, optional.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of wishLists in body.
      */
     @GetMapping("")
-    public List<WishList> getAllWishLists() {
-        LOG.debug("REST request to get all WishLists");
+    public List<WishList> getAllWishLists(@RequestParam(name = "productId", required = false) Long productId) {
+        LOG.debug("REST request to get all WishLists, holding product : {}", productId);
+        if (productId != null) {
+            return wishListRepository.findAllByProductId(productId);
+        }
         return wishListRepository.findAll();
     }
 
@@ -173,9 +204,101 @@ public class WishListResource {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteWishList(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete WishList : {}", id);
+        wishListItemRepository.deleteByWishListId(id);
         wishListRepository.deleteById(id);
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * {@code GET  /wish-lists/:id/items} : get the products on the "id" wishList.
+     *
+     * @param id the id of the wishList.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of items in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/items")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<WishListItemDTO>> getWishListItems(
+        @PathVariable("id") Long id,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a page of the items of WishList : {}", id);
+        checkExists(id);
+        Page<WishListItemDTO> page = wishListItemRepository.findAllByWishListId(id, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code POST  /wish-lists/:id/items} : add products to the "id" wishList. Products already on it are left as they
+     * are.
+     *
+     * @param id the id of the wishList.
+     * @param productIds the ids of the products to add.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 400 (Bad Request)} if a product does not exist,
+     * or with status {@code 404 (Not Found)} if the wishList does not exist.
+     */
+    @PostMapping("/{id}/items")
+    public ResponseEntity<Void> addWishListItems(@PathVariable("id") Long id, @NotNull @RequestBody List<Long> productIds) {
+        LOG.debug("REST request to add products to WishList {} : {}", id, productIds);
+        Set<Long> requested = checkProductIds(productIds);
+        checkExists(id);
+        requested.removeAll(wishListItemRepository.findProductIdsByWishListIdAndProductIdIn(id, requested));
+        if (!requested.isEmpty()) {
+            WishList wishList = wishListRepository.getReferenceById(id);
+            Instant addedAt = Instant.now();
+            List<WishListItem> items = requested
+                .stream()
+                .map(productId ->
+                    new WishListItem().wishList(wishList).product(productRepository.getReferenceById(productId)).addedAt(addedAt)
+                )
+                .toList();
+            try {
+                // the references are never initialized: the product foreign key stands for the existence check, so the
+                // product table is not read
+                wishListItemRepository.saveAllAndFlush(items);
+            } catch (DataIntegrityViolationException e) {
+                throw new BadRequestAlertException("Product not found, or added concurrently", ENTITY_NAME, "itemrejected");
+            }
+        }
+        return ResponseEntity.noContent()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .build();
+    }
+
+    /**
+     * {@code POST  /wish-lists/:id/items:remove} : remove products from the "id" wishList. The ids are sent in the body,
+     * as for the addition, since up to {@value #MAX_ITEMS_PER_REQUEST} of them do not fit in a query string.
+     *
+     * @param id the id of the wishList.
+     * @param productIds the ids of the products to remove.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @PostMapping("/{id}/items:remove")
+    public ResponseEntity<Void> removeWishListItems(@PathVariable("id") Long id, @NotNull @RequestBody List<Long> productIds) {
+        LOG.debug("REST request to remove products from WishList {} : {}", id, productIds);
+        wishListItemRepository.deleteByWishListIdAndProductIdIn(id, checkProductIds(productIds));
+        return ResponseEntity.noContent()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .build();
+    }
+
+    private void checkExists(Long id) {
+        if (!wishListRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    private static Set<Long> checkProductIds(List<Long> productIds) {
+        if (productIds.isEmpty() || productIds.size() > MAX_ITEMS_PER_REQUEST) {
+            throw new BadRequestAlertException("Between 1 and " + MAX_ITEMS_PER_REQUEST + " products", ENTITY_NAME, "itemsinvalid");
+        }
+        if (productIds.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestAlertException("Invalid product id", ENTITY_NAME, "idnull");
+        }
+        return new HashSet<>(productIds);
+    }
 }
@@ -0,0 +1,194 @@
+package myapp.web.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import myapp.service.dto.EntityVersionDTO;
+import myapp.web.rest.errors.BadRequestAlertException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Utility class for entity tags derived from the optimistic locking version of an entity.
+ * <p>
+ * Tags are weak: they change with the version of the entity, not with the bytes of its JSON representation. The tag
+ * of an entity embedding other entities also carries the sum of their versions, after a dot.
+ */
+public final class EntityTagUtil {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private static final String ANY = "*";
+
+    private EntityTagUtil() {}
+
+    /**
+     * @param version the entity version.
+     * @return the entity tag of that version.
+     */
+    public static String entityTag(Long version) {
+        return WEAK_PREFIX + "\"" + version + "\"";
+    }
+
+    /**
+     * @param version the version of the representation of an entity.
+     * @return the entity tag of that version.
+     */
+    public static String entityTag(EntityVersionDTO version) {
+        if (version.embeddedVersion() == null) {
+            return entityTag(version.version());
+        }
+        return WEAK_PREFIX + "\"" + version.version() + "." + version.embeddedVersion() + "\"";
+    }
+
+    /**
+     * Compute the entity tag of a list, from the versions of its entities in list order and the total number of
+     * entities, so that a change to any entity of the list, or to what is around it, changes the tag.
+     *
+     * @param total the total number of entities, across all pages.
+     * @param versions the versions of the entities of the list.
+     * @return the entity tag of the list.
+     */
+    public static String collectionTag(long total, List<EntityVersionDTO> versions) {
+        StringBuilder fingerprint = new StringBuilder().append(total);
+        for (EntityVersionDTO version : versions) {
+            fingerprint.append('|').append(version.id()).append(':').append(version.version());
+            if (version.embeddedVersion() != null) {
+                fingerprint.append('.').append(version.embeddedVersion());
+            }
+        }
+        return WEAK_PREFIX + "\"" + DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * @param requestHeaders the request headers.
+     * @return whether the request is a conditional GET, worth a version lookup before loading the entity.
+     */
+    public static boolean isConditional(HttpHeaders requestHeaders) {
+        return requestHeaders.containsKey(HttpHeaders.IF_NONE_MATCH) || requestHeaders.containsKey(HttpHeaders.IF_MODIFIED_SINCE);
+    }
+
+    /**
+     * Evaluate the {@code If-None-Match} header, or the {@code If-Modified-Since} header when there is no
+     * {@code If-None-Match}, against the current entity tag and last modification.
+     *
+     * @param requestHeaders the request headers.
+     * @param entityTag the current entity tag.
+     * @param lastModified the current last modification, may be {@code null}.
+     * @return whether the client copy is still current.
+     */
+    public static boolean isNotModified(HttpHeaders requestHeaders, String entityTag, Instant lastModified) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            String opaqueTag = opaqueTag(entityTag);
+            return ifNoneMatch.stream().map(String::trim).anyMatch(tag -> ANY.equals(tag) || opaqueTag.equals(opaqueTag(tag)));
+        }
+        if (lastModified == null) {
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = requestHeaders.getIfModifiedSince();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // HTTP dates have a one second precision
+        return ifModifiedSince >= 0 && lastModified.getEpochSecond() * 1000 <= ifModifiedSince;
+    }
+
+    /**
+     * Evaluate the conditional headers against the current version of the representation of an entity.
+     *
+     * @param requestHeaders the request headers.
+     * @param version the current version, may be absent when the entity does not exist.
+     * @return whether the client copy is still current.
+     */
+    public static boolean isNotModified(HttpHeaders requestHeaders, Optional<EntityVersionDTO> version) {
+        return version.filter(current -> isNotModified(requestHeaders, entityTag(current), current.lastModified())).isPresent();
+    }
+
+    /**
+     * @param version the version of the representation of the entity the client holds.
+     * @param <X> the response type.
+     * @return a {@code 304 (Not Modified)} response carrying the validators of that version.
+     */
+    public static <X> ResponseEntity<X> notModified(EntityVersionDTO version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag(version));
+        if (version.lastModified() != null) {
+            builder.lastModified(version.lastModified());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Wrap an entity into a {@code 200 (OK)} response carrying the validators of its version, or throw 404 when it is
+     * absent.
+     *
+     * @param maybeResponse the entity.
+     * @param version extracts the version of the representation of the entity.
+     * @param <X> the response type.
+     * @return the response.
+     */
+    public static <X> ResponseEntity<X> wrapOrNotFound(Optional<X> maybeResponse, Function<X, EntityVersionDTO> version) {
+        return maybeResponse
+            .map(response -> {
+                EntityVersionDTO responseVersion = version.apply(response);
+                ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(entityTag(responseVersion));
+                if (responseVersion.lastModified() != null) {
+                    builder.lastModified(responseVersion.lastModified());
+                }
+                return builder.body(response);
+            })
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Resolve the version an update must apply to: the {@code If-Match} header when present, else the version sent in
+     * the body.
+     *
+     * @param ifMatch the {@code If-Match} header value, may be {@code null}.
+     * @param bodyVersion the version sent in the body, may be {@code null}.
+     * @param entityName the entity name used in error messages.
+     * @return the required version, or {@code null} if any version matches.
+     */
+    public static Long expectedVersion(String ifMatch, Long bodyVersion, String entityName) {
+        return ifMatch != null ? parseIfMatch(ifMatch, entityName) : bodyVersion;
+    }
+
+    /**
+     * Parse an {@code If-Match} header into the version it requires.
+     *
+     * @param ifMatch the header value, may be {@code null}.
+     * @param entityName the entity name used in error messages.
+     * @return the required version, or {@code null} if any version matches.
+     */
+    public static Long parseIfMatch(String ifMatch, String entityName) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = opaqueTag(ifMatch.trim());
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            throw new BadRequestAlertException("Invalid If-Match header", entityName, "etaginvalid");
+        }
+        String version = tag.substring(1, tag.length() - 1);
+        // the versions of the embedded entities do not take part in the optimistic locking of the entity
+        int embedded = version.indexOf('.');
+        if (embedded >= 0) {
+            version = version.substring(0, embedded);
+        }
+        try {
+            return Long.valueOf(version);
+        } catch (NumberFormatException e) {
+            throw new BadRequestAlertException("Invalid If-Match header", entityName, "etaginvalid");
+        }
+    }
+
+    private static String opaqueTag(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
@@ -0,0 +1,128 @@
+package myapp.web.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import myapp.web.rest.errors.BadRequestAlertException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for keyset (seek) pagination.
+ * <p>
+ * Cursor mode is enabled by the {@code after} request parameter: an empty value starts at the first row, any other
+ * value is the opaque cursor returned in the {@code Link: rel="next"} header of the previous response. No total count
+ * is computed, so the cost of a page does not depend on how deep it is.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    private static final ObjectMapper CURSOR_MAPPER = JsonMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+
+    private static final TypeReference<LinkedHashMap<String, Object>> KEYS_TYPE = new TypeReference<>() {};
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Validate the requested sort for cursor mode; the id tie-breaker is appended by Spring Data.
+     *
+     * @param sort the requested sort.
+     * @param sortableProperties the non-nullable properties that may be used as a sort key.
+     * @param entityName the entity name used in error messages.
+     * @return the sort to seek on, {@code id} when none was requested.
+     */
+    public static Sort keysetSort(Sort sort, Set<String> sortableProperties, String entityName) {
+        if (sort.isUnsorted()) {
+            return Sort.by("id");
+        }
+        for (Sort.Order order : sort) {
+            if (!"id".equals(order.getProperty()) && !sortableProperties.contains(order.getProperty())) {
+                throw new BadRequestAlertException(
+                    "Sort property not supported in cursor mode: " + order.getProperty(),
+                    entityName,
+                    "sortnotsupported"
+                );
+            }
+        }
+        return sort;
+    }
+
+    /**
+     * Decode the {@code after} parameter into a keyset position.
+     *
+     * @param cursor the opaque cursor, empty to start from the first row.
+     * @param entityClass the entity the keyset values belong to, used to restore their types.
+     * @param sort the sort the cursor must have been created with.
+     * @param entityName the entity name used in error messages.
+     * @return the keyset position to seek from.
+     */
+    public static KeysetScrollPosition decodeCursor(String cursor, Class<?> entityClass, Sort sort, String entityName) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> rawKeys;
+        try {
+            rawKeys = CURSOR_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), KEYS_TYPE);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort.and(Sort.by("id"))) {
+            if (!rawKeys.containsKey(order.getProperty())) {
+                throw new BadRequestAlertException("Cursor does not match the requested sort", entityName, "cursorinvalid");
+            }
+            Class<?> propertyType = BeanUtils.findPropertyType(order.getProperty(), entityClass);
+            keys.put(order.getProperty(), CURSOR_MAPPER.convertValue(rawKeys.get(order.getProperty()), propertyType));
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Encode a keyset position into an opaque, URL-safe cursor.
+     *
+     * @param position the position of the last row of a window.
+     * @return the cursor.
+     */
+    public static String encodeCursor(KeysetScrollPosition position) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(CURSOR_MAPPER.writeValueAsBytes(position.getKeys()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cursor could not be encoded", e);
+        }
+    }
+
+    /**
+     * Generate the {@code Link: rel="next"} header for a window, when there is a next one.
+     *
+     * @param uriBuilder the current request URI.
+     * @param window the window returned to the client.
+     * @param <T> the type of the window content.
+     * @return the headers.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, Window<T> window) {
+        HttpHeaders headers = new HttpHeaders();
+        if (window.hasNext() && !window.isEmpty()) {
+            String cursor = encodeCursor((KeysetScrollPosition) window.positionAt(window.size() - 1));
+            String next = uriBuilder.replaceQueryParam(AFTER_PARAMETER, cursor).replaceQueryParam("page").toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Web utilities.
+ */
+package myapp.web.util;
@@ -11,6 +11,9 @@ export interface ICategory {
   status?: keyof typeof CategoryStatus | null;
   parent?: ICategory | null;
   products?: IProduct[] | null;
+  parentId?: number | null;
+  productCount?: number | null;
+  topProducts?: IProduct[] | null;
 }
 
 export type NewCategory = Omit<ICategory, 'id'> & { id: null };
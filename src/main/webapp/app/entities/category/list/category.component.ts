@@ -117,7 +117,6 @@ export class CategoryComponent implements OnInit {
     const queryObject: any = {
       page: pageToLoad - 1,
       size: this.itemsPerPage,
-      eagerload: true,
       sort: this.sortService.buildSortParam(this.sortState()),
     };
     return this.categoryService.query(queryObject).pipe(tap(() => (this.isLoading = false)));
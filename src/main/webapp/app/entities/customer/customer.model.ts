@@ -1,9 +1,12 @@
+import { IUser } from 'app/entities/user/user.model';
+
 export interface ICustomer {
   id: number;
   firstName?: string | null;
   lastName?: string | null;
   email?: string | null;
   telephone?: string | null;
+  user?: Pick<IUser, 'id' | 'login'> | null;
 }
 
 export type NewCustomer = Omit<ICustomer, 'id'> & { id: null };
@@ -22,6 +22,7 @@ type CustomerFormGroupContent = {
   lastName: FormControl<ICustomer['lastName']>;
   email: FormControl<ICustomer['email']>;
   telephone: FormControl<ICustomer['telephone']>;
+  user: FormControl<ICustomer['user']>;
 };
 
 export type CustomerFormGroup = FormGroup<CustomerFormGroupContent>;
@@ -53,6 +54,7 @@ export class CustomerFormService {
       telephone: new FormControl(customerRawValue.telephone, {
         validators: [Validators.maxLength(15), Validators.pattern('^\\+?[0-9\\s-]+$')],
       }),
+      user: new FormControl(customerRawValue.user),
     });
   }
 
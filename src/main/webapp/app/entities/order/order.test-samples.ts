@@ -5,7 +5,7 @@ import { IOrder, NewOrder } from './order.model';
 export const sampleWithRequiredData: IOrder = {
   id: 24394,
   orderDate: dayjs('2024-09-10T11:42'),
-  status: 'bland',
+  status: 'PAID',
   totalAmount: 2744.27,
 };
 
@@ -13,7 +13,7 @@ export const sampleWithPartialData: IOrder = {
   id: 27487,
   orderDate: dayjs('2024-09-10T06:06'),
   shippedDate: dayjs('2024-09-10T08:38'),
-  status: 'suburban anti hence',
+  status: 'SHIPPED',
   totalAmount: 29097.69,
   trackingNumber: 'yahoo current',
 };
@@ -22,7 +22,7 @@ export const sampleWithFullData: IOrder = {
   id: 9624,
   orderDate: dayjs('2024-09-10T05:01'),
   shippedDate: dayjs('2024-09-10T10:58'),
-  status: 'although blow over',
+  status: 'DELIVERED',
   totalAmount: 31940.27,
   shippingCost: 3168.28,
   trackingNumber: 'circular',
@@ -30,7 +30,7 @@ export const sampleWithFullData: IOrder = {
 
 export const sampleWithNewData: NewOrder = {
   orderDate: dayjs('2024-09-10T09:44'),
-  status: 'boost',
+  status: 'PENDING',
   totalAmount: 9021.26,
   id: null,
 };
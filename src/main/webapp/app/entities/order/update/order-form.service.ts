@@ -28,7 +28,7 @@ type OrderFormRawValue = FormValueOf<IOrder>;
 
 type NewOrderFormRawValue = FormValueOf<NewOrder>;
 
-type OrderFormDefaults = Pick<NewOrder, 'id' | 'orderDate' | 'shippedDate'>;
+type OrderFormDefaults = Pick<NewOrder, 'id' | 'orderDate' | 'shippedDate' | 'status'>;
 
 type OrderFormGroupContent = {
   id: FormControl<OrderFormRawValue['id'] | NewOrder['id']>;
@@ -64,7 +64,7 @@ export class OrderFormService {
       }),
       shippedDate: new FormControl(orderRawValue.shippedDate),
       status: new FormControl(orderRawValue.status, {
-        validators: [Validators.required, Validators.minLength(3)],
+        validators: [Validators.required],
       }),
       totalAmount: new FormControl(orderRawValue.totalAmount, {
         validators: [Validators.required, Validators.min(0)],
@@ -101,6 +101,7 @@ export class OrderFormService {
       id: null,
       orderDate: currentTime,
       shippedDate: currentTime,
+      status: 'PENDING',
     };
   }
 
@@ -43,8 +43,6 @@ type ProductFormGroupContent = {
   dimensions: FormControl<ProductFormRawValue['dimensions']>;
   dateAdded: FormControl<ProductFormRawValue['dateAdded']>;
   dateModified: FormControl<ProductFormRawValue['dateModified']>;
-  wishList: FormControl<ProductFormRawValue['wishList']>;
-  order: FormControl<ProductFormRawValue['order']>;
   categories: FormControl<ProductFormRawValue['categories']>;
 };
 
@@ -96,8 +94,6 @@ export class ProductFormService {
         validators: [Validators.required],
       }),
       dateModified: new FormControl(productRawValue.dateModified),
-      wishList: new FormControl(productRawValue.wishList),
-      order: new FormControl(productRawValue.order),
       categories: new FormControl(productRawValue.categories ?? []),
     });
   }
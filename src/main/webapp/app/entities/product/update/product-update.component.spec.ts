@@ -4,10 +4,6 @@ import { FormBuilder } from '@angular/forms';
 import { ActivatedRoute } from '@angular/router';
 import { Subject, from, of } from 'rxjs';
 
-import { IWishList } from 'app/entities/wish-list/wish-list.model';
-import { WishListService } from 'app/entities/wish-list/service/wish-list.service';
-import { IOrder } from 'app/entities/order/order.model';
-import { OrderService } from 'app/entities/order/service/order.service';
 import { ICategory } from 'app/entities/category/category.model';
 import { CategoryService } from 'app/entities/category/service/category.service';
 import { IProduct } from '../product.model';
@@ -22,8 +18,6 @@ describe('Product Management Update Component', () => {
   let activatedRoute: ActivatedRoute;
   let productFormService: ProductFormService;
   let productService: ProductService;
-  let wishListService: WishListService;
-  let orderService: OrderService;
   let categoryService: CategoryService;
 
   beforeEach(() => {
@@ -47,58 +41,12 @@ describe('Product Management Update Component', () => {
     activatedRoute = TestBed.inject(ActivatedRoute);
     productFormService = TestBed.inject(ProductFormService);
     productService = TestBed.inject(ProductService);
-    wishListService = TestBed.inject(WishListService);
-    orderService = TestBed.inject(OrderService);
     categoryService = TestBed.inject(CategoryService);
 
     comp = fixture.componentInstance;
   });
 
   describe('ngOnInit', () => {
-    it('Should call WishList query and add missing value', () => {
-      const product: IProduct = { id: 456 };
-      const wishList: IWishList = { id: 29642 };
-      product.wishList = wishList;
-
-      const wishListCollection: IWishList[] = [{ id: 14566 }];
-      jest.spyOn(wishListService, 'query').mockReturnValue(of(new HttpResponse({ body: wishListCollection })));
-      const additionalWishLists = [wishList];
-      const expectedCollection: IWishList[] = [...additionalWishLists, ...wishListCollection];
-      jest.spyOn(wishListService, 'addWishListToCollectionIfMissing').mockReturnValue(expectedCollection);
-
-      activatedRoute.data = of({ product });
-      comp.ngOnInit();
-
-      expect(wishListService.query).toHaveBeenCalled();
-      expect(wishListService.addWishListToCollectionIfMissing).toHaveBeenCalledWith(
-        wishListCollection,
-        ...additionalWishLists.map(expect.objectContaining),
-      );
-      expect(comp.wishListsSharedCollection).toEqual(expectedCollection);
-    });
-
-    it('Should call Order query and add missing value', () => {
-      const product: IProduct = { id: 456 };
-      const order: IOrder = { id: 25292 };
-      product.order = order;
-
-      const orderCollection: IOrder[] = [{ id: 24390 }];
-      jest.spyOn(orderService, 'query').mockReturnValue(of(new HttpResponse({ body: orderCollection })));
-      const additionalOrders = [order];
-      const expectedCollection: IOrder[] = [...additionalOrders, ...orderCollection];
-      jest.spyOn(orderService, 'addOrderToCollectionIfMissing').mockReturnValue(expectedCollection);
-
-      activatedRoute.data = of({ product });
-      comp.ngOnInit();
-
-      expect(orderService.query).toHaveBeenCalled();
-      expect(orderService.addOrderToCollectionIfMissing).toHaveBeenCalledWith(
-        orderCollection,
-        ...additionalOrders.map(expect.objectContaining),
-      );
-      expect(comp.ordersSharedCollection).toEqual(expectedCollection);
-    });
-
     it('Should call Category query and add missing value', () => {
       const product: IProduct = { id: 456 };
       const categories: ICategory[] = [{ id: 10351 }];
@@ -123,18 +71,12 @@ describe('Product Management Update Component', () => {
 
     it('Should update editForm', () => {
       const product: IProduct = { id: 456 };
-      const wishList: IWishList = { id: 4717 };
-      product.wishList = wishList;
-      const order: IOrder = { id: 28841 };
-      product.order = order;
       const category: ICategory = { id: 18772 };
       product.categories = [category];
 
       activatedRoute.data = of({ product });
       comp.ngOnInit();
 
-      expect(comp.wishListsSharedCollection).toContain(wishList);
-      expect(comp.ordersSharedCollection).toContain(order);
       expect(comp.categoriesSharedCollection).toContain(category);
       expect(comp.product).toEqual(product);
     });
@@ -209,26 +151,6 @@ describe('Product Management Update Component', () => {
   });
 
   describe('Compare relationships', () => {
-    describe('compareWishList', () => {
-      it('Should forward to wishListService', () => {
-        const entity = { id: 123 };
-        const entity2 = { id: 456 };
-        jest.spyOn(wishListService, 'compareWishList');
-        comp.compareWishList(entity, entity2);
-        expect(wishListService.compareWishList).toHaveBeenCalledWith(entity, entity2);
-      });
-    });
-
-    describe('compareOrder', () => {
-      it('Should forward to orderService', () => {
-        const entity = { id: 123 };
-        const entity2 = { id: 456 };
-        jest.spyOn(orderService, 'compareOrder');
-        comp.compareOrder(entity, entity2);
-        expect(orderService.compareOrder).toHaveBeenCalledWith(entity, entity2);
-      });
-    });
-
     describe('compareCategory', () => {
       it('Should forward to categoryService', () => {
         const entity = { id: 123 };
@@ -7,10 +7,6 @@ import { finalize, map } from 'rxjs/operators';
 import SharedModule from 'app/shared/shared.module';
 import { FormsModule, ReactiveFormsModule } from '@angular/forms';
 
-import { IWishList } from 'app/entities/wish-list/wish-list.model';
-import { WishListService } from 'app/entities/wish-list/service/wish-list.service';
-import { IOrder } from 'app/entities/order/order.model';
-import { OrderService } from 'app/entities/order/service/order.service';
 import { ICategory } from 'app/entities/category/category.model';
 import { CategoryService } from 'app/entities/category/service/category.service';
 import { ProductStatus } from 'app/entities/enumerations/product-status.model';
@@ -29,24 +25,16 @@ export class ProductUpdateComponent implements OnInit {
   product: IProduct | null = null;
   productStatusValues = Object.keys(ProductStatus);
 
-  wishListsSharedCollection: IWishList[] = [];
-  ordersSharedCollection: IOrder[] = [];
   categoriesSharedCollection: ICategory[] = [];
 
   protected productService = inject(ProductService);
   protected productFormService = inject(ProductFormService);
-  protected wishListService = inject(WishListService);
-  protected orderService = inject(OrderService);
   protected categoryService = inject(CategoryService);
   protected activatedRoute = inject(ActivatedRoute);
 
   // eslint-disable-next-line @typescript-eslint/member-ordering
   editForm: ProductFormGroup = this.productFormService.createProductFormGroup();
 
-  compareWishList = (o1: IWishList | null, o2: IWishList | null): boolean => this.wishListService.compareWishList(o1, o2);
-
-  compareOrder = (o1: IOrder | null, o2: IOrder | null): boolean => this.orderService.compareOrder(o1, o2);
-
   compareCategory = (o1: ICategory | null, o2: ICategory | null): boolean => this.categoryService.compareCategory(o1, o2);
 
   ngOnInit(): void {
@@ -97,11 +85,6 @@ export class ProductUpdateComponent implements OnInit {
     this.product = product;
     this.productFormService.resetForm(this.editForm, product);
 
-    this.wishListsSharedCollection = this.wishListService.addWishListToCollectionIfMissing<IWishList>(
-      this.wishListsSharedCollection,
-      product.wishList,
-    );
-    this.ordersSharedCollection = this.orderService.addOrderToCollectionIfMissing<IOrder>(this.ordersSharedCollection, product.order);
     this.categoriesSharedCollection = this.categoryService.addCategoryToCollectionIfMissing<ICategory>(
       this.categoriesSharedCollection,
       ...(product.categories ?? []),
@@ -109,22 +92,6 @@ export class ProductUpdateComponent implements OnInit {
   }
 
   protected loadRelationshipsOptions(): void {
-    this.wishListService
-      .query()
-      .pipe(map((res: HttpResponse<IWishList[]>) => res.body ?? []))
-      .pipe(
-        map((wishLists: IWishList[]) =>
-          this.wishListService.addWishListToCollectionIfMissing<IWishList>(wishLists, this.product?.wishList),
-        ),
-      )
-      .subscribe((wishLists: IWishList[]) => (this.wishListsSharedCollection = wishLists));
-
-    this.orderService
-      .query()
-      .pipe(map((res: HttpResponse<IOrder[]>) => res.body ?? []))
-      .pipe(map((orders: IOrder[]) => this.orderService.addOrderToCollectionIfMissing<IOrder>(orders, this.product?.order)))
-      .subscribe((orders: IOrder[]) => (this.ordersSharedCollection = orders));
-
     this.categoryService
       .query()
       .pipe(map((res: HttpResponse<ICategory[]>) => res.body ?? []))
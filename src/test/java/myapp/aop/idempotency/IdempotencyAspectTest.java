@@ -0,0 +1,165 @@
+package myapp.aop.idempotency;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import myapp.config.ApplicationProperties;
+import myapp.domain.IdempotencyRecord;
+import myapp.repository.IdempotencyRecordRepository;
+import myapp.service.IdempotencyKeyReusedException;
+import myapp.service.IdempotencyService;
+import myapp.service.IdempotentRequestInProgressException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyAspectTest {
+
+    private static final String KEY = "7f3c9a2e";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private MethodSignature signature;
+
+    private ApplicationProperties applicationProperties;
+
+    private IdempotencyAspect idempotencyAspect;
+
+    @BeforeEach
+    public void setUp() {
+        applicationProperties = new ApplicationProperties();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+        request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, KEY);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private IdempotencyAspect createAspect() {
+        idempotencyAspect = new IdempotencyAspect(
+            new IdempotencyService(idempotencyRecordRepository, applicationProperties, transactionManager),
+            new ObjectMapper()
+        );
+        return idempotencyAspect;
+    }
+
+    private void givenRequest(Map<String, Object> body) throws NoSuchMethodException {
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getMethod()).thenReturn(Endpoint.class.getMethod("create", Map.class));
+        when(joinPoint.getArgs()).thenReturn(new Object[] { body });
+    }
+
+    private void givenNoRecord() {
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.complete(anyString(), any(), anyInt(), anyString(), anyString(), any())).thenReturn(1);
+    }
+
+    @Test
+    public void testDuplicateIsReplayedWithoutRunningAgain() throws Throwable {
+        createAspect();
+        givenRequest(Map.of("customer", 1));
+        givenNoRecord();
+        when(joinPoint.proceed()).thenReturn(ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", 42)));
+
+        ResponseEntity<?> first = (ResponseEntity<?>) idempotencyAspect.idempotent(joinPoint);
+        ResponseEntity<?> replayed = (ResponseEntity<?>) idempotencyAspect.idempotent(joinPoint);
+
+        verify(joinPoint, times(1)).proceed();
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        assertEquals(HttpStatus.CREATED, replayed.getStatusCode());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyAspect.IDEMPOTENT_REPLAYED_HEADER));
+        assertEquals("{\"id\":42}", replayed.getBody().toString());
+    }
+
+    @Test
+    public void testKeyReusedForAnotherBodyIsRejected() throws Throwable {
+        createAspect();
+        givenRequest(Map.of("customer", 1));
+        givenNoRecord();
+        when(joinPoint.proceed()).thenReturn(ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", 42)));
+        idempotencyAspect.idempotent(joinPoint);
+
+        when(joinPoint.getArgs()).thenReturn(new Object[] { Map.of("customer", 2) });
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyAspect.idempotent(joinPoint));
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @Test
+    public void testKeyHeldByAnotherInstanceIsInProgress() throws Throwable {
+        applicationProperties.getIdempotency().setLockTimeout(Duration.ofMillis(200));
+        createAspect();
+        givenRequest(Map.of("customer", 1));
+        IdempotencyRecord running = new IdempotencyRecord()
+            .requestHash("hash")
+            .completed(false)
+            .lockedAt(Instant.now())
+            .expiresAt(Instant.now().plus(Duration.ofHours(1)));
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.of(running));
+        when(idempotencyRecordRepository.claimExpiredOrStale(anyString(), anyString(), any(), any(), any())).thenReturn(0);
+
+        assertThrows(IdempotentRequestInProgressException.class, () -> idempotencyAspect.idempotent(joinPoint));
+        verify(joinPoint, never()).proceed();
+    }
+
+    @Test
+    public void testFailedRequestReleasesItsKey() throws Throwable {
+        createAspect();
+        givenRequest(Map.of("customer", 1));
+        givenNoRecord();
+        when(joinPoint.proceed())
+            .thenThrow(new IllegalStateException("database down"))
+            .thenReturn(ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", 42)));
+
+        assertThrows(IllegalStateException.class, () -> idempotencyAspect.idempotent(joinPoint));
+        verify(idempotencyRecordRepository).release(anyString(), any());
+
+        ResponseEntity<?> retried = (ResponseEntity<?>) idempotencyAspect.idempotent(joinPoint);
+        assertEquals(HttpStatus.CREATED, retried.getStatusCode());
+        assertNull(retried.getHeaders().getFirst(IdempotencyAspect.IDEMPOTENT_REPLAYED_HEADER));
+        verify(idempotencyRecordRepository).complete(anyString(), any(), eq(201), anyString(), anyString(), any());
+    }
+
+    public static class Endpoint {
+
+        public ResponseEntity<Object> create(@RequestBody Map<String, Object> body) {
+            return ResponseEntity.ok(body);
+        }
+    }
+}
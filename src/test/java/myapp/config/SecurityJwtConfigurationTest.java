@@ -0,0 +1,92 @@
+package myapp.config;
+
+import static myapp.security.SecurityUtils.JWT_ALGORITHM;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import myapp.management.SecurityMetersService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class SecurityJwtConfigurationTest {
+
+    private static final String KEY = Base64.getEncoder().encodeToString(new byte[64]);
+
+    private static final String OTHER_KEY = Base64.getEncoder().encodeToString("a".repeat(64).getBytes(StandardCharsets.UTF_8));
+
+    private MeterRegistry meterRegistry;
+
+    private JwtDecoder jwtDecoder;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtDecoder = configuration(KEY).jwtDecoder(new SecurityMetersService(meterRegistry), new ApplicationProperties());
+    }
+
+    private static SecurityJwtConfiguration configuration(String key) {
+        SecurityJwtConfiguration configuration = new SecurityJwtConfiguration();
+        ReflectionTestUtils.setField(configuration, "jwtKey", key);
+        return configuration;
+    }
+
+    private static String token(String key, Instant expiresAt) {
+        JwtClaimsSet claims = JwtClaimsSet.builder().subject("alice").issuedAt(expiresAt.minusSeconds(3600)).expiresAt(expiresAt).build();
+        return configuration(key)
+            .jwtEncoder()
+            .encode(JwtEncoderParameters.from(JwsHeader.with(JWT_ALGORITHM).build(), claims))
+            .getTokenValue();
+    }
+
+    private static String base64Url(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private double invalidTokens(String cause) {
+        return meterRegistry
+            .get(SecurityMetersService.INVALID_TOKENS_METER_NAME)
+            .tag(SecurityMetersService.INVALID_TOKENS_METER_CAUSE_DIMENSION, cause)
+            .counter()
+            .count();
+    }
+
+    private void assertRejectedAs(String token, String cause) {
+        assertThrows(JwtException.class, () -> jwtDecoder.decode(token));
+        assertEquals(1, invalidTokens(cause));
+    }
+
+    @Test
+    public void testValidTokenIsDecoded() {
+        assertEquals("alice", jwtDecoder.decode(token(KEY, Instant.now().plusSeconds(3600))).getSubject());
+    }
+
+    @Test
+    public void testExpiredTokenIsClassified() {
+        assertRejectedAs(token(KEY, Instant.now().minusSeconds(3600)), "expired");
+    }
+
+    @Test
+    public void testTokenSignedWithAnotherKeyIsClassified() {
+        assertRejectedAs(token(OTHER_KEY, Instant.now().plusSeconds(3600)), "invalid-signature");
+    }
+
+    @Test
+    public void testMalformedTokenIsClassified() {
+        assertRejectedAs("not-a-token", "malformed");
+    }
+
+    @Test
+    public void testUnsignedTokenIsClassified() {
+        assertRejectedAs(base64Url("{\"alg\":\"none\"}") + "." + base64Url("{\"sub\":\"alice\",\"exp\":4102444800}") + ".", "unsupported");
+    }
+}
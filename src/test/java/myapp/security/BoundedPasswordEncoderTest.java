@@ -0,0 +1,131 @@
+package myapp.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import myapp.management.PasswordHashingMetersService;
+import myapp.web.rest.errors.ExceptionTranslator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.context.request.ServletWebRequest;
+
+public class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private MeterRegistry meterRegistry;
+
+    private PasswordEncoder blocking;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals("hash:" + rawPassword);
+            }
+        };
+    }
+
+    private BoundedPasswordEncoder encoder(int queueCapacity, Duration maxWait) {
+        return new BoundedPasswordEncoder(blocking, 1, queueCapacity, maxWait, new PasswordHashingMetersService(meterRegistry));
+    }
+
+    private double rejected(String operation) {
+        return meterRegistry
+            .get(PasswordHashingMetersService.REJECTED_METER_NAME)
+            .tag(PasswordHashingMetersService.OPERATION_DIMENSION, operation)
+            .counter()
+            .count();
+    }
+
+    @Test
+    public void testOperationsRunOnThePool() {
+        BoundedPasswordEncoder encoder = encoder(1, Duration.ofSeconds(5));
+        release.countDown();
+        try {
+            assertEquals("hash:secret", encoder.encode("secret"));
+            assertTrue(encoder.matches("secret", "hash:secret"));
+        } finally {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    public void testFullQueueIsTurnedAwayAtOnce() throws Exception {
+        BoundedPasswordEncoder encoder = encoder(1, Duration.ofSeconds(5));
+        try {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("running"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Boolean> queued = new CompletableFuture<>();
+            Thread caller = new Thread(() -> queued.complete(encoder.matches("queued", "hash:queued")));
+            caller.start();
+            // the caller waits on its operation once it holds the only place in the queue
+            while (caller.getState() != Thread.State.TIMED_WAITING) {
+                Thread.sleep(10);
+            }
+
+            long start = System.nanoTime();
+            assertThrows(PasswordHashingBusyException.class, () -> encoder.matches("rejected", "hash:rejected"));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+            assertEquals(1, rejected("matches"));
+
+            release.countDown();
+            assertEquals("hash:running", running.get(5, TimeUnit.SECONDS));
+            assertTrue(queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    public void testOperationNotDoneWithinTheMaxWaitIsTurnedAway() {
+        BoundedPasswordEncoder encoder = encoder(1, Duration.ofMillis(100));
+        try {
+            assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("slow"));
+            assertEquals(1, rejected("encode"));
+        } finally {
+            release.countDown();
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    public void testBusyIsAnsweredWithServiceUnavailable() {
+        ExceptionTranslator exceptionTranslator = new ExceptionTranslator(new MockEnvironment());
+
+        ResponseEntity<Object> response = exceptionTranslator.handleAnyException(
+            new PasswordHashingBusyException("Password hashing is saturated, try again later"),
+            new ServletWebRequest(new MockHttpServletRequest("POST", "/api/authenticate"))
+        );
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
@@ -0,0 +1,95 @@
+package myapp.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import myapp.management.SecurityMetersService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingJwtDecoderTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private JwtDecoder delegate;
+
+    private MeterRegistry meterRegistry;
+
+    private CachingJwtDecoder cachingJwtDecoder;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cachingJwtDecoder = new CachingJwtDecoder(delegate, 100, new SecurityMetersService(meterRegistry));
+    }
+
+    private static Jwt jwt(Instant expiresAt) {
+        Jwt.Builder builder = Jwt.withTokenValue(TOKEN).header("alg", "HS512").subject("alice").issuedAt(Instant.now());
+        return expiresAt == null ? builder.build() : builder.expiresAt(expiresAt).build();
+    }
+
+    private double lookups(String result) {
+        return meterRegistry
+            .get(SecurityMetersService.TOKEN_CACHE_METER_NAME)
+            .tag(SecurityMetersService.TOKEN_CACHE_METER_RESULT_DIMENSION, result)
+            .counter()
+            .count();
+    }
+
+    @Test
+    public void testTokenIsVerifiedOnce() {
+        Jwt jwt = jwt(Instant.now().plusSeconds(3600));
+        when(delegate.decode(TOKEN)).thenReturn(jwt);
+
+        assertSame(jwt, cachingJwtDecoder.decode(TOKEN));
+        assertSame(jwt, cachingJwtDecoder.decode(TOKEN));
+
+        verify(delegate, times(1)).decode(TOKEN);
+        assertEquals(1, lookups("hit"));
+        assertEquals(1, lookups("miss"));
+    }
+
+    @Test
+    public void testTokenIsVerifiedAgainOnceExpired() throws InterruptedException {
+        when(delegate.decode(TOKEN)).thenReturn(jwt(Instant.now().plusMillis(100)));
+
+        cachingJwtDecoder.decode(TOKEN);
+        Thread.sleep(200);
+        cachingJwtDecoder.decode(TOKEN);
+
+        verify(delegate, times(2)).decode(TOKEN);
+    }
+
+    @Test
+    public void testTokenWithoutExpiryIsNotKept() {
+        when(delegate.decode(TOKEN)).thenReturn(jwt(null));
+
+        cachingJwtDecoder.decode(TOKEN);
+        cachingJwtDecoder.decode(TOKEN);
+
+        verify(delegate, times(2)).decode(TOKEN);
+    }
+
+    @Test
+    public void testRejectedTokenIsNotKept() {
+        when(delegate.decode(TOKEN)).thenThrow(new BadJwtException("Invalid signature"));
+
+        assertThrows(BadJwtException.class, () -> cachingJwtDecoder.decode(TOKEN));
+        assertThrows(BadJwtException.class, () -> cachingJwtDecoder.decode(TOKEN));
+
+        verify(delegate, times(2)).decode(TOKEN);
+    }
+}
@@ -0,0 +1,86 @@
+package myapp.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import myapp.domain.User;
+import myapp.management.PasswordHashingMetersService;
+import myapp.repository.UserRepository;
+import myapp.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+@ExtendWith(MockitoExtension.class)
+public class DomainUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserService userService;
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    private DaoAuthenticationProvider authenticationProvider;
+
+    @BeforeEach
+    public void setUp() {
+        passwordEncoder = new BoundedPasswordEncoder(
+            new BCryptPasswordEncoder(5),
+            1,
+            10,
+            Duration.ofSeconds(10),
+            new PasswordHashingMetersService(new SimpleMeterRegistry())
+        );
+        DomainUserDetailsService userDetailsService = new DomainUserDetailsService(userRepository, userService);
+        authenticationProvider = new DaoAuthenticationProvider(passwordEncoder);
+        authenticationProvider.setUserDetailsService(userDetailsService);
+        authenticationProvider.setUserDetailsPasswordService(userDetailsService);
+    }
+
+    private void givenUser(String encodedPassword) {
+        User user = new User();
+        user.setLogin("alice");
+        user.setPassword(encodedPassword);
+        user.setActivated(true);
+        when(userRepository.findOneWithAuthoritiesByLogin("alice")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    public void testLoginRehashesPasswordOfLowerStrength() {
+        givenUser(new BCryptPasswordEncoder(4).encode("secret"));
+
+        authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+        ArgumentCaptor<String> rehashed = ArgumentCaptor.forClass(String.class);
+        verify(userService).updateEncodedPassword(eq("alice"), rehashed.capture());
+        assertTrue(rehashed.getValue().startsWith("$2a$05$"));
+        assertTrue(passwordEncoder.matches("secret", rehashed.getValue()));
+        passwordEncoder.destroy();
+    }
+
+    @Test
+    public void testLoginKeepsPasswordOfCurrentStrength() {
+        givenUser(new BCryptPasswordEncoder(5).encode("secret"));
+
+        authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+        verify(userService, never()).updateEncodedPassword(anyString(), any());
+        passwordEncoder.destroy();
+    }
+}
@@ -0,0 +1,172 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import myapp.config.ApplicationProperties;
+import myapp.domain.Address;
+import myapp.domain.Customer;
+import myapp.domain.Order;
+import myapp.domain.Product;
+import myapp.management.CheckoutMetersService;
+import myapp.repository.AddressRepository;
+import myapp.repository.OrderLineRepository;
+import myapp.repository.OrderRepository;
+import myapp.repository.ProductRepository;
+import myapp.service.dto.CheckoutDTO;
+import myapp.service.dto.StockReservationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+
+@ExtendWith(MockitoExtension.class)
+public class CheckoutServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private AddressRepository addressRepository;
+
+    @Mock
+    private CustomerService customerService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderLineRepository orderLineRepository;
+
+    @Mock
+    private ProductStockService productStockService;
+
+    @Mock
+    private OrderStatusCountService orderStatusCountService;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+
+    private CheckoutService checkoutService;
+
+    private final CheckoutDTO checkout = new CheckoutDTO(
+        10L,
+        List.of(new StockReservationDTO(1L, 2), new StockReservationDTO(1L, 1), new StockReservationDTO(2L, 1))
+    );
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        checkoutService = new CheckoutService(
+            productRepository,
+            addressRepository,
+            customerService,
+            orderRepository,
+            orderLineRepository,
+            productStockService,
+            orderStatusCountService,
+            salesRollupService,
+            new CheckoutMetersService(meterRegistry),
+            new ApplicationProperties(),
+            transactionManager
+        );
+    }
+
+    private void givenAddressOfCustomer(Long customerId) {
+        when(customerService.findCurrentCustomerId()).thenReturn(Optional.of(5L));
+        Address address = new Address().id(10L).customer(new Customer().id(customerId));
+        when(addressRepository.findById(10L)).thenReturn(Optional.of(address));
+    }
+
+    private long checkouts(String outcome) {
+        return meterRegistry.get(CheckoutMetersService.CHECKOUTS_METER_NAME).tag("outcome", outcome).timer().count();
+    }
+
+    @Test
+    public void testCheckoutReservesThenPricesFromProductsReadAfterwards() {
+        givenAddressOfCustomer(5L);
+        when(productRepository.findAllById(any())).thenReturn(
+            List.of(new Product().id(1L).price(new BigDecimal("3.00")), new Product().id(2L).price(new BigDecimal("4.50")))
+        );
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Order order = checkoutService.checkout(checkout);
+
+        assertEquals(new BigDecimal("13.50"), order.getTotalAmount());
+        assertEquals(2, order.getLines().size());
+        InOrder inOrder = inOrder(productStockService, productRepository, orderRepository, transactionManager);
+        inOrder.verify(productStockService).reserve(List.of(new StockReservationDTO(1L, 3), new StockReservationDTO(2L, 1)));
+        inOrder.verify(productRepository).findAllById(any());
+        inOrder.verify(orderRepository).save(order);
+        inOrder.verify(transactionManager).commit(any());
+        assertEquals(1, checkouts("success"));
+    }
+
+    @Test
+    public void testAddressOfAnotherCustomerIsRefused() {
+        givenAddressOfCustomer(6L);
+
+        assertThrows(InvalidCheckoutException.class, () -> checkoutService.checkout(checkout));
+        verify(productStockService, never()).reserve(any());
+        verify(transactionManager).rollback(any());
+        assertEquals(1, checkouts("invalid"));
+    }
+
+    @Test
+    public void testUnknownAddressIsRefused() {
+        when(customerService.findCurrentCustomerId()).thenReturn(Optional.of(5L));
+        when(addressRepository.findById(10L)).thenReturn(Optional.empty());
+
+        assertThrows(InvalidCheckoutException.class, () -> checkoutService.checkout(checkout));
+        verify(productStockService, never()).reserve(any());
+        assertEquals(1, checkouts("invalid"));
+    }
+
+    @Test
+    public void testInsufficientStockRollsBackWithoutOrder() {
+        givenAddressOfCustomer(5L);
+        doThrow(new InsufficientStockException(List.of(2L))).when(productStockService).reserve(any());
+
+        assertThrows(InsufficientStockException.class, () -> checkoutService.checkout(checkout));
+        verify(orderRepository, never()).save(any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        assertEquals(1, checkouts("conflict"));
+    }
+
+    @Test
+    public void testFailedCommitIsTimedAndCountedAsError() {
+        givenAddressOfCustomer(5L);
+        when(productRepository.findAllById(any())).thenReturn(
+            List.of(new Product().id(1L).price(BigDecimal.ONE), new Product().id(2L).price(BigDecimal.ONE))
+        );
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+
+        assertThrows(TransactionSystemException.class, () -> checkoutService.checkout(checkout));
+        assertEquals(1, checkouts("error"));
+        assertEquals(
+            1,
+            meterRegistry.get(CheckoutMetersService.STAGES_METER_NAME).tag("stage", "commit").timer().count()
+        );
+    }
+}
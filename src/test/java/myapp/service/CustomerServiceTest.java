@@ -0,0 +1,98 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import myapp.domain.Customer;
+import myapp.domain.User;
+import myapp.repository.CustomerRepository;
+import myapp.security.AuthoritiesConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @InjectMocks
+    private CustomerService customerService;
+
+    @BeforeEach
+    @AfterEach
+    public void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void authenticate(String login, String authority) {
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken(login, "", List.of(new SimpleGrantedAuthority(authority))));
+    }
+
+    private static User user(Long id, String login) {
+        User user = new User();
+        user.setId(id);
+        user.setLogin(login);
+        return user;
+    }
+
+    @Test
+    public void testCurrentCustomerIsResolvedByLinkedLogin() {
+        authenticate("alice", AuthoritiesConstants.USER);
+        when(customerRepository.findIdByUserLogin("alice")).thenReturn(Optional.of(7L));
+
+        assertEquals(Optional.of(7L), customerService.findCurrentCustomerId());
+    }
+
+    @Test
+    public void testAnonymousHasNoCurrentCustomer() {
+        assertTrue(customerService.findCurrentCustomerId().isEmpty());
+        verify(customerRepository, never()).findIdByUserLogin(any());
+    }
+
+    @Test
+    public void testUserCannotLinkNewCustomerToAUser() {
+        authenticate("mallory", AuthoritiesConstants.USER);
+        Customer customer = new Customer().email("victim@example.com").user(user(1L, "victim"));
+        when(customerRepository.save(customer)).thenReturn(customer);
+
+        assertNull(customerService.save(customer).getUser());
+    }
+
+    @Test
+    public void testUserUpdateKeepsExistingLink() {
+        authenticate("mallory", AuthoritiesConstants.USER);
+        User owner = user(2L, "owner");
+        Customer existing = new Customer().id(3L).user(owner);
+        Customer customer = new Customer().id(3L).user(user(9L, "mallory"));
+        when(customerRepository.findById(3L)).thenReturn(Optional.of(existing));
+        when(customerRepository.save(customer)).thenReturn(customer);
+
+        assertSame(owner, customerService.update(customer).getUser());
+    }
+
+    @Test
+    public void testAdminLinksCustomerToUser() {
+        authenticate("admin", AuthoritiesConstants.ADMIN);
+        User linked = user(4L, "bob");
+        Customer customer = new Customer().id(5L).user(linked);
+        when(customerRepository.save(customer)).thenReturn(customer);
+
+        assertSame(linked, customerService.update(customer).getUser());
+        verify(customerRepository, never()).findById(any());
+    }
+}
@@ -0,0 +1,167 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import myapp.config.ApplicationProperties;
+import myapp.domain.MailCampaign;
+import myapp.domain.enumeration.MailCampaignStatus;
+import myapp.management.MailCampaignMetersService;
+import myapp.repository.MailCampaignRepository;
+import myapp.repository.UserRepository;
+import myapp.service.dto.CampaignRecipientDTO;
+import myapp.service.dto.RenderedEmailDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class MailCampaignServiceTest {
+
+    private static final long WAIT_MILLIS = 2000;
+
+    private static final RenderedEmailDTO EMAIL = new RenderedEmailDTO("Subject", "<p>Content</p>");
+
+    @Mock
+    private MailCampaignRepository mailCampaignRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MailService mailService;
+
+    @Mock
+    private JavaMailSender javaMailSender;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ApplicationProperties applicationProperties;
+
+    private MailCampaignService mailCampaignService;
+
+    @BeforeEach
+    public void setUp() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getMailCampaign().setRate(1000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (mailCampaignService != null) {
+            mailCampaignService.shutdown();
+        }
+    }
+
+    private MailCampaignService createService() {
+        mailCampaignService = new MailCampaignService(
+            mailCampaignRepository,
+            userRepository,
+            mailService,
+            javaMailSender,
+            new MailCampaignMetersService(new SimpleMeterRegistry()),
+            transactionManager,
+            applicationProperties
+        );
+        return mailCampaignService;
+    }
+
+    private void givenClaimedCampaign() {
+        when(mailCampaignRepository.findIdsToRun(any())).thenReturn(List.of(1L));
+        when(mailCampaignRepository.claim(eq(1L), any(), any())).thenReturn(1);
+        MailCampaign campaign = new MailCampaign()
+            .id(1L)
+            .templateName("newsletter")
+            .titleKey("email.newsletter.title")
+            .status(MailCampaignStatus.RUNNING);
+        when(mailCampaignRepository.findById(1L)).thenReturn(Optional.of(campaign));
+    }
+
+    private static CampaignRecipientDTO recipient(Long id) {
+        return new CampaignRecipientDTO(id, "user" + id + "@example.com", "en");
+    }
+
+    @Test
+    public void testChunkIsCheckpointedThenCampaignCompleted() {
+        givenClaimedCampaign();
+        when(userRepository.findCampaignRecipientsAfter(eq(0L), any())).thenReturn(List.of(recipient(3L), recipient(4L)));
+        when(userRepository.findCampaignRecipientsAfter(eq(4L), any())).thenReturn(List.of());
+        when(mailService.renderTemplate(any(), any(), any())).thenReturn(EMAIL);
+        when(mailCampaignRepository.checkpoint(eq(1L), any(), any(), eq(4L), eq(2L), eq(0L))).thenReturn(1);
+
+        createService().poll();
+
+        ArgumentCaptor<Instant> checkpointed = ArgumentCaptor.forClass(Instant.class);
+        verify(mailCampaignRepository, timeout(WAIT_MILLIS)).complete(eq(1L), checkpointed.capture(), any());
+        ArgumentCaptor<Instant> heartbeat = ArgumentCaptor.forClass(Instant.class);
+        verify(mailCampaignRepository).checkpoint(eq(1L), any(), heartbeat.capture(), eq(4L), eq(2L), eq(0L));
+        // the completion is made with the heartbeat saved by the checkpoint
+        assertEquals(heartbeat.getValue(), checkpointed.getValue());
+        verify(javaMailSender).send(any(MimeMessage[].class));
+    }
+
+    @Test
+    public void testRunStopsWhenCheckpointFindsCampaignTakenOver() {
+        givenClaimedCampaign();
+        when(userRepository.findCampaignRecipientsAfter(eq(0L), any())).thenReturn(List.of(recipient(3L)));
+        when(mailService.renderTemplate(any(), any(), any())).thenReturn(EMAIL);
+        when(mailCampaignRepository.checkpoint(eq(1L), any(), any(), eq(3L), eq(1L), eq(0L))).thenReturn(0);
+
+        createService().poll();
+
+        verify(mailCampaignRepository, timeout(WAIT_MILLIS)).checkpoint(eq(1L), any(), any(), eq(3L), eq(1L), eq(0L));
+        verify(mailCampaignRepository, after(200).never()).complete(anyLong(), any(), any());
+        verify(userRepository, times(1)).findCampaignRecipientsAfter(any(), any());
+    }
+
+    @Test
+    public void testBatchesAreNotSentOnceLeaseIsLost() {
+        applicationProperties.getMailCampaign().setBatchSize(1);
+        applicationProperties.getMailCampaign().setLease(Duration.ofMillis(400));
+        givenClaimedCampaign();
+        when(userRepository.findCampaignRecipientsAfter(eq(0L), any())).thenReturn(List.of(recipient(3L), recipient(4L)));
+        when(mailService.renderTemplate(any(), any(), any())).thenAnswer(invocation -> {
+            // outlasts a quarter of the lease, so it is renewed before the second batch
+            Thread.sleep(150);
+            return EMAIL;
+        });
+        when(mailCampaignRepository.renew(eq(1L), any(), any())).thenReturn(0);
+        when(mailCampaignRepository.checkpoint(eq(1L), any(), any(), eq(4L), anyLong(), anyLong())).thenReturn(0);
+
+        createService().poll();
+
+        verify(mailCampaignRepository, timeout(WAIT_MILLIS)).checkpoint(eq(1L), any(), any(), eq(4L), eq(1L), eq(0L));
+        verify(mailCampaignRepository).renew(eq(1L), any(), any());
+        verify(javaMailSender, times(1)).send(any(MimeMessage[].class));
+    }
+
+    @Test
+    public void testLeaseShorterThanBatchesIsRefused() {
+        applicationProperties.getMailCampaign().setRate(1);
+        applicationProperties.getMailCampaign().setBatchSize(50);
+        applicationProperties.getMailCampaign().setLease(Duration.ofMinutes(1));
+
+        assertThrows(IllegalStateException.class, this::createService);
+    }
+}
@@ -0,0 +1,152 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Instant;
+import java.util.List;
+import myapp.config.ApplicationProperties;
+import myapp.domain.OutboxMessage;
+import myapp.domain.User;
+import myapp.management.MailOutboxMetersService;
+import myapp.repository.OutboxMessageRepository;
+import myapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class MailOutboxDispatcherTest {
+
+    @Mock
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MailService mailService;
+
+    @Mock
+    private JavaMailSender javaMailSender;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() {
+        dispatcher = new MailOutboxDispatcher(
+            outboxMessageRepository,
+            userRepository,
+            mailService,
+            javaMailSender,
+            new MailOutboxMetersService(new SimpleMeterRegistry()),
+            transactionManager,
+            new ApplicationProperties()
+        );
+    }
+
+    private static OutboxMessage activationMessage() {
+        return new OutboxMessage()
+            .id(1L)
+            .userId(7L)
+            .login("alice")
+            .email("alice@example.com")
+            .langKey("en")
+            .activationKey("queued-key")
+            .templateName("mail/activationEmail")
+            .titleKey("email.activation.title")
+            .attempts(0)
+            .nextAttemptAt(Instant.now())
+            .createdDate(Instant.now());
+    }
+
+    private static User user(Long id, String activationKey) {
+        User user = new User();
+        user.setId(id);
+        user.setLogin("alice");
+        user.setEmail("alice@example.com");
+        user.setLangKey("en");
+        user.setActivationKey(activationKey);
+        return user;
+    }
+
+    private void givenDue(OutboxMessage message) {
+        when(outboxMessageRepository.findDueForUpdate(any(), anyInt(), any())).thenReturn(List.of(message));
+    }
+
+    @Test
+    public void testEmailIsRenderedFromTheRecipientQueued() throws Exception {
+        givenDue(activationMessage());
+        // the user has been activated since, which cleared the key
+        when(userRepository.findAllById(any())).thenReturn(List.of(user(7L, null)));
+        when(mailService.createEmailFromTemplate(any(User.class), anyString(), anyString())).thenReturn(new MimeMessage((Session) null));
+
+        assertEquals(1, dispatcher.dispatch());
+
+        ArgumentCaptor<User> recipient = ArgumentCaptor.forClass(User.class);
+        verify(mailService).createEmailFromTemplate(recipient.capture(), eq("mail/activationEmail"), eq("email.activation.title"));
+        assertEquals("queued-key", recipient.getValue().getActivationKey());
+        verify(javaMailSender).send(any(MimeMessage[].class));
+        verify(outboxMessageRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    public void testMessageOfDeletedUserIsDiscarded() throws Exception {
+        givenDue(activationMessage());
+        when(userRepository.findAllById(any())).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        verify(mailService, never()).createEmailFromTemplate(any(User.class), anyString(), anyString());
+        verify(outboxMessageRepository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    public void testFailedSendIsRetriedLater() throws Exception {
+        OutboxMessage message = activationMessage();
+        givenDue(message);
+        when(userRepository.findAllById(any())).thenReturn(List.of(user(7L, "queued-key")));
+        when(mailService.createEmailFromTemplate(any(User.class), anyString(), anyString())).thenReturn(new MimeMessage((Session) null));
+        doThrow(new MailSendException("connection refused")).when(javaMailSender).send(any(MimeMessage[].class));
+
+        Instant before = Instant.now();
+        dispatcher.dispatch();
+
+        assertEquals(1, message.getAttempts());
+        assertTrue(message.getNextAttemptAt().isAfter(before.plusSeconds(29)));
+        assertTrue(message.getLastError().contains("connection refused"));
+        verify(outboxMessageRepository).saveAll(any());
+        verify(outboxMessageRepository, times(2)).deleteAllByIdInBatch(List.of());
+    }
+
+    @Test
+    public void testDepthIsNotCountedOnEveryRun() {
+        when(outboxMessageRepository.findDueForUpdate(any(), anyInt(), any())).thenReturn(List.of());
+
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+
+        verify(outboxMessageRepository, times(1)).countByAttemptsLessThan(anyInt());
+        verify(outboxMessageRepository, times(1)).countByAttemptsGreaterThanEqual(anyInt());
+    }
+}
@@ -0,0 +1,202 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import myapp.domain.Order;
+import myapp.domain.OrderLine;
+import myapp.domain.Product;
+import myapp.domain.enumeration.OrderStatus;
+import myapp.repository.OrderLineRepository;
+import myapp.repository.OrderRepository;
+import myapp.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderLineRepository orderLineRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OrderStatusCountService orderStatusCountService;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @InjectMocks
+    private OrderService orderService;
+
+    private static Order order(Long id, OrderStatus status, String totalAmount) {
+        Order order = new Order().id(id).status(status).version(0L);
+        order.setTotalAmount(new BigDecimal(totalAmount));
+        return order;
+    }
+
+    @Test
+    public void testUpdateKeepsTotalOfOrderWithLines() {
+        Order existing = order(1L, OrderStatus.PENDING, "42.00");
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(orderLineRepository.existsByOrderId(1L)).thenReturn(true);
+        when(orderRepository.save(existing)).thenReturn(existing);
+
+        Order result = orderService.update(order(1L, OrderStatus.PENDING, "0.01"), null).orElseThrow();
+
+        assertEquals(new BigDecimal("42.00"), result.getTotalAmount());
+    }
+
+    @Test
+    public void testUpdateSetsTotalOfOrderWithoutLines() {
+        Order existing = order(1L, OrderStatus.PENDING, "42.00");
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(orderLineRepository.existsByOrderId(1L)).thenReturn(false);
+        when(orderRepository.save(existing)).thenReturn(existing);
+
+        Order result = orderService.update(order(1L, OrderStatus.PENDING, "10.00"), null).orElseThrow();
+
+        assertEquals(new BigDecimal("10.00"), result.getTotalAmount());
+    }
+
+    @Test
+    public void testPartialUpdateKeepsTotalOfOrderWithLines() {
+        Order existing = order(1L, OrderStatus.PENDING, "42.00");
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(orderLineRepository.existsByOrderId(1L)).thenReturn(true);
+        when(orderRepository.save(existing)).thenReturn(existing);
+
+        Order patch = new Order().id(1L);
+        patch.setTotalAmount(new BigDecimal("0.01"));
+        Order result = orderService.partialUpdate(patch, null).orElseThrow();
+
+        assertEquals(new BigDecimal("42.00"), result.getTotalAmount());
+    }
+
+    @Test
+    public void testNewOrderMustBePending() {
+        Order order = order(null, OrderStatus.SHIPPED, "10.00");
+
+        assertThrows(InvalidOrderStatusTransitionException.class, () -> orderService.save(order));
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    public void testNewOrderLinesAreCheckedBeforePricing() {
+        Order withoutProduct = order(null, OrderStatus.PENDING, "0.00").addLine(new OrderLine().quantity(1));
+        Order withoutQuantity = order(null, OrderStatus.PENDING, "0.00").addLine(new OrderLine().product(new Product().id(1L)));
+        Order withNoneOrdered = order(null, OrderStatus.PENDING, "0.00").addLine(new OrderLine().product(new Product().id(1L)).quantity(0));
+        Order withNegativeQuantity = order(null, OrderStatus.PENDING, "0.00").addLine(
+            new OrderLine().product(new Product().id(1L)).quantity(-2)
+        );
+
+        assertThrows(InvalidOrderLineException.class, () -> orderService.save(withoutProduct));
+        assertThrows(InvalidOrderLineException.class, () -> orderService.save(withoutQuantity));
+        assertThrows(InvalidOrderLineException.class, () -> orderService.save(withNoneOrdered));
+        assertThrows(InvalidOrderLineException.class, () -> orderService.save(withNegativeQuantity));
+        verify(productRepository, never()).findAllById(any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    public void testNewOrderLinesAreValidated() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        Order order = order(null, OrderStatus.PENDING, "0.00").orderDate(Instant.now());
+        order.addLine(new OrderLine().product(new Product().id(1L)).quantity(0));
+
+        assertEquals("lines[].quantity", validator.validate(order).iterator().next().getPropertyPath().toString());
+    }
+
+    @Test
+    public void testNewPendingOrderIsCounted() {
+        Order order = order(null, OrderStatus.PENDING, "10.00");
+        when(orderRepository.save(order)).thenReturn(order);
+
+        assertSame(order, orderService.save(order));
+        verify(orderStatusCountService).moveAfterCommit(null, OrderStatus.PENDING);
+    }
+
+    @Test
+    public void testStatusMovesAlongTheStateMachine() {
+        Order existing = order(1L, OrderStatus.PENDING, "42.00");
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(orderRepository.save(existing)).thenReturn(existing);
+
+        Order patch = new Order().id(1L).status(OrderStatus.PAID);
+        assertEquals(OrderStatus.PAID, orderService.partialUpdate(patch, null).orElseThrow().getStatus());
+        verify(orderStatusCountService).moveAfterCommit(OrderStatus.PENDING, OrderStatus.PAID);
+    }
+
+    @Test
+    public void testStatusCannotSkipOrLeaveFinalStates() {
+        Order pending = order(1L, OrderStatus.PENDING, "42.00");
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(pending));
+        assertThrows(
+            InvalidOrderStatusTransitionException.class,
+            () -> orderService.partialUpdate(new Order().id(1L).status(OrderStatus.SHIPPED), null)
+        );
+
+        Order delivered = order(2L, OrderStatus.DELIVERED, "42.00");
+        when(orderRepository.findById(2L)).thenReturn(Optional.of(delivered));
+        assertThrows(
+            InvalidOrderStatusTransitionException.class,
+            () -> orderService.partialUpdate(new Order().id(2L).status(OrderStatus.CANCELLED), null)
+        );
+        assertEquals(OrderStatus.DELIVERED, delivered.getStatus());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    public void testStaleVersionIsRefused() {
+        Order existing = order(1L, OrderStatus.PENDING, "42.00");
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        assertThrows(
+            EntityVersionMismatchException.class,
+            () -> orderService.partialUpdate(new Order().id(1L).status(OrderStatus.PAID), 5L)
+        );
+    }
+
+    @Test
+    public void testSavePricesLinesFromTheCurrentProductPrices() {
+        Order order = order(null, OrderStatus.PENDING, "0.00")
+            .addLine(new OrderLine().product(new Product().id(1L)).quantity(2))
+            .addLine(new OrderLine().product(new Product().id(2L)).quantity(1));
+        when(productRepository.findAllById(any())).thenReturn(
+            List.of(new Product().id(1L).price(new BigDecimal("10.00")), new Product().id(2L).price(new BigDecimal("5.50")))
+        );
+        when(orderRepository.save(order)).thenReturn(order);
+
+        orderService.save(order);
+
+        assertEquals(new BigDecimal("25.50"), order.getTotalAmount());
+        assertTrue(order.getLines().stream().allMatch(line -> line.getUnitPrice().equals(line.getProduct().getPrice())));
+        verify(orderLineRepository).saveAll(order.getLines());
+    }
+
+    @Test
+    public void testSaveRefusesLinesOfUnknownProducts() {
+        Order order = order(null, OrderStatus.PENDING, "0.00").addLine(new OrderLine().product(new Product().id(1L)).quantity(1));
+        when(productRepository.findAllById(any())).thenReturn(List.of());
+
+        assertThrows(ProductNotFoundException.class, () -> orderService.save(order));
+        verify(orderRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,49 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+public class ProductFileFormatTest {
+
+    private static ProductFileFormat fromAccept(String accept) {
+        return ProductFileFormat.from(MediaType.parseMediaTypes(accept));
+    }
+
+    @Test
+    public void testMissingOrWildcardAcceptGivesNdjson() {
+        assertEquals(ProductFileFormat.NDJSON, ProductFileFormat.from(List.of()));
+        assertEquals(ProductFileFormat.NDJSON, fromAccept("*/*"));
+        assertEquals(ProductFileFormat.NDJSON, fromAccept("application/json"));
+    }
+
+    @Test
+    public void testCsvIsChosenWhenAccepted() {
+        assertEquals(ProductFileFormat.CSV, fromAccept("text/csv"));
+        assertEquals(ProductFileFormat.CSV, fromAccept("text/*, */*;q=0.1"));
+    }
+
+    @Test
+    public void testQualityWinsOverOrder() {
+        assertEquals(ProductFileFormat.NDJSON, fromAccept("text/csv;q=0.5, application/x-ndjson"));
+        assertEquals(ProductFileFormat.CSV, fromAccept("application/x-ndjson;q=0.2, text/csv;q=0.8"));
+    }
+
+    @Test
+    public void testSpecificityWinsAtTheSameQuality() {
+        assertEquals(ProductFileFormat.NDJSON, fromAccept("text/*, application/x-ndjson"));
+    }
+
+    @Test
+    public void testRefusedFormatIsNotChosen() {
+        assertEquals(ProductFileFormat.NDJSON, fromAccept("text/*, text/csv;q=0"));
+    }
+
+    @Test
+    public void testMalformedAcceptIsRejected() {
+        assertThrows(InvalidMediaTypeException.class, () -> fromAccept("text/csv;q=high"));
+    }
+}
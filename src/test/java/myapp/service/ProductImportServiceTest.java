@@ -0,0 +1,126 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import myapp.domain.Product;
+import myapp.service.dto.ProductImportReportDTO;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceTest {
+
+    private static final String BROKEN_TITLE = "Broken lamp";
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductSearchService productSearchService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductImportService productImportService;
+
+    private final List<Product> pending = new ArrayList<>();
+
+    private final List<Product> inserted = new ArrayList<>();
+
+    private long nextId = 1;
+
+    @BeforeEach
+    public void setUp() {
+        productImportService = new ProductImportService(
+            productService,
+            productSearchService,
+            entityManager,
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            new ObjectMapper().registerModule(new JavaTimeModule()),
+            transactionManager
+        );
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        doAnswer(invocation -> {
+            Product product = invocation.getArgument(0);
+            if (product.getId() != null) {
+                throw new IllegalStateException("detached entity passed to persist");
+            }
+            product.setId(nextId++);
+            pending.add(product);
+            return null;
+        })
+            .when(entityManager)
+            .persist(any());
+        // the database refuses the whole flush when it holds the broken product
+        doAnswer(invocation -> {
+            List<Product> flushed = new ArrayList<>(pending);
+            pending.clear();
+            if (flushed.stream().anyMatch(product -> BROKEN_TITLE.equals(product.getTitle()))) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            inserted.addAll(flushed);
+            return null;
+        })
+            .when(entityManager)
+            .flush();
+    }
+
+    private static String row(String title) {
+        return "{\"title\":\"" + title + "\",\"price\":10,\"status\":\"IN_STOCK\"}";
+    }
+
+    private ProductImportReportDTO importRows(List<String> rows) throws Exception {
+        byte[] body = String.join("\n", rows).getBytes(StandardCharsets.UTF_8);
+        return productImportService.importProducts(new ByteArrayInputStream(body), ProductFileFormat.NDJSON);
+    }
+
+    @Test
+    public void testOnlyTheRowRefusedByTheDatabaseIsRejected() throws Exception {
+        List<String> rows = IntStream.rangeClosed(1, 9)
+            .mapToObj(i -> row(i == 5 ? BROKEN_TITLE : "Lamp " + i))
+            .collect(Collectors.toList());
+
+        ProductImportReportDTO report = importRows(rows);
+
+        assertEquals(8, report.imported());
+        assertEquals(1, report.failed());
+        assertEquals(5, report.errors().get(0).line());
+        assertTrue(report.errors().get(0).message().startsWith("Rejected by the database: "));
+        assertEquals(8, inserted.size());
+        assertTrue(inserted.stream().noneMatch(product -> BROKEN_TITLE.equals(product.getTitle())));
+    }
+
+    @Test
+    public void testChunkWithoutFailureIsInsertedAtOnce() throws Exception {
+        ProductImportReportDTO report = importRows(List.of(row("Lamp 1"), row("Lamp 2"), row("Lamp 3")));
+
+        assertEquals(3, report.imported());
+        assertEquals(0, report.failed());
+        assertEquals(List.of(1L, 2L, 3L), inserted.stream().map(Product::getId).toList());
+    }
+}
@@ -2,9 +2,15 @@ package myapp.service;
 
 import myapp.domain.Product;
 import myapp.domain.enumeration.ProductStatus;
+import myapp.repository.OrderLineRepository;
 import myapp.repository.ProductRepository;
+import myapp.repository.WishListItemRepository;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.Test;
@@ -15,10 +21,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import jakarta.validation.Validation;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.Optional;
 
 @ExtendWith(MockitoExtension.class)
 public class ProductServiceTest {
@@ -26,6 +34,15 @@ public class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSearchService productSearchService;
+
+    @Mock
+    private WishListItemRepository wishListItemRepository;
+
+    @Mock
+    private OrderLineRepository orderLineRepository;
+
     @InjectMocks
     private ProductService productService; // Injects the mock into the service
 
@@ -194,4 +211,68 @@ public class ProductServiceTest {
         assertThrows(InvalidDimensionsException.class, () -> productService.save(invalidDimensionsTooLong)); // Dimensões muito longas
     }
 
+    @Test
+    public void testUpdateSetsModificationDateToNow() {
+        Instant start = Instant.now();
+        Product existing = createProductSample(1L, "Van", null, null, 0, 1, null, BigDecimal.ONE);
+        existing.setVersion(3L);
+        Product product = createProductSample(1L, "Van 2", null, null, 0, 1, null, BigDecimal.ONE);
+        product.setDateModified(Instant.EPOCH);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(productRepository.save(existing)).thenReturn(existing);
+
+        Product result = productService.update(product, 3L);
+
+        assertFalse(result.getDateModified().isBefore(start));
+    }
+
+    @Test
+    public void testVersionedPatchIsValidatedBeforeTheUpdate() {
+        ProductService validatingService = productServiceWithValidator();
+
+        assertThrows(InvalidProductException.class, () -> validatingService.partialUpdate(new Product().id(1L).rating(9), 3L));
+        assertThrows(InvalidProductException.class, () -> validatingService.partialUpdate(new Product().id(1L).title("Al"), 3L));
+        assertThrows(InvalidProductException.class, () -> validatingService.partialUpdate(new Product().id(1L).price(BigDecimal.ONE.negate()), 3L));
+        verify(productRepository, never()).updateIfVersionMatches(any(), anyLong());
+    }
+
+    @Test
+    public void testVersionedPatchChecksOnlyTheGivenFields() {
+        ProductService validatingService = productServiceWithValidator();
+        Product patch = new Product().id(1L).price(BigDecimal.TEN);
+        Product updated = createProductSample(1L, "Van", null, null, 0, 1, null, BigDecimal.TEN);
+        when(productRepository.updateIfVersionMatches(patch, 3L)).thenReturn(true);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(updated));
+
+        assertEquals(Optional.of(updated), validatingService.partialUpdate(patch, 3L));
+    }
+
+    private ProductService productServiceWithValidator() {
+        return new ProductService(
+            productRepository,
+            wishListItemRepository,
+            orderLineRepository,
+            productSearchService,
+            Validation.buildDefaultValidatorFactory().getValidator()
+        );
+    }
+
+    @Test
+    public void testDeleteOrderedProductIsRefused() {
+        when(productRepository.existsById(1L)).thenReturn(true);
+        when(orderLineRepository.existsByProductId(1L)).thenReturn(true);
+
+        assertThrows(ProductInUseException.class, () -> productService.delete(1L));
+        verify(wishListItemRepository, never()).deleteByProductId(1L);
+        verify(productRepository, never()).deleteById(1L);
+    }
+
+    @Test
+    public void testDeleteUnknownProduct() {
+        when(productRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ProductNotFoundException.class, () -> productService.delete(1L));
+        verify(orderLineRepository, never()).existsByProductId(1L);
+    }
+
 }
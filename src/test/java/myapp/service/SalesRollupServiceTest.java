@@ -0,0 +1,130 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import myapp.config.ApplicationProperties;
+import myapp.domain.SalesDailyRollup;
+import myapp.domain.SalesHourlyRollup;
+import myapp.domain.enumeration.SalesGranularity;
+import myapp.repository.OrderRepository;
+import myapp.repository.SalesDailyRollupRepository;
+import myapp.repository.SalesHourlyRollupRepository;
+import myapp.service.SalesRollupService.Sale;
+import myapp.service.dto.SalesTotalsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class SalesRollupServiceTest {
+
+    private static final Instant HOUR = Instant.parse("2026-10-16T10:00:00Z");
+
+    private static final Instant DAY = Instant.parse("2026-10-16T00:00:00Z");
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private SalesHourlyRollupRepository salesHourlyRollupRepository;
+
+    @Mock
+    private SalesDailyRollupRepository salesDailyRollupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SalesRollupService salesRollupService;
+
+    @BeforeEach
+    public void setUp() {
+        salesRollupService = new SalesRollupService(
+            orderRepository,
+            salesHourlyRollupRepository,
+            salesDailyRollupRepository,
+            transactionManager,
+            new ApplicationProperties()
+        );
+    }
+
+    private static Sale sale(String revenue) {
+        return new Sale(HOUR, new SalesTotalsDTO(1, new BigDecimal(revenue), BigDecimal.ONE));
+    }
+
+    @Test
+    public void testFlushAddsToBothRollups() {
+        when(salesHourlyRollupRepository.add(HOUR, 2, new BigDecimal("30"), new BigDecimal("2"))).thenReturn(1);
+        when(salesDailyRollupRepository.add(DAY, 2, new BigDecimal("30"), new BigDecimal("2"))).thenReturn(0);
+
+        salesRollupService.moveAfterCommit(null, sale("10"));
+        salesRollupService.moveAfterCommit(null, sale("20"));
+        salesRollupService.flush();
+
+        ArgumentCaptor<SalesDailyRollup> created = ArgumentCaptor.forClass(SalesDailyRollup.class);
+        verify(salesDailyRollupRepository).saveAndFlush(created.capture());
+        assertEquals(DAY, created.getValue().getBucketStart());
+        assertEquals(2L, created.getValue().getOrderCount());
+    }
+
+    @Test
+    public void testChangesThatCancelOutAreNotWritten() {
+        salesRollupService.moveAfterCommit(null, sale("10"));
+        salesRollupService.moveAfterCommit(sale("10"), null);
+        salesRollupService.flush();
+
+        verify(salesHourlyRollupRepository, never()).add(any(), anyLong(), any(), any());
+    }
+
+    @Test
+    public void testShutdownWritesPendingChanges() {
+        when(salesHourlyRollupRepository.add(HOUR, 1, new BigDecimal("10"), BigDecimal.ONE)).thenReturn(1);
+        when(salesDailyRollupRepository.add(DAY, 1, new BigDecimal("10"), BigDecimal.ONE)).thenReturn(1);
+
+        salesRollupService.moveAfterCommit(null, sale("10"));
+        salesRollupService.shutdown();
+
+        verify(salesDailyRollupRepository).add(DAY, 1, new BigDecimal("10"), BigDecimal.ONE);
+    }
+
+    @Test
+    public void testStartupReconcilesTheCurrentDay() {
+        Instant today = SalesGranularity.DAY.bucketOf(Instant.now());
+        SalesTotalsDTO actual = new SalesTotalsDTO(3, new BigDecimal("30"), new BigDecimal("3"));
+        SalesHourlyRollup stored = new SalesHourlyRollup();
+        stored.setBucketStart(today);
+        stored.setOrderCount(1L);
+        stored.setRevenue(BigDecimal.TEN);
+        stored.setShippingCost(BigDecimal.ONE);
+        when(salesHourlyRollupRepository.findAllByBucketStartGreaterThanEqualAndBucketStartLessThan(today, today.plus(1, ChronoUnit.DAYS)))
+            .thenReturn(List.of(stored));
+        when(orderRepository.sumSales(any(), any())).thenAnswer(invocation -> {
+            // the orders are all in the first hour of the day
+            Instant from = invocation.getArgument(0);
+            return from.equals(today) ? actual : SalesTotalsDTO.ZERO;
+        });
+        when(salesDailyRollupRepository.findById(today)).thenReturn(Optional.empty());
+
+        salesRollupService.reconcileToday();
+
+        assertEquals(3L, stored.getOrderCount());
+        assertEquals(0, new BigDecimal("30").compareTo(stored.getRevenue()));
+        ArgumentCaptor<SalesDailyRollup> created = ArgumentCaptor.forClass(SalesDailyRollup.class);
+        verify(salesDailyRollupRepository).save(created.capture());
+        assertEquals(today, created.getValue().getBucketStart());
+        assertEquals(3L, created.getValue().getOrderCount());
+    }
+}
@@ -0,0 +1,120 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import myapp.domain.User;
+import myapp.repository.AuthorityRepository;
+import myapp.repository.UserRepository;
+import myapp.service.dto.AdminUserDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+public class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private AuthorityRepository authorityRepository;
+
+    @Mock
+    private MailService mailService;
+
+    private Cache usersByLogin;
+
+    private Cache usersByEmail;
+
+    private UserService userService;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+            UserRepository.USERS_BY_LOGIN_CACHE,
+            UserRepository.USERS_BY_EMAIL_CACHE
+        );
+        usersByLogin = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+        usersByEmail = cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE);
+        userService = new UserService(userRepository, passwordEncoder, authorityRepository, mailService, cacheManager);
+
+        user = new User();
+        user.setId(1L);
+        user.setLogin("alice");
+        user.setEmail("Alice@Example.com");
+        user.setPassword("hash");
+        usersByLogin.put("alice", user);
+        usersByEmail.put("alice@example.com", user);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testLoginAndEmailChangeEvictsTheFormerKeys() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setId(1L);
+        userDTO.setLogin("alicia");
+        userDTO.setEmail("alicia@example.com");
+        userDTO.setAuthorities(new HashSet<>());
+
+        userService.updateUser(userDTO);
+
+        assertNull(usersByLogin.get("alice"));
+        assertNull(usersByEmail.get("alice@example.com"));
+    }
+
+    @Test
+    public void testOwnEmailChangeEvictsTheFormerEmail() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("alice", "", List.of()));
+        when(userRepository.findOneByLogin("alice")).thenReturn(Optional.of(user));
+
+        userService.updateUser("Alice", "Smith", "alice.smith@example.com", "en", null);
+
+        assertNull(usersByLogin.get("alice"));
+        assertNull(usersByEmail.get("alice@example.com"));
+    }
+
+    @Test
+    public void testEvictionIsRepeatedAfterCommit() {
+        when(userRepository.findOneByLogin("alice")).thenReturn(Optional.of(user));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.updateEncodedPassword("alice", "rehashed");
+            // a read made before the commit caches the user as it was
+            User stale = new User();
+            stale.setLogin("alice");
+            stale.setPassword("hash");
+            usersByLogin.put("alice", stale);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals("rehashed", user.getPassword());
+        assertNull(usersByLogin.get("alice"));
+        assertNull(usersByEmail.get("alice@example.com"));
+    }
+}
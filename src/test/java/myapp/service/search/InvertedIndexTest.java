@@ -0,0 +1,93 @@
+package myapp.service.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class InvertedIndexTest {
+
+    private static InvertedIndex.Document document(long id, String text) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        List<String> terms = TextAnalyzer.analyze(text);
+        terms.forEach(term -> termFrequencies.merge(term, 1, Integer::sum));
+        return new InvertedIndex.Document(id, termFrequencies, terms.size());
+    }
+
+    @Test
+    public void testAnalyzeFoldsAccentsAndStems() {
+        assertEquals(List.of("cafe", "shoe", "box", "battery"), TextAnalyzer.analyze("Café: the Shoes, Boxes and Batteries"));
+        assertEquals(List.of("run", "shoe"), TextAnalyzer.analyze("Running shoes"));
+        assertTrue(TextAnalyzer.analyze(null).isEmpty());
+    }
+
+    @Test
+    public void testIePluralsShareTheTermOfTheirSingular() {
+        assertEquals(List.of("movy", "cooky", "fly"), TextAnalyzer.analyze("Movies, cookies and flies"));
+        for (String singular : List.of("beanie", "brownie", "calorie", "cookie", "hoodie", "movie", "selfie", "smoothie", "zombie")) {
+            assertEquals(TextAnalyzer.analyze(singular), TextAnalyzer.analyze(singular + "s"), singular);
+        }
+        assertEquals(TextAnalyzer.analyze("battery"), TextAnalyzer.analyze("batteries"));
+    }
+
+    @Test
+    public void testInvariantPluralsKeepOneTerm() {
+        assertEquals(List.of("sery", "specy", "new"), TextAnalyzer.analyze("series species news"));
+    }
+
+    @Test
+    public void testShortStemsAreKept() {
+        assertEquals(List.of("tie", "tie", "gas", "sing", "fly"), TextAnalyzer.analyze("tie ties gas sing fly"));
+    }
+
+    @Test
+    public void testSearchRanksByRelevance() {
+        InvertedIndex index = new InvertedIndex();
+        index.addAll(
+            List.of(
+                document(1L, "red shoe with a long description about many other things"),
+                document(2L, "red shoe"),
+                document(3L, "blue hat")
+            )
+        );
+
+        InvertedIndex.Result result = index.search(TextAnalyzer.analyze("red shoes"), 10);
+
+        assertEquals(List.of(2L, 1L), result.ids());
+        assertEquals(2, result.totalHits());
+    }
+
+    @Test
+    public void testUpdateAndRemoveReplaceDocuments() {
+        InvertedIndex index = new InvertedIndex();
+        index.add(document(1L, "red shoe"));
+        index.add(document(1L, "blue hat"));
+
+        assertTrue(index.search(TextAnalyzer.analyze("shoe"), 10).ids().isEmpty());
+        assertEquals(List.of(1L), index.search(TextAnalyzer.analyze("hat"), 10).ids());
+
+        index.remove(1L);
+
+        assertEquals(0, index.size());
+        assertEquals(0, index.search(TextAnalyzer.analyze("hat"), 10).totalHits());
+    }
+
+    @Test
+    public void testCompactionKeepsLiveDocuments() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= 4000; id++) {
+            index.add(document(id, "item " + id + (id % 2 == 0 ? " even" : " odd")));
+        }
+        for (long id = 1; id <= 4000; id += 2) {
+            index.remove(id);
+        }
+
+        InvertedIndex.Result result = index.search(TextAnalyzer.analyze("even"), 3);
+
+        assertEquals(2000, index.size());
+        assertEquals(2000, result.totalHits());
+        assertEquals(List.of(2L, 4L, 6L), result.ids());
+    }
+}
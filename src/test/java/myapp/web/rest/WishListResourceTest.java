@@ -0,0 +1,80 @@
+package myapp.web.rest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import myapp.domain.Product;
+import myapp.domain.WishList;
+import myapp.domain.WishListItem;
+import myapp.repository.ProductRepository;
+import myapp.repository.WishListItemRepository;
+import myapp.repository.WishListRepository;
+import myapp.web.rest.errors.BadRequestAlertException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+@ExtendWith(MockitoExtension.class)
+public class WishListResourceTest {
+
+    @Mock
+    private WishListRepository wishListRepository;
+
+    @Mock
+    private WishListItemRepository wishListItemRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private WishListResource wishListResource;
+
+    private static List<Long> productIds(int count) {
+        return LongStream.rangeClosed(1, count).boxed().toList();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAddAcceptsUpToTheLimitAndSkipsProductsAlreadyOnTheList() {
+        when(wishListRepository.existsById(1L)).thenReturn(true);
+        when(wishListItemRepository.findProductIdsByWishListIdAndProductIdIn(any(), any())).thenReturn(List.of(1L, 2L));
+        when(wishListRepository.getReferenceById(1L)).thenReturn(new WishList().id(1L));
+        when(productRepository.getReferenceById(anyLong())).thenAnswer(invocation -> new Product().id(invocation.getArgument(0)));
+
+        assertEquals(HttpStatus.NO_CONTENT, wishListResource.addWishListItems(1L, productIds(500)).getStatusCode());
+
+        ArgumentCaptor<List<WishListItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(wishListItemRepository).saveAllAndFlush(saved.capture());
+        assertEquals(498, saved.getValue().size());
+    }
+
+    @Test
+    public void testAddRefusesMoreThanTheLimit() {
+        assertThrows(BadRequestAlertException.class, () -> wishListResource.addWishListItems(1L, productIds(501)));
+        verify(wishListItemRepository, never()).saveAllAndFlush(any());
+    }
+
+    @Test
+    public void testRemoveTakesTheIdsOfTheBody() {
+        assertEquals(HttpStatus.NO_CONTENT, wishListResource.removeWishListItems(1L, List.of(3L, 4L, 3L)).getStatusCode());
+
+        verify(wishListItemRepository).deleteByWishListIdAndProductIdIn(1L, Set.of(3L, 4L));
+    }
+
+    @Test
+    public void testRemoveRefusesMoreThanTheLimit() {
+        assertThrows(BadRequestAlertException.class, () -> wishListResource.removeWishListItems(1L, productIds(501)));
+        verify(wishListItemRepository, never()).deleteByWishListIdAndProductIdIn(any(), any());
+    }
+}
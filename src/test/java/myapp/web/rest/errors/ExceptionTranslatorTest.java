@@ -0,0 +1,86 @@
+package myapp.web.rest.errors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import myapp.domain.enumeration.OrderStatus;
+import myapp.security.PasswordHashingBusyException;
+import myapp.service.EntityVersionMismatchException;
+import myapp.service.IdempotencyKeyReusedException;
+import myapp.service.IdempotentRequestInProgressException;
+import myapp.service.InsufficientStockException;
+import myapp.service.InvalidCategoryParentException;
+import myapp.service.InvalidCheckoutException;
+import myapp.service.InvalidOrderLineException;
+import myapp.service.InvalidOrderStatusTransitionException;
+import myapp.service.InvalidRatingException;
+import myapp.service.ProductInUseException;
+import myapp.service.ProductNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+public class ExceptionTranslatorTest {
+
+    private ExceptionTranslator exceptionTranslator;
+
+    private NativeWebRequest request;
+
+    @BeforeEach
+    public void setUp() {
+        exceptionTranslator = new ExceptionTranslator(new MockEnvironment());
+        request = new ServletWebRequest(new MockHttpServletRequest("PATCH", "/api/products/1"));
+    }
+
+    private HttpStatus statusOf(Throwable ex) {
+        ResponseEntity<Object> response = exceptionTranslator.handleAnyException(ex, request);
+        return HttpStatus.valueOf(response.getStatusCode().value());
+    }
+
+    @Test
+    public void testInvalidProductIsABadRequest() {
+        assertEquals(HttpStatus.BAD_REQUEST, statusOf(new InvalidRatingException("Avaliação inválida: deve estar entre 0 e 5.")));
+    }
+
+    @Test
+    public void testInvalidOrderLineIsABadRequest() {
+        assertEquals(HttpStatus.BAD_REQUEST, statusOf(new InvalidOrderLineException("An order line must refer to a product")));
+    }
+
+    @Test
+    public void testServiceExceptionsMapToTheirResponseStatus() {
+        assertEquals(HttpStatus.NOT_FOUND, statusOf(new ProductNotFoundException("Product not found with ID: 1")));
+        assertEquals(HttpStatus.CONFLICT, statusOf(new ProductInUseException(1L)));
+        assertEquals(HttpStatus.CONFLICT, statusOf(new InsufficientStockException(List.of(1L))));
+        assertEquals(HttpStatus.CONFLICT, statusOf(new InvalidOrderStatusTransitionException(OrderStatus.SHIPPED)));
+        assertEquals(HttpStatus.BAD_REQUEST, statusOf(new InvalidCategoryParentException("A category cannot be its own parent")));
+        assertEquals(HttpStatus.BAD_REQUEST, statusOf(new InvalidCheckoutException("Unknown shipping address")));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, statusOf(new IdempotencyKeyReusedException()));
+        assertEquals(HttpStatus.CONFLICT, statusOf(new IdempotentRequestInProgressException()));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, statusOf(new EntityVersionMismatchException("Product", 1L, 2L)));
+        assertEquals(HttpStatus.BAD_REQUEST, statusOf(new InvalidMimeTypeException("text", "no subtype")));
+    }
+
+    @Test
+    public void testAnnotatedStatusKeepsTheReasonPhraseAsTitle() {
+        ResponseEntity<Object> response = exceptionTranslator.handleAnyException(new ProductInUseException(1L), request);
+
+        assertEquals("Conflict", ((ProblemDetail) response.getBody()).getTitle());
+    }
+
+    @Test
+    public void testBusyPasswordHashingAsksToRetry() {
+        ResponseEntity<Object> response = exceptionTranslator.handleAnyException(new PasswordHashingBusyException("busy"), request);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}